@@ -0,0 +1,90 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.LintProblem.ErrorLevel;
+import com.github.imas.rdflint.validator.impl.TrimValidator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ValidationRunnerBenchmark {
+
+  private static final int PROBLEMS_PER_FILE = 100;
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private LintProblemSet problems;
+  private Path suppressPath;
+
+  /**
+   * build problems of size triples, and suppress file which matches half of them.
+   */
+  @Setup
+  public void setup() throws IOException {
+    TrimValidator validator = new TrimValidator();
+    List<Triple> triples = CorpusGenerator.create().files(1).triplesPerFile(size)
+        .generateTriples(0);
+    problems = new LintProblemSet();
+    StringBuilder suppress = new StringBuilder();
+    for (int i = 0; i < triples.size(); i++) {
+      Triple t = triples.get(i);
+      String file = "file" + i / PROBLEMS_PER_FILE + ".ttl";
+      LintProblem problem = new LintProblem(ErrorLevel.WARN, validator,
+          new LintProblemLocation(i + 1, 1, t), "needTrimLiteral", t.getObject());
+      problems.addProblem(file, problem);
+      if (i % PROBLEMS_PER_FILE == 0) {
+        suppress.append(file).append(":\n");
+      }
+      if (i % 2 == 0) {
+        suppress.append("  - key: ").append(problem.getKey()).append('\n')
+            .append("    subject: ").append(t.getSubject()).append('\n')
+            .append("    predicate: ").append(t.getPredicate()).append('\n')
+            .append("    object: '").append(t.getObject().toString().replace("'", "''"))
+            .append("'\n");
+      }
+    }
+    suppressPath = Files.createTempFile("rdflint-suppress", ".yml");
+    Files.write(suppressPath, suppress.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * remove suppress file.
+   */
+  @TearDown
+  public void tearDown() {
+    try {
+      Files.deleteIfExists(suppressPath);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Benchmark
+  public LintProblemSet suppressProblems() throws IOException {
+    return ValidationRunner.suppressProblems(problems, suppressPath.toString());
+  }
+
+}
@@ -0,0 +1,76 @@
+package com.github.imas.rdflint.parser;
+
+import com.github.imas.rdflint.CorpusGenerator;
+import com.github.imas.rdflint.LintProblem;
+import com.github.imas.rdflint.validator.RdfValidator;
+import com.github.imas.rdflint.validator.impl.TrimValidator;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RdflintParserBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  @Param({"false", "true"})
+  private boolean withValidators;
+
+  private String turtle;
+  private String rdfxml;
+  private List<RdfValidator> validators;
+
+  /**
+   * build source text of size triples.
+   */
+  @Setup
+  public void setup() {
+    List<Triple> triples = CorpusGenerator.create().files(1).triplesPerFile(size)
+        .generateTriples(0);
+    turtle = CorpusGenerator.turtle(triples);
+    rdfxml = CorpusGenerator.rdfxml(triples);
+    validators = withValidators
+        ? Collections.singletonList(new TrimValidator()) : Collections.emptyList();
+  }
+
+  @Benchmark
+  public Graph parseTurtle() {
+    return parse(turtle, Lang.TURTLE);
+  }
+
+  @Benchmark
+  public Graph parseRdfxml() {
+    return parse(rdfxml, Lang.RDFXML);
+  }
+
+  private Graph parse(String body, Lang lang) {
+    Graph g = Factory.createGraphMem();
+    List<LintProblem> problems = new LinkedList<>();
+    RdflintParser.fromString(body).lang(lang).base(CorpusGenerator.BASE_URI)
+        .validators(validators).parse(g, problems);
+    return g;
+  }
+
+}
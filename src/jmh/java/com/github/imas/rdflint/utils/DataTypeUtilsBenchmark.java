@@ -0,0 +1,86 @@
+package com.github.imas.rdflint.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DataTypeUtilsBenchmark {
+
+  private static final String[] SAMPLES = {
+      "12345", "-42", "3.14159", "+0.5", "rdflint", "Hello, world", "こんにちは", "カタカナ",
+      "1e10", "",
+  };
+
+  private static final String[] LANGS = {"en", "ja", "ja-Kana", "ja-Hira", "fr"};
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private String[] values;
+  private String[] langs;
+
+  /**
+   * build values of mixed types and languages.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(size);
+    values = new String[size];
+    langs = new String[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = SAMPLES[random.nextInt(SAMPLES.length)];
+      langs[i] = LANGS[random.nextInt(LANGS.length)];
+    }
+  }
+
+  /**
+   * guess data type of each value.
+   */
+  @Benchmark
+  public void guessDataType(Blackhole bh) {
+    for (String v : values) {
+      bh.consume(DataTypeUtils.guessDataType(v));
+    }
+  }
+
+  /**
+   * check language of each value.
+   */
+  @Benchmark
+  public void isLang(Blackhole bh) {
+    for (int i = 0; i < values.length; i++) {
+      bh.consume(DataTypeUtils.isLang(values[i], langs[i]));
+    }
+  }
+
+  /**
+   * guess data type and check language of each value, memoized per value.
+   */
+  @Benchmark
+  public void classifyMemoized(Blackhole bh) {
+    LiteralClassifier classifier = new LiteralClassifier();
+    for (int i = 0; i < values.length; i++) {
+      int flags = classifier.classify(values[i]);
+      bh.consume(DataTypeUtils.dataTypeOf(flags));
+      bh.consume(DataTypeUtils.isLang(flags, langs[i]));
+    }
+  }
+
+}
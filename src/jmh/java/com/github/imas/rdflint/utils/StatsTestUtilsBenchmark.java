@@ -0,0 +1,51 @@
+package com.github.imas.rdflint.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StatsTestUtilsBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private double[] values;
+
+  /**
+   * build normally distributed values, with a few outliers.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(size);
+    values = new double[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = 50 + random.nextGaussian() * 10;
+    }
+    values[0] = 1000;
+  }
+
+  /**
+   * values are sorted by test, so copy is tested.
+   */
+  @Benchmark
+  public double[] clusteringOutlierTest() {
+    return StatsTestUtils.clusteringOutlierTest(values.clone(), 3.0, 10);
+  }
+
+}
@@ -0,0 +1,67 @@
+package com.github.imas.rdflint.validator.impl;
+
+import com.github.imas.rdflint.CorpusGenerator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DataTypeValidatorBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private List<Triple> triples;
+  private Map<String, List<Triple>> fileTripleSet;
+  private DataTypeValidator prepared;
+
+  /**
+   * build dataset, and validator prepared from it.
+   */
+  @Setup
+  public void setup() {
+    triples = CorpusGenerator.create().files(1).triplesPerFile(size)
+        .generateTriples(0);
+    fileTripleSet = Collections.singletonMap("benchmark.ttl", triples);
+    prepared = new DataTypeValidator();
+    prepared.prepareValidationResource(fileTripleSet);
+  }
+
+  @Benchmark
+  public DataTypeValidator prepareValidationResource() {
+    DataTypeValidator validator = new DataTypeValidator();
+    validator.prepareValidationResource(fileTripleSet);
+    return validator;
+  }
+
+  /**
+   * validate each triple of dataset.
+   */
+  @Benchmark
+  public void validateTriple(Blackhole bh) {
+    for (Triple t : triples) {
+      bh.consume(prepared.validateTriple(t.getSubject(), t.getPredicate(), t.getObject(),
+          1, 1, 1, 1));
+    }
+  }
+
+}
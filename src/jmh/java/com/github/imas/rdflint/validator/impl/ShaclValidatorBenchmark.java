@@ -0,0 +1,69 @@
+package com.github.imas.rdflint.validator.impl;
+
+import com.github.imas.rdflint.CorpusGenerator;
+import com.github.imas.rdflint.LintProblem;
+import com.github.imas.rdflint.parser.RdflintParser;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ShaclValidatorBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private List<Triple> triples;
+  private ShaclValidator validator;
+
+  /**
+   * prepare validator with dataset and shapes of corpus.
+   */
+  @Setup
+  public void setup() {
+    CorpusGenerator generator = CorpusGenerator.create().files(1).triplesPerFile(size);
+    triples = generator.generateTriples(0);
+    Graph shapes = Factory.createGraphMem();
+    List<LintProblem> problems = new LinkedList<>();
+    RdflintParser.fromString(generator.shapes()).lang(Lang.TURTLE).parse(shapes, problems);
+    List<Triple> dataset = new ArrayList<>(triples);
+    dataset.addAll(shapes.find().toList());
+    validator = new ShaclValidator();
+    validator.prepareValidationResource(Collections.singletonMap("benchmark.ttl", dataset));
+  }
+
+  /**
+   * validate each triple of dataset.
+   */
+  @Benchmark
+  public void validateTriple(Blackhole bh) {
+    for (Triple t : triples) {
+      bh.consume(validator.validateTriple(t.getSubject(), t.getPredicate(), t.getObject(),
+          1, 1, 1, 1));
+    }
+  }
+
+}
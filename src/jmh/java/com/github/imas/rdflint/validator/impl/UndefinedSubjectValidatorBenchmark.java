@@ -0,0 +1,65 @@
+package com.github.imas.rdflint.validator.impl;
+
+import com.github.imas.rdflint.CorpusGenerator;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.TripleTable;
+import com.github.imas.rdflint.config.RdfLintParameters;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UndefinedSubjectValidatorBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private List<Triple> triples;
+  private UndefinedSubjectValidator validator;
+
+  /**
+   * prepare validator with subjects of dataset.
+   */
+  @Setup
+  public void setup() {
+    triples = CorpusGenerator.create().files(1).triplesPerFile(size)
+        .generateTriples(0);
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri(CorpusGenerator.BASE_URI);
+    validator = new UndefinedSubjectValidator();
+    validator.setParameters(params);
+    NodeDictionary dictionary = new NodeDictionary();
+    TripleTable.encode(triples, dictionary)
+        .forEachId(validator.subscribeValidationResource("benchmark.ttl", dictionary));
+    validator.completeValidationResource();
+  }
+
+  /**
+   * validate subject and object of each triple.
+   */
+  @Benchmark
+  public void validateNode(Blackhole bh) {
+    for (Triple t : triples) {
+      bh.consume(validator.validateNode(t.getSubject(), 1, 1, 1, 1));
+      bh.consume(validator.validateNode(t.getObject(), 1, 1, 1, 1));
+    }
+  }
+
+}
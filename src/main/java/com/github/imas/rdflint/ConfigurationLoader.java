@@ -84,6 +84,56 @@ public class ConfigurationLoader {
     if (suppressPath != null) {
       params.setSuppressPath(suppressPath);
     }
+    String jobs = cmdOptions.get("jobs");
+    if (jobs != null) {
+      try {
+        params.setJobs(Integer.parseInt(jobs));
+      } catch (NumberFormatException ex) {
+        logger.warn(String.format("setupParameters: invalid jobs %s, use default", jobs));
+      }
+    }
+    if (cmdOptions.containsKey("incremental")) {
+      params.setIncremental(true);
+    }
+    String storage = cmdOptions.get("storage");
+    if (storage != null) {
+      params.setStorage(storage);
+    }
+    if (cmdOptions.containsKey("profile")) {
+      params.setProfile(true);
+    }
+    String maxProblems = cmdOptions.get("maxProblems");
+    if (maxProblems != null) {
+      try {
+        params.setMaxProblems(Integer.parseInt(maxProblems));
+      } catch (NumberFormatException ex) {
+        logger.warn(String.format("setupParameters: invalid maxProblems %s, ignored",
+            maxProblems));
+      }
+    }
+    String maxProblemsPerKey = cmdOptions.get("maxProblemsPerKey");
+    if (maxProblemsPerKey != null) {
+      try {
+        params.setMaxProblemsPerKey(Integer.parseInt(maxProblemsPerKey));
+      } catch (NumberFormatException ex) {
+        logger.warn(String.format("setupParameters: invalid maxProblemsPerKey %s, ignored",
+            maxProblemsPerKey));
+      }
+    }
+    if (cmdOptions.containsKey("failFast")) {
+      params.setFailFast(true);
+    }
+    String minErrorLevel = cmdOptions.get("minErrorLevel");
+    if (minErrorLevel != null) {
+      params.setMinErrorLevel(minErrorLevel);
+    }
+    if (cmdOptions.containsKey("offline")) {
+      params.setOffline(true);
+    }
+    String vocabularyCache = cmdOptions.get("vocabularyCache");
+    if (vocabularyCache != null) {
+      params.setVocabularyCacheDir(vocabularyCache);
+    }
   }
 
   protected static String searchConfigPath(String parentPath) {
@@ -0,0 +1,23 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.validator.RdfValidator;
+
+/**
+ * validator which wraps other validator, e.g. for profiling or serialized calls.
+ */
+interface DelegatingValidator extends RdfValidator {
+
+  RdfValidator getDelegate();
+
+  /**
+   * return innermost validator of wrapped validator.
+   */
+  static RdfValidator unwrap(RdfValidator validator) {
+    RdfValidator v = validator;
+    while (v instanceof DelegatingValidator) {
+      v = ((DelegatingValidator) v).getDelegate();
+    }
+    return v;
+  }
+
+}
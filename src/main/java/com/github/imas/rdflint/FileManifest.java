@@ -0,0 +1,152 @@
+package com.github.imas.rdflint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.riot.Lang;
+import org.apache.log4j.Logger;
+
+/**
+ * immutable list of rdf files under directory. directory is scanned once, and every phase
+ * uses relative path, language and base uri resolved here.
+ */
+public final class FileManifest {
+
+  private static final Logger logger = Logger.getLogger(FileManifest.class.getName());
+
+  private final String parentPath;
+  private final List<Entry> entries;
+  private final Map<String, Entry> entryMap;
+
+  private FileManifest(String parentPath, List<Entry> entries) {
+    this.parentPath = parentPath;
+    this.entries = Collections.unmodifiableList(entries);
+    Map<String, Entry> map = new HashMap<>();
+    entries.forEach(e -> map.put(e.getFilename(), e));
+    this.entryMap = Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * scan rdf files (rdf, ttl) under parentPath.
+   */
+  public static FileManifest scan(String parentPath, String baseUri) throws IOException {
+    if (logger.isTraceEnabled()) {
+      logger.trace("scan: in (parentPath=" + parentPath + ")");
+    }
+    List<Entry> entries = new ArrayList<>();
+    Files.walkFileTree(Paths.get(parentPath), new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (isRdfFile(file)) {
+          String filename = file.toString().substring(parentPath.length() + 1);
+          entries.add(new Entry(file, filename, resolveBaseUri(baseUri, filename),
+              attrs.size(), attrs.lastModifiedTime().toMillis()));
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    return new FileManifest(parentPath, entries);
+  }
+
+  /**
+   * return whether path is rdf file.
+   */
+  public static boolean isRdfFile(Path path) {
+    String name = path.toString();
+    return name.endsWith(".rdf") || name.endsWith(".ttl");
+  }
+
+  /**
+   * resolve base uri of file, from relative filename.
+   */
+  public static String resolveBaseUri(String baseUri, String filename) {
+    String subdir = filename.substring(0, filename.lastIndexOf(File.separatorChar) + 1);
+    if (File.separatorChar == '\\') {
+      subdir = subdir.replace('\\', '/');
+    }
+    return baseUri + subdir;
+  }
+
+  public String getParentPath() {
+    return parentPath;
+  }
+
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * get entry by relative filename, or null if not exists.
+   */
+  public Entry getEntry(String filename) {
+    return entryMap.get(filename);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * return total bytes of files.
+   */
+  public long getTotalSize() {
+    return entries.stream().mapToLong(Entry::getSize).sum();
+  }
+
+  /**
+   * rdf file in manifest.
+   */
+  public static final class Entry {
+
+    private final Path path;
+    private final String filename;
+    private final Lang lang;
+    private final String baseUri;
+    private final long size;
+    private final long lastModified;
+
+    Entry(Path path, String filename, String baseUri, long size, long lastModified) {
+      this.path = path;
+      this.filename = filename;
+      this.lang = filename.endsWith(".ttl") ? Lang.TURTLE : Lang.RDFXML;
+      this.baseUri = baseUri;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    public Path getPath() {
+      return path;
+    }
+
+    public String getFilename() {
+      return filename;
+    }
+
+    public Lang getLang() {
+      return lang;
+    }
+
+    public String getBaseUri() {
+      return baseUri;
+    }
+
+    public long getSize() {
+      return size;
+    }
+
+    public long getLastModified() {
+      return lastModified;
+    }
+  }
+
+}
@@ -31,6 +31,14 @@ public class GenerationRunner {
    */
   void execute(RdfLintParameters params, String targetDir)
       throws IOException {
+    execute(params, targetDir, new RdfDocumentCache(params.getBaseUri()));
+  }
+
+  /**
+   * rdflint generation process, with parsed documents shared in run.
+   */
+  void execute(RdfLintParameters params, String targetDir, RdfDocumentCache documentCache)
+      throws IOException {
     logger.trace("execute: in");
     if (params.getGeneration() == null) {
       logger.trace("execute: exit");
@@ -57,12 +65,17 @@ public class GenerationRunner {
     templateEngine.setTemplateResolver(templateResolver);
 
     // prepare rdf dataset
-    Model m = DatasetLoader.loadRdfSet(params, targetDir);
+    Profiler profiler = documentCache.getProfiler();
+    Model m;
+    try (WorkerPool pool = new WorkerPool(params.getJobs());
+        Profiler.Timer t = profiler.phase("generation.loadRdfSet")) {
+      m = DatasetLoader.loadRdfSet(documentCache, targetDir, pool);
+    }
 
     params.getGeneration().forEach(g -> {
       String q = g.getQuery();
 
-      try {
+      try (Profiler.Timer t = profiler.phase("generation.generate(" + g.getOutput() + ")")) {
         // execute query and build result set
         Query query = QueryFactory.create(q);
         QueryExecution qe = QueryExecutionFactory.create(query, m);
@@ -93,6 +106,7 @@ public class GenerationRunner {
             ctx,
             Files.newBufferedWriter(Paths.get(targetDir + "/" + g.getOutput()))
         );
+        invalidateDocument(documentCache, new File(targetDir + "/" + g.getOutput()));
 
       } catch (Exception ex) {
         ex.printStackTrace(); // NOPMD
@@ -102,4 +116,13 @@ public class GenerationRunner {
     logger.trace("execute: out");
   }
 
+  // generated output is rewritten, so discard parsed document
+  private static void invalidateDocument(RdfDocumentCache documentCache, File f) {
+    try {
+      documentCache.invalidate(f.getCanonicalPath());
+    } catch (IOException ex) {
+      logger.trace("invalidateDocument: skip " + f.getPath());
+    }
+  }
+
 }
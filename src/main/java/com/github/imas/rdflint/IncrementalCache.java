@@ -0,0 +1,569 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.LintProblem.ErrorLevel;
+import com.github.imas.rdflint.RdfDocument.ParseEvent;
+import com.github.imas.rdflint.config.RdfLintParameters;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.log4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * persistent per-file result cache for incremental mode. stores content hash, parsed triples,
+ * parser callbacks and problems of file-local validators under outputDir. whole cache is
+ * discarded when configuration, suppress file or rdflint version is changed.
+ */
+public class IncrementalCache {
+
+  private static final Logger logger = Logger.getLogger(IncrementalCache.class.getName());
+
+  static final String CACHE_DIR = ".rdflint-cache";
+  private static final String STAMP_FILE = "stamp";
+  private static final String ENTRY_SUFFIX = ".bin";
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte NODE_URI = 1;
+  private static final byte NODE_BLANK = 2;
+  private static final byte NODE_LITERAL = 3;
+  private static final byte NODE_LANG_LITERAL = 4;
+
+  private static final byte ARG_NULL = 0;
+  private static final byte ARG_STRING = 1;
+  private static final byte ARG_INTEGER = 2;
+  private static final byte ARG_LONG = 3;
+  private static final byte ARG_DOUBLE = 4;
+
+  private final Path cacheDir;
+  private final NodeDictionary dictionary;
+  // lookup result by absolute path, Entry.MISS if changed or not cached
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private IncrementalCache(Path cacheDir, NodeDictionary dictionary) {
+    this.cacheDir = cacheDir;
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * open cache under outputDir. cache is cleared if fingerprint of run is changed.
+   */
+  public static IncrementalCache open(RdfLintParameters params) throws IOException {
+    return open(params, new NodeDictionary());
+  }
+
+  /**
+   * open cache under outputDir, restored documents are encoded by dictionary.
+   */
+  public static IncrementalCache open(RdfLintParameters params, NodeDictionary dictionary)
+      throws IOException {
+    Path cacheDir = Paths.get(params.getOutputDir(), CACHE_DIR);
+    String fingerprint = fingerprint(params);
+    Path stampPath = cacheDir.resolve(STAMP_FILE);
+    boolean valid = Files.exists(stampPath)
+        && fingerprint.equals(new String(Files.readAllBytes(stampPath), StandardCharsets.UTF_8));
+    if (!valid) {
+      logger.trace("open: fingerprint changed, clear cache");
+      Files.createDirectories(cacheDir);
+      try (DirectoryStream<Path> ds = Files.newDirectoryStream(cacheDir, "*" + ENTRY_SUFFIX)) {
+        for (Path p : ds) {
+          Files.delete(p);
+        }
+      }
+      Files.write(stampPath, fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+    return new IncrementalCache(cacheDir, dictionary);
+  }
+
+  // rdflint version, effective parameters and suppress file
+  static String fingerprint(RdfLintParameters params) throws IOException {
+    RdfLintParameters p = new RdfLintParameters();
+    RdfLintParameters.copyProperties(params, p);
+    p.setJobs(0);
+    p.setIncremental(false);
+    p.setStorage(null);
+    p.setProfile(false);
+    p.setMaxProblems(0);
+    p.setMaxProblemsPerKey(0);
+    p.setFailFast(false);
+    p.setMinErrorLevel(null);
+    p.setOffline(false);
+    p.setVocabularyCacheDir(null);
+    p.setVocabularyTtl(0);
+    p.setVocabularyTimeout(0);
+    MessageDigest md = newDigest();
+    md.update((RdfLint.VERSION + "\n" + FORMAT_VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+    md.update(new Yaml().dump(p).getBytes(StandardCharsets.UTF_8));
+    if (params.getSuppressPath() != null && Files.exists(Paths.get(params.getSuppressPath()))) {
+      md.update(Files.readAllBytes(Paths.get(params.getSuppressPath())));
+    }
+    return toHex(md.digest());
+  }
+
+  /**
+   * return cached result if file is not changed since cached, otherwise null.
+   */
+  public Entry lookup(Path path) {
+    Entry entry = entries.computeIfAbsent(path.toString(), k -> read(path));
+    return entry == Entry.MISS ? null : entry;
+  }
+
+  /**
+   * discard lookup result, e.g. file is rewritten.
+   */
+  public void invalidate(String path) {
+    entries.remove(path);
+  }
+
+  /**
+   * store result of file. documents which have parse problems, or whose callbacks are not
+   * recorded, are not stored.
+   */
+  public void store(Path path, RdfDocument doc, List<LintProblem> fileProblems,
+      List<LintProblem> tripleProblems) {
+    if (doc.getLoadError() != null || !doc.getParseProblems().isEmpty()
+        || !doc.canValidate()) {
+      return;
+    }
+    Path entryPath = entryPath(path);
+    Path tmpPath = null;
+    try {
+      BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+      byte[] hash = hash(path);
+      tmpPath = Files.createTempFile(cacheDir, "entry", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(path.toString());
+        out.writeLong(attrs.size());
+        out.writeLong(attrs.lastModifiedTime().toMillis());
+        out.writeInt(hash.length);
+        out.write(hash);
+        writeString(out, doc.getFilename());
+        writeString(out, doc.getBaseUri());
+        new EntryWriter(out).write(doc, fileProblems, tripleProblems);
+      }
+      Files.move(tmpPath, entryPath, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      logger.warn(String.format("store: cannot write cache (path=%s)", path));
+      deleteQuietly(tmpPath);
+    }
+  }
+
+  /**
+   * remove cached results of files which are not in manifest.
+   */
+  public void retain(FileManifest manifest) throws IOException {
+    Set<Path> live = new HashSet<>();
+    manifest.getEntries().forEach(e -> live.add(entryPath(e.getPath())));
+    try (DirectoryStream<Path> ds = Files.newDirectoryStream(cacheDir, "*" + ENTRY_SUFFIX)) {
+      for (Path p : ds) {
+        if (!live.contains(p)) {
+          Files.delete(p);
+        }
+      }
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      logger.trace(String.format("deleteQuietly: cannot delete (path=%s)", path));
+    }
+  }
+
+  private Path entryPath(Path path) {
+    MessageDigest md = newDigest();
+    String name = toHex(md.digest(path.toString().getBytes(StandardCharsets.UTF_8)));
+    return cacheDir.resolve(name + ENTRY_SUFFIX);
+  }
+
+  private Entry read(Path path) {
+    Path entryPath = entryPath(path);
+    if (!Files.exists(entryPath)) {
+      return Entry.MISS;
+    }
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(entryPath)))) {
+      if (in.readInt() != FORMAT_VERSION || !path.toString().equals(in.readUTF())) {
+        return Entry.MISS;
+      }
+      long size = in.readLong();
+      long lastModified = in.readLong();
+      byte[] hash = new byte[in.readInt()];
+      in.readFully(hash);
+
+      // size and mtime are same, skip hash check
+      BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+      if (attrs.size() != size) {
+        return Entry.MISS;
+      }
+      if (attrs.lastModifiedTime().toMillis() != lastModified
+          && !Arrays.equals(hash, hash(path))) {
+        return Entry.MISS;
+      }
+      String filename = readString(in);
+      String baseUri = readString(in);
+      return new EntryReader(in, dictionary).read(filename, baseUri);
+    } catch (IOException ex) {
+      logger.trace(String.format("read: broken cache entry (path=%s)", path));
+      return Entry.MISS;
+    }
+  }
+
+  private static byte[] hash(Path path) throws IOException {
+    MessageDigest md = newDigest();
+    byte[] buf = new byte[65536];
+    try (InputStream in = Files.newInputStream(path)) {
+      int len;
+      while ((len = in.read(buf)) > 0) {
+        md.update(buf, 0, len);
+      }
+    }
+    return md.digest();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  // writeUTF is limited to 64KB, long literals are written as length and bytes
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    if (s == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int len = in.readInt();
+    if (len < 0) {
+      return null;
+    }
+    byte[] b = new byte[len];
+    in.readFully(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * cached result of file.
+   */
+  public static final class Entry {
+
+    static final Entry MISS = new Entry(null, null, null);
+
+    private final RdfDocument document;
+    private final List<LintProblem> fileProblems;
+    private final List<LintProblem> tripleProblems;
+
+    Entry(RdfDocument document, List<LintProblem> fileProblems,
+        List<LintProblem> tripleProblems) {
+      this.document = document;
+      this.fileProblems = fileProblems;
+      this.tripleProblems = tripleProblems;
+    }
+
+    public RdfDocument getDocument() {
+      return document;
+    }
+
+    // problems of file-local validators on validateFile
+    public List<LintProblem> getFileProblems() {
+      return Collections.unmodifiableList(fileProblems);
+    }
+
+    // problems of file-local validators on validateTriple, validateNode
+    public List<LintProblem> getTripleProblems() {
+      return Collections.unmodifiableList(tripleProblems);
+    }
+  }
+
+  // nodes are written once into node table, and referred by id
+  private static class EntryWriter {
+
+    private final DataOutputStream out;
+    private final Map<Node, Integer> nodeIds = new HashMap<>();
+
+    EntryWriter(DataOutputStream out) {
+      this.out = out;
+    }
+
+    void write(RdfDocument doc, List<LintProblem> fileProblems,
+        List<LintProblem> tripleProblems) throws IOException {
+      out.writeInt(doc.getPrefixes().size());
+      for (Map.Entry<String, String> e : doc.getPrefixes().entrySet()) {
+        writeString(out, e.getKey());
+        writeString(out, e.getValue());
+      }
+      out.writeInt(doc.getTriples().size());
+      for (Triple t : doc.getTriples()) {
+        writeNode(t.getSubject());
+        writeNode(t.getPredicate());
+        writeNode(t.getObject());
+      }
+      out.writeInt(doc.getEvents().size());
+      for (ParseEvent e : doc.getEvents()) {
+        writeNode(e.getSubject());
+        writeNode(e.getPredicate());
+        writeNode(e.getObject());
+        for (int v : e.getRange()) {
+          out.writeInt(v);
+        }
+      }
+      writeProblems(fileProblems);
+      writeProblems(tripleProblems);
+    }
+
+    private void writeProblems(List<LintProblem> problems) throws IOException {
+      out.writeInt(problems.size());
+      for (LintProblem p : problems) {
+        out.writeByte(p.getLevel().ordinal());
+        writeString(out, p.getKey());
+        LintProblemLocation loc = p.getLocation();
+        out.writeBoolean(loc != null);
+        if (loc != null) {
+          out.writeLong(loc.getBeginLine());
+          out.writeLong(loc.getBeginCol());
+          out.writeLong(loc.getEndLine());
+          out.writeLong(loc.getEndCol());
+          writeNode(loc.getNode());
+          Triple t = loc.getTriple();
+          out.writeBoolean(t != null);
+          if (t != null) {
+            writeNode(t.getSubject());
+            writeNode(t.getPredicate());
+            writeNode(t.getObject());
+          }
+        }
+        Object[] args = p.getArguments();
+        out.writeInt(args.length);
+        for (Object arg : args) {
+          writeArgument(arg);
+        }
+      }
+    }
+
+    private void writeArgument(Object arg) throws IOException {
+      if (arg == null) {
+        out.writeByte(ARG_NULL);
+      } else if (arg instanceof Integer) {
+        out.writeByte(ARG_INTEGER);
+        out.writeInt((Integer) arg);
+      } else if (arg instanceof Long) {
+        out.writeByte(ARG_LONG);
+        out.writeLong((Long) arg);
+      } else if (arg instanceof Double) {
+        out.writeByte(ARG_DOUBLE);
+        out.writeDouble((Double) arg);
+      } else {
+        // formatted by toString in message
+        out.writeByte(ARG_STRING);
+        writeString(out, arg.toString());
+      }
+    }
+
+    // id, followed by node definition at first appearance. -1 means null
+    private void writeNode(Node node) throws IOException {
+      if (node == null) {
+        out.writeInt(-1);
+        return;
+      }
+      Integer id = nodeIds.get(node);
+      if (id != null) {
+        out.writeInt(id);
+        return;
+      }
+      id = nodeIds.size();
+      nodeIds.put(node, id);
+      out.writeInt(id);
+      if (node.isURI()) {
+        out.writeByte(NODE_URI);
+        writeString(out, node.getURI());
+      } else if (node.isBlank()) {
+        out.writeByte(NODE_BLANK);
+        writeString(out, node.getBlankNodeLabel());
+      } else if (node.isLiteral() && !node.getLiteralLanguage().isEmpty()) {
+        out.writeByte(NODE_LANG_LITERAL);
+        writeString(out, node.getLiteralLexicalForm());
+        writeString(out, node.getLiteralLanguage());
+      } else if (node.isLiteral()) {
+        out.writeByte(NODE_LITERAL);
+        writeString(out, node.getLiteralLexicalForm());
+        writeString(out, node.getLiteralDatatypeURI());
+      } else {
+        throw new IOException("unsupported node: " + node);
+      }
+    }
+  }
+
+  private static class EntryReader {
+
+    private final DataInputStream in;
+    private final NodeDictionary dictionary;
+    private final List<Node> nodes = new ArrayList<>();
+
+    EntryReader(DataInputStream in, NodeDictionary dictionary) {
+      this.in = in;
+      this.dictionary = dictionary;
+    }
+
+    Entry read(String filename, String baseUri) throws IOException {
+      int prefixSize = in.readInt();
+      Map<String, String> prefixes = new LinkedHashMap<>();
+      for (int i = 0; i < prefixSize; i++) {
+        prefixes.put(readString(in), readString(in));
+      }
+      int tripleSize = in.readInt();
+      TripleTable triples = new TripleTable(dictionary, tripleSize);
+      for (int i = 0; i < tripleSize; i++) {
+        triples.add(dictionary.encode(readNode()), dictionary.encode(readNode()),
+            dictionary.encode(readNode()));
+      }
+      triples.compact();
+      int eventSize = in.readInt();
+      List<ParseEvent> events = new ArrayList<>(eventSize);
+      for (int i = 0; i < eventSize; i++) {
+        events.add(new ParseEvent(readNode(), readNode(), readNode(),
+            in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+      }
+      List<LintProblem> fileProblems = readProblems();
+      List<LintProblem> tripleProblems = readProblems();
+      RdfDocument doc = RdfDocument.restore(filename, baseUri, triples, prefixes, events);
+      return new Entry(doc, fileProblems, tripleProblems);
+    }
+
+    private List<LintProblem> readProblems() throws IOException {
+      int size = in.readInt();
+      List<LintProblem> problems = new LinkedList<>();
+      for (int i = 0; i < size; i++) {
+        ErrorLevel level = ErrorLevel.values()[in.readByte()];
+        String key = readString(in);
+        LintProblemLocation loc = null;
+        if (in.readBoolean()) {
+          long beginLine = in.readLong();
+          long beginCol = in.readLong();
+          long endLine = in.readLong();
+          long endCol = in.readLong();
+          Node node = readNode();
+          if (in.readBoolean()) {
+            loc = new LintProblemLocation(beginLine, beginCol, endLine, endCol,
+                new Triple(readNode(), readNode(), readNode()));
+          } else {
+            loc = new LintProblemLocation(beginLine, beginCol, endLine, endCol, node);
+          }
+        }
+        Object[] args = new Object[in.readInt()];
+        for (int j = 0; j < args.length; j++) {
+          args[j] = readArgument();
+        }
+        LintProblem problem = new LintProblem(level, null, loc, null, args);
+        problem.setKey(key);
+        problems.add(problem);
+      }
+      return problems;
+    }
+
+    private Object readArgument() throws IOException {
+      byte type = in.readByte();
+      switch (type) {
+        case ARG_NULL:
+          return null;
+        case ARG_INTEGER:
+          return in.readInt();
+        case ARG_LONG:
+          return in.readLong();
+        case ARG_DOUBLE:
+          return in.readDouble();
+        case ARG_STRING:
+          return readString(in);
+        default:
+          throw new IOException("unknown argument type: " + type);
+      }
+    }
+
+    private Node readNode() throws IOException {
+      int id = in.readInt();
+      if (id < 0) {
+        return null;
+      }
+      if (id < nodes.size()) {
+        return nodes.get(id);
+      }
+      Node node;
+      byte type = in.readByte();
+      switch (type) {
+        case NODE_URI:
+          node = NodeFactory.createURI(readString(in));
+          break;
+        case NODE_BLANK:
+          node = NodeFactory.createBlankNode(readString(in));
+          break;
+        case NODE_LANG_LITERAL:
+          node = NodeFactory.createLiteral(readString(in), readString(in));
+          break;
+        case NODE_LITERAL:
+          node = readLiteral();
+          break;
+        default:
+          throw new IOException("unknown node type: " + type);
+      }
+      node = dictionary.intern(node);
+      nodes.add(node);
+      return node;
+    }
+
+    private Node readLiteral() throws IOException {
+      String lex = readString(in);
+      String datatypeUri = readString(in);
+      return NodeFactory.createLiteral(lex,
+          TypeMapper.getInstance().getSafeTypeByName(datatypeUri));
+    }
+  }
+
+}
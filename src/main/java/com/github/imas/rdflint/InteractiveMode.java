@@ -113,13 +113,14 @@ public class InteractiveMode {
         case "check":
         case "lint":
           // execute generator
+          RdfDocumentCache documentCache = new RdfDocumentCache(params.getBaseUri());
           GenerationRunner grunner = new GenerationRunner();
-          grunner.execute(params, targetDir);
+          grunner.execute(params, targetDir, documentCache);
 
           // call validator runner
           ValidationRunner runner = new ValidationRunner();
           runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
-          LintProblemSet problems = runner.execute(params, targetDir);
+          LintProblemSet problems = runner.execute(params, targetDir, documentCache);
 
           LintProblemFormatter.out(out, problems);
           break;
@@ -1,26 +1,40 @@
 package com.github.imas.rdflint;
 
+import com.github.imas.rdflint.utils.JsonUtils;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.jena.util.FileUtils;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
 
 public class LintProblemFormatter {
 
   private static Map<String, ResourceBundle> messagesMap = new ConcurrentHashMap<>();
+  // compiled message format of each bundle and key, empty if no message is defined
+  private static Map<String, Optional<MessageFormat>> formatMap = new ConcurrentHashMap<>();
+
+  // yaml scalars which can be written without quotes
+  private static final Pattern PLAIN_SCALAR = Pattern.compile("[A-Za-z_/][A-Za-z0-9_./:#@-]*");
+  private static final Set<String> YAML_KEYWORDS = new HashSet<>(Arrays.asList(
+      "y", "n", "yes", "no", "true", "false", "on", "off", "null"));
 
   /**
    * dump problem message.
@@ -29,6 +43,23 @@ public class LintProblemFormatter {
     final String keyName = key.substring(key.lastIndexOf('.') + 1);
     final String pkgName = key.substring(0, key.lastIndexOf('.'));
     final String bundleKey = locale == null ? pkgName : pkgName + "_" + locale.toString();
+    Optional<MessageFormat> format = formatMap.computeIfAbsent(bundleKey + "#" + keyName, k -> {
+      ResourceBundle messages = getMessages(bundleKey, pkgName, locale);
+      if (messages != null && messages.containsKey(keyName)) {
+        return Optional.of(new MessageFormat(messages.getString(keyName)));
+      }
+      return Optional.empty();
+    });
+    if (format.isPresent()) {
+      // message format is not thread safe
+      synchronized (format.get()) {
+        return format.get().format(args);
+      }
+    }
+    return StringUtils.join(args, ", ");
+  }
+
+  private static ResourceBundle getMessages(String bundleKey, String pkgName, Locale locale) {
     ResourceBundle messages = LintProblemFormatter.messagesMap.get(bundleKey);
     if (messages == null) {
       try {
@@ -42,10 +73,7 @@ public class LintProblemFormatter {
         // skip
       }
     }
-    if (messages != null && messages.containsKey(keyName)) {
-      return MessageFormat.format(messages.getString(keyName), args);
-    }
-    return StringUtils.join(args, ", ");
+    return messages;
   }
 
   /**
@@ -68,7 +96,7 @@ public class LintProblemFormatter {
     PrintWriter pw = new PrintWriter(out);
     problems.getProblemSet().forEach((f, l) -> {
       pw.println(f);
-      l.forEach(m -> {
+      forEachProblem(l, m -> {
         Object[] args = LintProblemFormatter.buildArguments(m);
         String msg = LintProblemFormatter.dumpMessage(m.getKey(), null, args);
         pw.println("  " + m.getLevel() + "  " + msg);
@@ -79,49 +107,241 @@ public class LintProblemFormatter {
   }
 
   /**
-   * dump yaml-formatted problems.
+   * dump yaml-formatted problems. each problem is written as it is visited.
    */
   public static void yaml(OutputStream out, LintProblemSet problems) {
-    DumperOptions options = new DumperOptions();
-    options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-    options.setIndicatorIndent(2);
-    options.setIndent(4);
-    Yaml yaml = new Yaml(options);
+    write(yamlWriter(out), problems);
+  }
 
-    LinkedHashMap<String, List<LinkedHashMap<String, String>>> lst = new LinkedHashMap<>();
-    problems.getProblemSet().forEach((f, l) -> {
-      List<LinkedHashMap<String, String>> lstmap = new LinkedList<>();
-      l.forEach(m -> {
-        LinkedHashMap<String, String> map = new LinkedHashMap<>();
-        map.put("key", m.getKey());
-        map.put("level", m.getLevel().toString());
-        if (m.getLocation() != null) {
-          if (m.getLocation().getBeginLine() >= 0) {
-            map.put("line", String.valueOf(m.getLocation().getBeginLine()));
-          }
-          if (m.getLocation().getBeginCol() >= 0) {
-            map.put("column", String.valueOf(m.getLocation().getBeginCol()));
-          }
-          if (m.getLocation().getTriple() != null) {
-            map.put("subject", m.getLocation().getTriple().getSubject().toString());
-            map.put("predicate", m.getLocation().getTriple().getPredicate().toString());
-            map.put("object", m.getLocation().getTriple().getObject().toString());
-          } else if (m.getLocation().getNode() != null) {
-            map.put("node", m.getLocation().getNode().toString());
+  /**
+   * dump problems as json lines, one json object of problem per line.
+   */
+  public static void jsonLines(OutputStream out, LintProblemSet problems) {
+    write(jsonLinesWriter(out), problems);
+  }
+
+  /**
+   * dump problems as sarif 2.1.0 log.
+   */
+  public static void sarif(OutputStream out, LintProblemSet problems) {
+    write(sarifWriter(out), problems);
+  }
+
+  private static void write(ProblemWriter writer, LintProblemSet problems) {
+    try (ProblemWriter w = writer) {
+      problems.getProblemSet().forEach(w::write);
+    }
+  }
+
+  /**
+   * writer of problems, each file is written when its problems are passed.
+   * close writes end of document and flushes, output stream is not closed.
+   */
+  public abstract static class ProblemWriter implements ProblemSink, Closeable {
+
+    protected final PrintWriter pw;
+
+    ProblemWriter(OutputStream out) {
+      this.pw = utf8Writer(out);
+    }
+
+    @Override
+    public synchronized void write(String file, List<LintProblem> problems) {
+      forEachProblem(problems, m -> write(file, m));
+    }
+
+    abstract void write(String file, LintProblem problem);
+
+    @Override
+    public synchronized void close() {
+      pw.flush();
+    }
+  }
+
+  /**
+   * create writer of yaml-formatted problems. problems of a file should be passed at once,
+   * since file is key of yaml mapping.
+   */
+  public static ProblemWriter yamlWriter(OutputStream out) {
+    return new ProblemWriter(out) {
+      private String current;
+
+      @Override
+      public boolean isGroupedByFile() {
+        return true;
+      }
+
+      @Override
+      void write(String file, LintProblem m) {
+        if (!file.equals(current)) {
+          pw.print(yamlScalar(file));
+          pw.println(":");
+          current = file;
+        }
+        String indent = "  - ";
+        for (Map.Entry<String, String> e : fields(m)) {
+          pw.print(indent);
+          pw.print(e.getKey());
+          pw.print(": ");
+          pw.println(yamlScalar(e.getValue()));
+          indent = "    ";
+        }
+        pw.print(indent);
+        pw.print("message: ");
+        pw.println(yamlScalar(dumpMessage(m.getKey(), Locale.ROOT, buildArguments(m))));
+      }
+    };
+  }
+
+  /**
+   * create writer of json lines, one json object of problem per line.
+   */
+  public static ProblemWriter jsonLinesWriter(OutputStream out) {
+    return new ProblemWriter(out) {
+      @Override
+      void write(String file, LintProblem m) {
+        pw.print("{\"file\": ");
+        pw.print(JsonUtils.quote(file));
+        for (Map.Entry<String, String> e : fields(m)) {
+          pw.print(", ");
+          pw.print(JsonUtils.quote(e.getKey()));
+          pw.print(": ");
+          pw.print("line".equals(e.getKey()) || "column".equals(e.getKey())
+              ? e.getValue() : JsonUtils.quote(e.getValue()));
+        }
+        pw.print(", \"message\": ");
+        pw.print(JsonUtils.quote(dumpMessage(m.getKey(), Locale.ROOT, buildArguments(m))));
+        pw.println("}");
+      }
+    };
+  }
+
+  /**
+   * create writer of sarif 2.1.0 log. results are closed on close of writer.
+   */
+  public static ProblemWriter sarifWriter(OutputStream out) {
+    return new ProblemWriter(out) {
+      private boolean first = true;
+
+      {
+        pw.println("{");
+        pw.println("  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",");
+        pw.println("  \"version\": \"2.1.0\",");
+        pw.println("  \"runs\": [{");
+        pw.println("    \"tool\": {\"driver\": {\"name\": \"rdflint\", "
+            + "\"version\": " + JsonUtils.quote(RdfLint.VERSION) + ", "
+            + "\"informationUri\": \"https://github.com/imas/rdflint\"}},");
+        pw.print("    \"results\": [");
+      }
+
+      @Override
+      void write(String file, LintProblem m) {
+        pw.println(first ? "" : ",");
+        first = false;
+        pw.print("      {\"ruleId\": ");
+        pw.print(JsonUtils.quote(m.getKey()));
+        pw.print(", \"level\": ");
+        pw.print(sarifLevel(m.getLevel()));
+        pw.print(", \"message\": {\"text\": ");
+        pw.print(JsonUtils.quote(dumpMessage(m.getKey(), Locale.ROOT, buildArguments(m))));
+        pw.print("}, \"locations\": [{\"physicalLocation\": ");
+        pw.print("{\"artifactLocation\": {\"uri\": ");
+        pw.print(JsonUtils.quote(file.replace('\\', '/')));
+        pw.print("}");
+        LintProblemLocation loc = m.getLocation();
+        if (loc != null && loc.getBeginLine() > 0) {
+          pw.print(", \"region\": {\"startLine\": ");
+          pw.print(loc.getBeginLine());
+          if (loc.getBeginCol() > 0) {
+            pw.print(", \"startColumn\": ");
+            pw.print(loc.getBeginCol());
           }
+          pw.print("}");
         }
+        pw.print("}}]}");
+      }
 
-        Object[] args = LintProblemFormatter.buildArguments(m);
-        String msg = LintProblemFormatter.dumpMessage(m.getKey(), Locale.ROOT, args);
-        map.put("message", msg);
-        lstmap.add(map);
-      });
-      lst.put(f, lstmap);
-    });
-    String s = yaml.dump(lst);
-    PrintWriter pw = FileUtils.asPrintWriterUTF8(out);
-    pw.print(s);
-    pw.flush();
+      @Override
+      public synchronized void close() {
+        if (!first) {
+          pw.println();
+          pw.print("    ");
+        }
+        pw.println("]");
+        pw.println("  }]");
+        pw.println("}");
+        super.close();
+      }
+    };
+  }
+
+  private static String sarifLevel(LintProblem.ErrorLevel level) {
+    switch (level) {
+      case ERROR:
+        return "\"error\"";
+      case WARN:
+        return "\"warning\"";
+      default:
+        return "\"note\"";
+    }
+  }
+
+  private static PrintWriter utf8Writer(OutputStream out) {
+    return new PrintWriter(new BufferedWriter(
+        new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+  }
+
+  // visit problems of file, which may be appended by workers concurrently
+  private static void forEachProblem(List<LintProblem> problems,
+      Consumer<LintProblem> consumer) {
+    synchronized (problems) {
+      problems.forEach(consumer);
+    }
+  }
+
+  // location fields of problem, in order of output
+  private static List<Map.Entry<String, String>> fields(LintProblem m) {
+    List<Map.Entry<String, String>> fields = new LinkedList<>();
+    fields.add(new SimpleEntry<>("key", m.getKey()));
+    fields.add(new SimpleEntry<>("level", m.getLevel().toString()));
+    LintProblemLocation loc = m.getLocation();
+    if (loc != null) {
+      if (loc.getBeginLine() >= 0) {
+        fields.add(new SimpleEntry<>("line", String.valueOf(loc.getBeginLine())));
+      }
+      if (loc.getBeginCol() >= 0) {
+        fields.add(new SimpleEntry<>("column", String.valueOf(loc.getBeginCol())));
+      }
+      if (loc.getTriple() != null) {
+        fields.add(new SimpleEntry<>("subject", loc.getTriple().getSubject().toString()));
+        fields.add(new SimpleEntry<>("predicate", loc.getTriple().getPredicate().toString()));
+        fields.add(new SimpleEntry<>("object", loc.getTriple().getObject().toString()));
+      } else if (loc.getNode() != null) {
+        fields.add(new SimpleEntry<>("node", loc.getNode().toString()));
+      }
+    }
+    return fields;
+  }
+
+  // quote yaml scalar unless it is read back as same string without quotes
+  static String yamlScalar(String s) {
+    if (PLAIN_SCALAR.matcher(s).matches() && !s.endsWith(":")
+        && !YAML_KEYWORDS.contains(s.toLowerCase(Locale.ROOT))) {
+      return s;
+    }
+    boolean printable = true;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x20 || c == 0x7f || c == 0xfeff) {
+        printable = false;
+        break;
+      }
+    }
+    if (printable) {
+      return "'" + s.replace("'", "''") + "'";
+    }
+    // double quoted, json escapes are valid in yaml
+    return JsonUtils.quote(s);
   }
 
 }
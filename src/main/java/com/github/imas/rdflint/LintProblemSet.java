@@ -1,22 +1,144 @@
 package com.github.imas.rdflint;
 
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LintProblemSet {
 
+  private static final ErrorLevel[] LEVELS = ErrorLevel.values();
+
   private Map<String, List<LintProblem>> problemSet = new ConcurrentHashMap<>();
+  // problem keys are shared by buckets
+  private final Map<String, String> keys = new ConcurrentHashMap<>();
+
+  // limits of collected problems, 0 or null means unlimited
+  private final int maxProblems;
+  private final int maxProblemsPerKey;
+  private final ErrorLevel failFastLevel;
+  // counters of limits, guarded by itself
+  private final Map<String, int[]> keySize = new HashMap<>();
+  private int size;
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile boolean cancelled;
+  private SuppressionIndex suppression;
+
+  public LintProblemSet() {
+    this(0, 0, null);
+  }
+
+  /**
+   * constructor, with limits of collected problems.
+   * run is cancelled when max problems are collected, or problem of fail fast level is found.
+   */
+  public LintProblemSet(int maxProblems, int maxProblemsPerKey, ErrorLevel failFastLevel) {
+    this.maxProblems = maxProblems;
+    this.maxProblemsPerKey = maxProblemsPerKey;
+    this.failFastLevel = failFastLevel;
+  }
 
   /**
    * add problem and message to problem set.
    */
   public void addProblem(String fileName, LintProblem problem) {
-    problemSet.putIfAbsent(fileName, new LinkedList<>());
-    problemSet.get(fileName).add(problem);
+    if (suppression != null && suppression.isSuppressed(fileName, problem)) {
+      return;
+    }
+    if (maxProblems > 0 || maxProblemsPerKey > 0) {
+      // both limits are checked before either counter is incremented
+      synchronized (keySize) {
+        int[] perKey = maxProblemsPerKey > 0
+            ? keySize.computeIfAbsent(problem.getKey(), k -> new int[1]) : null;
+        if (perKey != null && perKey[0] >= maxProblemsPerKey
+            || maxProblems > 0 && size >= maxProblems) {
+          dropped.incrementAndGet();
+          return;
+        }
+        if (perKey != null) {
+          perKey[0]++;
+        }
+        size++;
+        if (size == maxProblems) {
+          cancelled = true;
+        }
+      }
+    }
+    ((ProblemBucket) problemSet.computeIfAbsent(fileName, k -> new ProblemBucket()))
+        .add(problem, keys.computeIfAbsent(problem.getKey(), k -> k));
+    if (failFastLevel != null && problem.getLevel().compareTo(failFastLevel) <= 0) {
+      cancelled = true;
+    }
+  }
+
+  /**
+   * add all problems of other problem set, keeping its order.
+   */
+  public void addProblemSet(LintProblemSet other) {
+    other.getProblemSet().forEach((f, l) -> {
+      synchronized (l) {
+        l.forEach(p -> addProblem(f, p));
+      }
+    });
+  }
+
+  /**
+   * problems of a file, stored in columns of arrays instead of problem objects.
+   * problems are restored on read, and key strings are shared in problem set.
+   */
+  private static final class ProblemBucket extends AbstractList<LintProblem> {
+
+    private byte[] levels = new byte[4];
+    private String[] keys = new String[4];
+    private LintProblemLocation[] locations = new LintProblemLocation[4];
+    private Object[][] arguments = new Object[4][];
+    private int size;
+
+    synchronized void add(LintProblem problem, String key) {
+      if (size == levels.length) {
+        int capacity = size * 2;
+        levels = Arrays.copyOf(levels, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        arguments = Arrays.copyOf(arguments, capacity);
+      }
+      levels[size] = (byte) problem.getLevel().ordinal();
+      keys[size] = key;
+      locations[size] = problem.getLocation();
+      arguments[size] = problem.getArguments();
+      size++;
+    }
+
+    @Override
+    public synchronized LintProblem get(int index) {
+      if (index >= size) {
+        throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+      }
+      LintProblem problem = new LintProblem(LEVELS[levels[index]], null, locations[index], null,
+          arguments[index]);
+      problem.setKey(keys[index]);
+      return problem;
+    }
+
+    @Override
+    public synchronized int size() {
+      return size;
+    }
+
+    synchronized long count(ErrorLevel minErrorLevel) {
+      long count = 0;
+      for (int i = 0; i < size; i++) {
+        if (levels[i] <= minErrorLevel.ordinal()) {
+          count++;
+        }
+      }
+      return count;
+    }
   }
 
   public int problemSize() {
@@ -32,9 +154,7 @@ public class LintProblemSet {
    */
   long errorSize(ErrorLevel minErrorLevel) {
     return problemSet.values().stream()
-        .mapToLong(lp -> lp.stream()
-            .filter(t -> t.getLevel().compareTo(minErrorLevel) <= 0)
-            .count())
+        .mapToLong(lp -> ((ProblemBucket) lp).count(minErrorLevel))
         .sum();
   }
 
@@ -46,8 +166,29 @@ public class LintProblemSet {
     return errorSize(minErrorLevel) > 0;
   }
 
+  /**
+   * suppress problems on add, so suppressed problems are not counted in limits.
+   */
+  void setSuppression(SuppressionIndex suppression) {
+    this.suppression = suppression;
+  }
+
+  /**
+   * return true if rest of run should be skipped, since limit of problems is reached.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * return number of problems which are not collected by limits.
+   */
+  public long getDroppedSize() {
+    return dropped.get();
+  }
+
   public Map<String, List<LintProblem>> getProblemSet() {
-    return problemSet;
+    return Collections.unmodifiableMap(problemSet);
   }
 
 }
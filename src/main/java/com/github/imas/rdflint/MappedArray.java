@@ -0,0 +1,119 @@
+package com.github.imas.rdflint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.apache.log4j.Logger;
+
+/**
+ * growable byte array in memory-mapped file, outside of java heap. file is mapped in fixed
+ * size segments, so int and long values at aligned offset never cross segments.
+ * concurrent reads are safe, writes must be serialized by caller.
+ */
+final class MappedArray implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(MappedArray.class.getName());
+
+  private static final int SEGMENT_BITS = 26;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+  private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private final Path path;
+  private final FileChannel channel;
+  private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+  MappedArray(Path path) throws IOException {
+    this.path = path;
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  private MappedByteBuffer segment(long pos) {
+    int index = (int) (pos >>> SEGMENT_BITS);
+    MappedByteBuffer[] current = segments;
+    if (index < current.length) {
+      return current[index];
+    }
+    return map(index);
+  }
+
+  private synchronized MappedByteBuffer map(int index) {
+    MappedByteBuffer[] current = segments;
+    if (index < current.length) {
+      return current[index];
+    }
+    MappedByteBuffer[] extended = Arrays.copyOf(current, index + 1);
+    try {
+      for (int i = current.length; i <= index; i++) {
+        extended[i] = channel.map(MapMode.READ_WRITE, i * SEGMENT_SIZE, SEGMENT_SIZE);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    segments = extended;
+    return extended[index];
+  }
+
+  int getInt(long pos) {
+    return segment(pos).getInt((int) (pos & SEGMENT_MASK));
+  }
+
+  void putInt(long pos, int value) {
+    segment(pos).putInt((int) (pos & SEGMENT_MASK), value);
+  }
+
+  long getLong(long pos) {
+    return segment(pos).getLong((int) (pos & SEGMENT_MASK));
+  }
+
+  void putLong(long pos, long value) {
+    segment(pos).putLong((int) (pos & SEGMENT_MASK), value);
+  }
+
+  void get(long pos, byte[] dst) {
+    int off = 0;
+    while (off < dst.length) {
+      long p = pos + off;
+      int len = (int) Math.min(dst.length - off, SEGMENT_SIZE - (p & SEGMENT_MASK));
+      ByteBuffer buf = segment(p).duplicate();
+      buf.position((int) (p & SEGMENT_MASK));
+      buf.get(dst, off, len);
+      off += len;
+    }
+  }
+
+  void put(long pos, byte[] src) {
+    int off = 0;
+    while (off < src.length) {
+      long p = pos + off;
+      int len = (int) Math.min(src.length - off, SEGMENT_SIZE - (p & SEGMENT_MASK));
+      ByteBuffer buf = segment(p).duplicate();
+      buf.position((int) (p & SEGMENT_MASK));
+      buf.put(src, off, len);
+      off += len;
+    }
+  }
+
+  /**
+   * release file. mapped segments are released by gc, file is removed from directory.
+   */
+  @Override
+  public synchronized void close() {
+    segments = new MappedByteBuffer[0];
+    try {
+      channel.close();
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      logger.warn(String.format("close: fail to delete %s", path));
+    }
+  }
+
+}
@@ -0,0 +1,302 @@
+package com.github.imas.rdflint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.log4j.Logger;
+
+/**
+ * node dictionary stored in memory-mapped files, for dataset larger than heap. terms are
+ * serialized into string table, and looked up by open addressing hash index on file.
+ * heap holds only caches of recently used nodes.
+ */
+public class MappedNodeDictionary extends NodeDictionary {
+
+  private static final Logger logger = Logger.getLogger(MappedNodeDictionary.class.getName());
+
+  private static final int CACHE_SIZE = 1 << 16;
+  private static final int INITIAL_INDEX_CAPACITY = 1 << 16;
+
+  private static final byte NODE_URI = 0;
+  private static final byte NODE_BLANK = 1;
+  private static final byte NODE_LITERAL = 2;
+  private static final byte NODE_LANG_LITERAL = 3;
+
+  private final Path dir;
+  // length prefixed serialized terms, aligned to 4 bytes
+  private final MappedArray terms;
+  // offset of term by id
+  private final MappedArray offsets;
+  // hash of term by id
+  private final MappedArray hashes;
+  // open addressing index, slot holds id + 1
+  private MappedArray index;
+  private int indexCapacity;
+  private long termsEnd;
+  private volatile int size;
+  private final List<MappedTripleSet> tripleSets = new ArrayList<>();
+
+  // direct mapped caches, entries are immutable so racy update is safe
+  private final CacheEntry[] encodeCache = new CacheEntry[CACHE_SIZE];
+  private final CacheEntry[] decodeCache = new CacheEntry[CACHE_SIZE];
+
+  private MappedNodeDictionary(Path dir) throws IOException {
+    this.dir = dir;
+    this.terms = new MappedArray(Files.createTempFile(dir, "terms", ".bin"));
+    this.offsets = new MappedArray(Files.createTempFile(dir, "offsets", ".bin"));
+    this.hashes = new MappedArray(Files.createTempFile(dir, "hashes", ".bin"));
+    this.index = new MappedArray(Files.createTempFile(dir, "index", ".bin"));
+    this.indexCapacity = INITIAL_INDEX_CAPACITY;
+  }
+
+  /**
+   * create dictionary, files are created under dir and removed on close.
+   */
+  public static MappedNodeDictionary create(Path dir) throws IOException {
+    logger.trace("create: in (dir=" + dir + ")");
+    Files.createDirectories(dir);
+    return new MappedNodeDictionary(dir);
+  }
+
+  @Override
+  public int encode(Node node) {
+    int slot = node.hashCode() & (CACHE_SIZE - 1);
+    CacheEntry cached = encodeCache[slot];
+    if (cached != null && cached.node.equals(node)) {
+      return cached.id;
+    }
+    byte[] term = serialize(node);
+    int hash = hash(term);
+    int id;
+    synchronized (this) {
+      id = find(term, hash);
+      if (id < 0) {
+        id = append(term, hash);
+      }
+    }
+    encodeCache[slot] = new CacheEntry(node, id);
+    return id;
+  }
+
+  @Override
+  public int lookup(Node node) {
+    int slot = node.hashCode() & (CACHE_SIZE - 1);
+    CacheEntry cached = encodeCache[slot];
+    if (cached != null && cached.node.equals(node)) {
+      return cached.id;
+    }
+    byte[] term = serialize(node);
+    synchronized (this) {
+      return find(term, hash(term));
+    }
+  }
+
+  @Override
+  public Node decode(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("unknown node id: " + id);
+    }
+    int slot = id & (CACHE_SIZE - 1);
+    CacheEntry cached = decodeCache[slot];
+    if (cached != null && cached.id == id) {
+      return cached.node;
+    }
+    Node node = deserialize(readTerm(id));
+    decodeCache[slot] = new CacheEntry(node, id);
+    return node;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public TripleSet createTripleSet() {
+    try {
+      MappedTripleSet set = new MappedTripleSet(this, dir);
+      synchronized (tripleSets) {
+        tripleSets.add(set);
+      }
+      return set;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * release files of dictionary, and triple sets created by it.
+   */
+  @Override
+  public void close() {
+    synchronized (tripleSets) {
+      tripleSets.forEach(MappedTripleSet::close);
+      tripleSets.clear();
+    }
+    synchronized (this) {
+      terms.close();
+      offsets.close();
+      hashes.close();
+      index.close();
+    }
+    try {
+      Files.deleteIfExists(dir);
+    } catch (IOException ex) {
+      logger.warn(String.format("close: fail to delete %s", dir));
+    }
+  }
+
+  // return id of term, or -1
+  private int find(byte[] term, int hash) {
+    int mask = indexCapacity - 1;
+    int slot = hash & mask;
+    int entry = index.getInt(slot * 4L);
+    while (entry != 0) {
+      int id = entry - 1;
+      if (hashes.getInt(id * 4L) == hash && Arrays.equals(readTerm(id), term)) {
+        return id;
+      }
+      slot = (slot + 1) & mask;
+      entry = index.getInt(slot * 4L);
+    }
+    return -1;
+  }
+
+  private int append(byte[] term, int hash) {
+    if ((size + 1) * 2L > indexCapacity) {
+      rehash(indexCapacity * 2);
+    }
+    int id = size;
+    offsets.putLong(id * 8L, termsEnd);
+    terms.putInt(termsEnd, term.length);
+    terms.put(termsEnd + 4, term);
+    termsEnd += (4 + term.length + 3) & ~3;
+    hashes.putInt(id * 4L, hash);
+    insert(index, indexCapacity, id, hash);
+    size = id + 1;
+    return id;
+  }
+
+  private void rehash(int capacity) {
+    MappedArray rehashed;
+    try {
+      rehashed = new MappedArray(Files.createTempFile(dir, "index", ".bin"));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    for (int id = 0; id < size; id++) {
+      insert(rehashed, capacity, id, hashes.getInt(id * 4L));
+    }
+    index.close();
+    index = rehashed;
+    indexCapacity = capacity;
+  }
+
+  private static void insert(MappedArray index, int capacity, int id, int hash) {
+    int mask = capacity - 1;
+    int slot = hash & mask;
+    while (index.getInt(slot * 4L) != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index.putInt(slot * 4L, id + 1);
+  }
+
+  private static int hash(byte[] term) {
+    int h = Arrays.hashCode(term);
+    return h ^ (h >>> 16);
+  }
+
+  private byte[] readTerm(int id) {
+    long offset = offsets.getLong(id * 8L);
+    byte[] term = new byte[terms.getInt(offset)];
+    terms.get(offset + 4, term);
+    return term;
+  }
+
+  static byte[] serialize(Node node) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      if (node.isURI()) {
+        out.writeByte(NODE_URI);
+        writeString(out, node.getURI());
+      } else if (node.isBlank()) {
+        out.writeByte(NODE_BLANK);
+        writeString(out, node.getBlankNodeLabel());
+      } else if (node.isLiteral() && !node.getLiteralLanguage().isEmpty()) {
+        out.writeByte(NODE_LANG_LITERAL);
+        writeString(out, node.getLiteralLexicalForm());
+        writeString(out, node.getLiteralLanguage());
+      } else if (node.isLiteral()) {
+        out.writeByte(NODE_LITERAL);
+        writeString(out, node.getLiteralLexicalForm());
+        writeString(out, node.getLiteralDatatypeURI());
+      } else {
+        throw new IllegalArgumentException("unsupported node: " + node);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return bytes.toByteArray();
+  }
+
+  static Node deserialize(byte[] term) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(term))) {
+      byte type = in.readByte();
+      switch (type) {
+        case NODE_URI:
+          return NodeFactory.createURI(readString(in));
+        case NODE_BLANK:
+          return NodeFactory.createBlankNode(readString(in));
+        case NODE_LANG_LITERAL:
+          return NodeFactory.createLiteral(readString(in), readString(in));
+        case NODE_LITERAL:
+          return createLiteral(readString(in), readString(in));
+        default:
+          throw new IllegalStateException("unknown node type: " + type);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static Node createLiteral(String lex, String datatypeUri) {
+    return NodeFactory.createLiteral(lex,
+        TypeMapper.getInstance().getSafeTypeByName(datatypeUri));
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] b = new byte[in.readInt()];
+    in.readFully(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  private static class CacheEntry {
+
+    private final Node node;
+    private final int id;
+
+    CacheEntry(Node node, int id) {
+      this.node = node;
+      this.id = id;
+    }
+  }
+
+}
@@ -0,0 +1,252 @@
+package com.github.imas.rdflint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * triple set stored in memory-mapped files, outside of java heap. triples are appended, and
+ * sorted into SPO, POS and OSP index blocks on compact, so any pattern is found by binary
+ * search. contains and find are available after compact.
+ */
+public final class MappedTripleSet implements TripleSet {
+
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  // component order of blocks, index of subject(0), predicate(1), object(2)
+  private static final int[] ORDER_SPO = {0, 1, 2};
+  private static final int[] ORDER_POS = {1, 2, 0};
+  private static final int[] ORDER_OSP = {2, 0, 1};
+
+  private final NodeDictionary dictionary;
+  private final MappedArray spo;
+  private final MappedArray pos;
+  private final MappedArray osp;
+  private volatile int size;
+  private volatile boolean compacted;
+
+  MappedTripleSet(NodeDictionary dictionary, Path dir) throws IOException {
+    this.dictionary = dictionary;
+    this.spo = new MappedArray(Files.createTempFile(dir, "spo", ".bin"));
+    this.pos = new MappedArray(Files.createTempFile(dir, "pos", ".bin"));
+    this.osp = new MappedArray(Files.createTempFile(dir, "osp", ".bin"));
+  }
+
+  @Override
+  public NodeDictionary getDictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * append triple of ids. duplicated triples are dropped on compact, so always returns true.
+   */
+  @Override
+  public synchronized boolean add(int subject, int predicate, int object) {
+    if (compacted) {
+      throw new IllegalStateException("triple set is already compacted");
+    }
+    long row = size * 12L;
+    spo.putInt(row, subject);
+    spo.putInt(row + 4, predicate);
+    spo.putInt(row + 8, object);
+    size++;
+    return true;
+  }
+
+  /**
+   * sort and deduplicate triples, and build POS and OSP blocks.
+   */
+  @Override
+  public synchronized void compact() {
+    if (compacted) {
+      return;
+    }
+    sort(spo, 0, size);
+    int unique = 0;
+    for (int i = 0; i < size; i++) {
+      if (unique == 0 || compareRow(spo, i, spo, unique - 1) != 0) {
+        copyRow(spo, i, spo, unique, ORDER_SPO);
+        unique++;
+      }
+    }
+    for (int i = 0; i < unique; i++) {
+      copyRow(spo, i, pos, i, ORDER_POS);
+      copyRow(spo, i, osp, i, ORDER_OSP);
+    }
+    sort(pos, 0, unique);
+    sort(osp, 0, unique);
+    size = unique;
+    compacted = true;
+  }
+
+  @Override
+  public boolean contains(int subject, int predicate, int object) {
+    checkCompacted();
+    int[] key = {subject, predicate, object};
+    int i = lowerBound(spo, key, 3);
+    return i < size && comparePrefix(spo, i, key, 3) == 0;
+  }
+
+  @Override
+  public void forEachId(IdConsumer consumer) {
+    for (int i = 0; i < size; i++) {
+      long row = i * 12L;
+      consumer.accept(spo.getInt(row), spo.getInt(row + 4), spo.getInt(row + 8));
+    }
+  }
+
+  @Override
+  public void find(int subject, int predicate, int object, IdConsumer consumer) {
+    checkCompacted();
+    boolean s = subject >= 0;
+    boolean p = predicate >= 0;
+    boolean o = object >= 0;
+    if (s && p && o) {
+      if (contains(subject, predicate, object)) {
+        consumer.accept(subject, predicate, object);
+      }
+    } else if (s && p) {
+      scan(spo, ORDER_SPO, new int[]{subject, predicate}, consumer);
+    } else if (s && o) {
+      scan(osp, ORDER_OSP, new int[]{object, subject}, consumer);
+    } else if (s) {
+      scan(spo, ORDER_SPO, new int[]{subject}, consumer);
+    } else if (p && o) {
+      scan(pos, ORDER_POS, new int[]{predicate, object}, consumer);
+    } else if (p) {
+      scan(pos, ORDER_POS, new int[]{predicate}, consumer);
+    } else if (o) {
+      scan(osp, ORDER_OSP, new int[]{object}, consumer);
+    } else {
+      forEachId(consumer);
+    }
+  }
+
+  @Override
+  public void close() {
+    spo.close();
+    pos.close();
+    osp.close();
+  }
+
+  private void checkCompacted() {
+    if (!compacted) {
+      throw new IllegalStateException("triple set is not compacted");
+    }
+  }
+
+  // call consumer with rows of block which start with prefix
+  private void scan(MappedArray block, int[] order, int[] prefix, IdConsumer consumer) {
+    int[] triple = new int[3];
+    for (int i = lowerBound(block, prefix, prefix.length);
+        i < size && comparePrefix(block, i, prefix, prefix.length) == 0; i++) {
+      for (int k = 0; k < 3; k++) {
+        triple[order[k]] = block.getInt(i * 12L + k * 4);
+      }
+      consumer.accept(triple[0], triple[1], triple[2]);
+    }
+  }
+
+  private int lowerBound(MappedArray block, int[] key, int length) {
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (comparePrefix(block, mid, key, length) < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private static int comparePrefix(MappedArray block, int i, int[] key, int length) {
+    for (int k = 0; k < length; k++) {
+      int c = Integer.compare(block.getInt(i * 12L + k * 4), key[k]);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return 0;
+  }
+
+  private static int compareRow(MappedArray a, int i, MappedArray b, int j) {
+    for (int k = 0; k < 3; k++) {
+      int c = Integer.compare(a.getInt(i * 12L + k * 4), b.getInt(j * 12L + k * 4));
+      if (c != 0) {
+        return c;
+      }
+    }
+    return 0;
+  }
+
+  // copy spo row of src into dst, in component order of dst
+  private static void copyRow(MappedArray src, int i, MappedArray dst, int j, int[] order) {
+    int s = src.getInt(i * 12L);
+    int p = src.getInt(i * 12L + 4);
+    int o = src.getInt(i * 12L + 8);
+    int[] triple = {s, p, o};
+    for (int k = 0; k < 3; k++) {
+      dst.putInt(j * 12L + k * 4, triple[order[k]]);
+    }
+  }
+
+  private static void swapRow(MappedArray a, int i, int j) {
+    for (int k = 0; k < 3; k++) {
+      int v = a.getInt(i * 12L + k * 4);
+      a.putInt(i * 12L + k * 4, a.getInt(j * 12L + k * 4));
+      a.putInt(j * 12L + k * 4, v);
+    }
+  }
+
+  // in-place quicksort of rows [lo, hi), recursion only on smaller partition
+  private static void sort(MappedArray a, int lo, int hi) {
+    while (hi - lo > INSERTION_SORT_THRESHOLD) {
+      int mid = (lo + hi) >>> 1;
+      if (compareRow(a, mid, a, lo) < 0) {
+        swapRow(a, mid, lo);
+      }
+      if (compareRow(a, hi - 1, a, lo) < 0) {
+        swapRow(a, hi - 1, lo);
+      }
+      if (compareRow(a, hi - 1, a, mid) < 0) {
+        swapRow(a, hi - 1, mid);
+      }
+      int[] pivot = {a.getInt(mid * 12L), a.getInt(mid * 12L + 4), a.getInt(mid * 12L + 8)};
+      int i = lo;
+      int j = hi - 1;
+      while (i <= j) {
+        while (comparePrefix(a, i, pivot, 3) < 0) {
+          i++;
+        }
+        while (comparePrefix(a, j, pivot, 3) > 0) {
+          j--;
+        }
+        if (i <= j) {
+          swapRow(a, i, j);
+          i++;
+          j--;
+        }
+      }
+      if (j - lo < hi - i) {
+        sort(a, lo, j + 1);
+        lo = i;
+      } else {
+        sort(a, i, hi);
+        hi = j + 1;
+      }
+    }
+    for (int i = lo + 1; i < hi; i++) {
+      for (int j = i; j > lo && compareRow(a, j, a, j - 1) < 0; j--) {
+        swapRow(a, j, j - 1);
+      }
+    }
+  }
+
+}
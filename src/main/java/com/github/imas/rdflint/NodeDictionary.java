@@ -0,0 +1,117 @@
+package com.github.imas.rdflint;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jena.graph.Node;
+
+/**
+ * run-scoped table of rdf terms. each distinct node is assigned dense int id, so same term
+ * in many files is held once, and triples are stored and compared as ids.
+ * nodes are never released until end of run, even if documents of them are released, so heap
+ * of dictionary grows with distinct terms of whole dataset. use MappedNodeDictionary
+ * (-storage mapped) for dataset which does not fit in heap.
+ */
+public class NodeDictionary implements Closeable {
+
+  private static final int CHUNK_BITS = 12;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final Map<Node, Integer> ids = new ConcurrentHashMap<>();
+  // nodes by id, in fixed size chunks, so published nodes are never moved
+  private volatile Node[][] chunks = new Node[16][];
+  private int size;
+  private SubjectIndex subjectIndex;
+
+  /**
+   * return id of node, assign new id if node is not registered.
+   */
+  public int encode(Node node) {
+    Integer id = ids.get(node);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = ids.get(node);
+      if (id != null) {
+        return id;
+      }
+      int newId = size;
+      int chunk = newId >>> CHUNK_BITS;
+      Node[][] current = chunks;
+      if (chunk == current.length) {
+        current = Arrays.copyOf(current, current.length * 2);
+      }
+      if (current[chunk] == null) {
+        current[chunk] = new Node[CHUNK_SIZE];
+      }
+      current[chunk][newId & CHUNK_MASK] = node;
+      chunks = current;
+      size++;
+      ids.put(node, newId);
+      return newId;
+    }
+  }
+
+  /**
+   * return id of node, or -1 if node is not registered.
+   */
+  public int lookup(Node node) {
+    Integer id = ids.get(node);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * return node of id.
+   */
+  public Node decode(int id) {
+    Node[][] current = chunks;
+    int chunk = id >>> CHUNK_BITS;
+    Node node = chunk < current.length && current[chunk] != null
+        ? current[chunk][id & CHUNK_MASK] : null;
+    if (node == null) {
+      synchronized (this) {
+        if (id < 0 || id >= size) {
+          throw new IndexOutOfBoundsException("unknown node id: " + id);
+        }
+        node = chunks[id >>> CHUNK_BITS][id & CHUNK_MASK];
+      }
+    }
+    return node;
+  }
+
+  /**
+   * return registered instance of node, equal nodes are shared.
+   */
+  public Node intern(Node node) {
+    return node == null ? null : decode(encode(node));
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * return uri subject index of dataset, shared by validators using this dictionary.
+   */
+  public synchronized SubjectIndex getSubjectIndex() {
+    if (subjectIndex == null) {
+      subjectIndex = new SubjectIndex(this);
+    }
+    return subjectIndex;
+  }
+
+  /**
+   * create empty triple set, stored same as this dictionary.
+   */
+  public TripleSet createTripleSet() {
+    return new TripleTable(this);
+  }
+
+  @Override
+  public void close() {
+  }
+
+}
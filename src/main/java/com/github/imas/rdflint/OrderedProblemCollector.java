@@ -0,0 +1,45 @@
+package com.github.imas.rdflint;
+
+import java.util.function.Consumer;
+
+/**
+ * merges problems of files into run-wide problem set in manifest order. problems of a file are
+ * merged as soon as all preceding files are done, and merge stops once run is cancelled, so
+ * collected problems do not depend on timing of workers. files of merged problems are passed
+ * to listener in same order.
+ */
+class OrderedProblemCollector {
+
+  private static final LintProblemSet SKIPPED = new LintProblemSet();
+
+  private final LintProblemSet problems;
+  private final LintProblemSet[] pending;
+  private final Consumer<String> merged;
+  private int next;
+
+  OrderedProblemCollector(LintProblemSet problems, int size) {
+    this(problems, size, f -> {
+    });
+  }
+
+  OrderedProblemCollector(LintProblemSet problems, int size, Consumer<String> merged) {
+    this.problems = problems;
+    this.pending = new LintProblemSet[size];
+    this.merged = merged;
+  }
+
+  /**
+   * complete file of index in manifest. null problems means file is skipped.
+   */
+  synchronized void complete(int index, LintProblemSet fileProblems) {
+    pending[index] = fileProblems != null ? fileProblems : SKIPPED;
+    while (next < pending.length && pending[next] != null) {
+      if (!problems.isCancelled()) {
+        problems.addProblemSet(pending[next]);
+        pending[next].getProblemSet().keySet().forEach(merged);
+      }
+      pending[next++] = null;
+    }
+  }
+
+}
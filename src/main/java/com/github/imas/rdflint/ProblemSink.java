@@ -0,0 +1,22 @@
+package com.github.imas.rdflint;
+
+import java.util.List;
+
+/**
+ * receiver of problems of file, called in manifest order as soon as problems of file are
+ * collected in run. problems added to file later are passed again, unless sink groups by file.
+ */
+@FunctionalInterface
+public interface ProblemSink {
+
+  void write(String file, List<LintProblem> problems);
+
+  /**
+   * return whether all problems of file should be passed at once, e.g. file is key of output.
+   * if validators may add problems in reportAdditionalProblem, files are passed at end of run.
+   */
+  default boolean isGroupedByFile() {
+    return false;
+  }
+
+}
@@ -0,0 +1,170 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import com.github.imas.rdflint.validator.RdfValidator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+
+/**
+ * validator wrapper which records time and calls of each validator method to profiler.
+ * per triple calls record wall time only, since thread cpu time is too costly to read.
+ */
+class ProfiledValidator implements DelegatingValidator {
+
+  private final RdfValidator validator;
+  private final Profiler profiler;
+  private final String prefix;
+  // names of per triple calls, built once
+  private final String subscribeName;
+  private final String tripleName;
+  private final String nodeName;
+
+  ProfiledValidator(RdfValidator validator, Profiler profiler) {
+    this.validator = validator;
+    this.profiler = profiler;
+    this.prefix = validator.getValidatorName() + ".";
+    this.subscribeName = prefix + "prepareValidationResource.triple";
+    this.tripleName = prefix + "validateTriple";
+    this.nodeName = prefix + "validateNode";
+  }
+
+  @Override
+  public RdfValidator getDelegate() {
+    return validator;
+  }
+
+  private Profiler.Timer task(String method) {
+    return profiler.task(Profiler.VALIDATOR, prefix + method);
+  }
+
+  @Override
+  public String getValidatorName() {
+    return validator.getValidatorName();
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return validator.isThreadSafe();
+  }
+
+  @Override
+  public Set<String> getDependencies() {
+    return validator.getDependencies();
+  }
+
+  @Override
+  public void setParameters(RdfLintParameters params) {
+    validator.setParameters(params);
+  }
+
+  @Override
+  public void setDocumentCache(RdfDocumentCache documentCache) {
+    validator.setDocumentCache(documentCache);
+  }
+
+  @Override
+  public boolean isFileLocal() {
+    return validator.isFileLocal();
+  }
+
+  @Override
+  public void validateFile(LintProblemSet problems, String path, String parentPath) {
+    try (Profiler.Timer t = task("validateFile")) {
+      validator.validateFile(problems, path, parentPath);
+    }
+  }
+
+  @Override
+  public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+    try (Profiler.Timer t = task("prepareValidationResource")) {
+      validator.prepareValidationResource(fileTripleSet);
+    }
+  }
+
+  @Override
+  public TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
+    TripleSet.IdConsumer subscriber = validator.subscribeValidationResource(file, dictionary);
+    if (subscriber == null) {
+      return null;
+    }
+    return (s, p, o) -> {
+      long wall = System.nanoTime();
+      subscriber.accept(s, p, o);
+      profiler.record(Profiler.VALIDATOR, subscribeName, System.nanoTime() - wall, -1);
+    };
+  }
+
+  @Override
+  public void completeValidationResource() {
+    try (Profiler.Timer t = task("prepareValidationResource")) {
+      validator.completeValidationResource();
+    }
+  }
+
+  @Override
+  public void validateTripleSet(LintProblemSet problems, String file, List<Triple> tripeSet) {
+    try (Profiler.Timer t = task("validateTripleSet")) {
+      validator.validateTripleSet(problems, file, tripeSet);
+    }
+  }
+
+  @Override
+  public void validateOriginTripleSet(LintProblemSet problems, String file,
+      List<Triple> tripeSet) {
+    try (Profiler.Timer t = task("validateOriginTripleSet")) {
+      validator.validateOriginTripleSet(problems, file, tripeSet);
+    }
+  }
+
+  @Override
+  public void reportAdditionalProblem(LintProblemSet problems) {
+    try (Profiler.Timer t = task("reportAdditionalProblem")) {
+      validator.reportAdditionalProblem(problems);
+    }
+  }
+
+  @Override
+  public void close() {
+    validator.close();
+  }
+
+  @Override
+  public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
+      int beginLine, int beginCol, int endLine, int endCol) {
+    long wall = System.nanoTime();
+    try {
+      return validator.validateTriple(subject, predicate, object,
+          beginLine, beginCol, endLine, endCol);
+    } finally {
+      profiler.record(Profiler.VALIDATOR, tripleName, System.nanoTime() - wall, -1);
+    }
+  }
+
+  @Override
+  public List<LintProblem> validateTriple(String file, Node subject, Node predicate,
+      Node object, int beginLine, int beginCol, int endLine, int endCol) {
+    long wall = System.nanoTime();
+    try {
+      return validator.validateTriple(file, subject, predicate, object,
+          beginLine, beginCol, endLine, endCol);
+    } finally {
+      profiler.record(Profiler.VALIDATOR, tripleName, System.nanoTime() - wall, -1);
+    }
+  }
+
+  @Override
+  public List<LintProblem> validateNode(Node node,
+      int beginLine, int beginCol, int endLine, int endCol) {
+    long wall = System.nanoTime();
+    try {
+      return validator.validateNode(node, beginLine, beginCol, endLine, endCol);
+    } finally {
+      profiler.record(Profiler.VALIDATOR, nodeName, System.nanoTime() - wall, -1);
+    }
+  }
+
+}
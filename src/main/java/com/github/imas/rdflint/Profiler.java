@@ -0,0 +1,210 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.utils.JsonUtils;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * collector of wall and cpu time of lint run, by phase, validator method and parsed file.
+ * disabled profiler records nothing, so timers can be placed in hot paths.
+ */
+public class Profiler {
+
+  public static final String PHASE = "phase";
+  public static final String VALIDATOR = "validator";
+  public static final String PARSE = "parse";
+
+  private static final int REPORT_FILES = 10;
+
+  private static final Profiler DISABLED = new Profiler(false);
+
+  private static final Timer NOP_TIMER = () -> {
+  };
+
+  private final boolean enabled;
+  private final Map<String, Map<String, Section>> categories = new ConcurrentHashMap<>();
+  private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+  private final boolean threadCpuSupported;
+
+  public Profiler() {
+    this(true);
+  }
+
+  private Profiler(boolean enabled) {
+    this.enabled = enabled;
+    this.threadCpuSupported = enabled && threadBean.isCurrentThreadCpuTimeSupported();
+  }
+
+  /**
+   * return profiler which records nothing.
+   */
+  public static Profiler disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * start timer of phase, which may run on worker threads. cpu time is of whole process.
+   */
+  public Timer phase(String name) {
+    if (!enabled) {
+      return NOP_TIMER;
+    }
+    final long wall = System.nanoTime();
+    final long cpu = processCpuTime();
+    return () -> record(PHASE, name, System.nanoTime() - wall,
+        cpu < 0 ? -1 : processCpuTime() - cpu);
+  }
+
+  /**
+   * start timer of task on current thread. cpu time is of current thread.
+   */
+  public Timer task(String category, String name) {
+    if (!enabled) {
+      return NOP_TIMER;
+    }
+    final long wall = System.nanoTime();
+    final long cpu = threadCpuSupported ? threadBean.getCurrentThreadCpuTime() : -1;
+    return () -> record(category, name, System.nanoTime() - wall,
+        cpu < 0 ? -1 : threadBean.getCurrentThreadCpuTime() - cpu);
+  }
+
+  /**
+   * record one call. cpuNanos is negative if not measured.
+   */
+  public void record(String category, String name, long wallNanos, long cpuNanos) {
+    if (!enabled) {
+      return;
+    }
+    Section section = categories.computeIfAbsent(category, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(name, k -> new Section());
+    section.calls.increment();
+    section.wallNanos.add(wallNanos);
+    if (cpuNanos >= 0) {
+      section.cpuNanos.add(cpuNanos);
+      section.cpuCalls.increment();
+    }
+  }
+
+  private static long processCpuTime() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+    }
+    return -1;
+  }
+
+  /**
+   * return recorded sections of category, ordered by wall time descending.
+   */
+  public List<Map.Entry<String, Section>> getSections(String category) {
+    return categories.getOrDefault(category, new ConcurrentHashMap<>()).entrySet().stream()
+        .sorted(Comparator.comparing((Map.Entry<String, Section> e) -> e.getValue()
+            .getWallNanos()).reversed().thenComparing(Map.Entry::getKey))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * print report. only slowest files are listed.
+   */
+  @SuppressFBWarnings(value = "DM_DEFAULT_ENCODING")
+  public void print(OutputStream out) {
+    PrintWriter pw = new PrintWriter(out);
+    pw.println("profile");
+    printCategory(pw, "phases", getSections(PHASE), Integer.MAX_VALUE);
+    printCategory(pw, "validators", getSections(VALIDATOR), Integer.MAX_VALUE);
+    printCategory(pw, "parse (slowest files)", getSections(PARSE), REPORT_FILES);
+    pw.flush();
+  }
+
+  private static void printCategory(PrintWriter pw, String title,
+      List<Map.Entry<String, Section>> sections, int limit) {
+    pw.println("  " + title);
+    pw.println(String.format("    %-48s %12s %12s %10s", "name", "wall(ms)", "cpu(ms)",
+        "calls"));
+    sections.stream().limit(limit).forEach(e -> {
+      Section s = e.getValue();
+      pw.println(String.format("    %-48s %12.1f %12s %10d", e.getKey(),
+          s.getWallNanos() / 1e6,
+          s.getCpuNanos() < 0 ? "-" : String.format("%.1f", s.getCpuNanos() / 1e6),
+          s.getCalls()));
+    });
+    pw.println();
+  }
+
+  /**
+   * write report as json. all files are listed, times are in nanoseconds.
+   */
+  public void json(OutputStream out) {
+    PrintWriter pw = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    pw.println("{");
+    writeCategory(pw, "phases", getSections(PHASE), true);
+    writeCategory(pw, "validators", getSections(VALIDATOR), true);
+    writeCategory(pw, "files", getSections(PARSE), false);
+    pw.println("}");
+    pw.flush();
+  }
+
+  private static void writeCategory(PrintWriter pw, String title,
+      List<Map.Entry<String, Section>> sections, boolean hasNext) {
+    pw.println("  \"" + title + "\": [");
+    for (int i = 0; i < sections.size(); i++) {
+      Section s = sections.get(i).getValue();
+      pw.print(String.format("    {\"name\": %s, \"calls\": %d, \"wallNanos\": %d, "
+              + "\"cpuNanos\": %s}", JsonUtils.quote(sections.get(i).getKey()), s.getCalls(),
+          s.getWallNanos(), s.getCpuNanos() < 0 ? "null" : Long.toString(s.getCpuNanos())));
+      pw.println(i < sections.size() - 1 ? "," : "");
+    }
+    pw.println(hasNext ? "  ]," : "  ]");
+  }
+
+  /**
+   * running timer, records elapsed time on close.
+   */
+  @FunctionalInterface
+  public interface Timer extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
+  /**
+   * accumulated time and calls.
+   */
+  public static class Section {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder cpuCalls = new LongAdder();
+
+    public long getCalls() {
+      return calls.sum();
+    }
+
+    public long getWallNanos() {
+      return wallNanos.sum();
+    }
+
+    // negative if cpu time is not measured
+    public long getCpuNanos() {
+      return cpuCalls.sum() == 0 ? -1 : cpuNanos.sum();
+    }
+  }
+
+}
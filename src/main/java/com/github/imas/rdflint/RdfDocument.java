@@ -0,0 +1,272 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.parser.RdflintParser;
+import com.github.imas.rdflint.parser.RdflintParserBuilder;
+import com.github.imas.rdflint.validator.AbstractRdfValidator;
+import com.github.imas.rdflint.validator.RdfValidator;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.log4j.Logger;
+
+/**
+ * parsed rdf document. source file is read and parsed once, and parse problems, triples,
+ * prefixes and validator callbacks are served from this result.
+ */
+public class RdfDocument {
+
+  private static final Logger logger = Logger.getLogger(RdfDocument.class.getName());
+
+  private final String filename;
+  private final String baseUri;
+  private final List<LintProblem> parseProblems;
+  private final TripleTable triples;
+  private final Map<String, String> prefixes;
+  // null if callbacks are not recorded, or released after replay
+  private volatile List<ParseEvent> events;
+  private final Exception loadError;
+
+  private RdfDocument(String filename, String baseUri, List<LintProblem> parseProblems,
+      TripleTable triples, Map<String, String> prefixes, List<ParseEvent> events,
+      Exception loadError) {
+    this.filename = filename;
+    this.baseUri = baseUri;
+    this.parseProblems = parseProblems;
+    this.triples = triples;
+    this.prefixes = prefixes;
+    this.events = events;
+    this.loadError = loadError;
+  }
+
+  /**
+   * read and parse rdf file. callbacks are recorded only if document will be validated.
+   */
+  static RdfDocument load(Path path, String filename, String baseUri,
+      NodeDictionary dictionary, boolean recordCallbacks) {
+    if (logger.isTraceEnabled()) {
+      logger.trace("load: in (path=" + path + ")");
+    }
+    RdflintParserBuilder builder;
+    try {
+      builder = RdflintParser.source(path);
+    } catch (Exception ex) {
+      return new RdfDocument(filename, baseUri, new LinkedList<>(), new TripleTable(dictionary),
+          new HashMap<>(), new ArrayList<>(), ex);
+    }
+    return parse(builder, filename, baseUri, recordCallbacks, dictionary);
+  }
+
+  /**
+   * parse rdf source. triples are collected directly from parser, without intermediate graph.
+   * when recordCallbacks is false, document can not be validated, but consumes less memory.
+   */
+  public static RdfDocument parse(RdflintParserBuilder builder, String filename,
+      String baseUri, boolean recordCallbacks) {
+    return parse(builder, filename, baseUri, recordCallbacks, new NodeDictionary());
+  }
+
+  /**
+   * parse rdf source, terms are encoded by dictionary shared with other documents.
+   */
+  public static RdfDocument parse(RdflintParserBuilder builder, String filename,
+      String baseUri, boolean recordCallbacks, NodeDictionary dictionary) {
+    TripleCollector collector = new TripleCollector(dictionary);
+    ParseRecorder recorder = new ParseRecorder(dictionary);
+    List<LintProblem> problems = new LinkedList<>();
+    Exception loadError = null;
+    try {
+      if (recordCallbacks) {
+        builder.validators(Collections.singletonList(recorder));
+      }
+      builder.base(baseUri).parse(collector, problems);
+    } catch (Exception ex) {
+      loadError = ex;
+    }
+    collector.triples.compact();
+    return new RdfDocument(filename, baseUri, problems, collector.triples,
+        collector.prefixes, recordCallbacks ? recorder.events : null, loadError);
+  }
+
+  /**
+   * restore document from parsed result, e.g. loaded from incremental cache.
+   */
+  static RdfDocument restore(String filename, String baseUri, TripleTable triples,
+      Map<String, String> prefixes, List<ParseEvent> events) {
+    return new RdfDocument(filename, baseUri, new LinkedList<>(), triples, prefixes, events,
+        null);
+  }
+
+  public String getFilename() {
+    return filename;
+  }
+
+  public String getBaseUri() {
+    return baseUri;
+  }
+
+  public List<LintProblem> getParseProblems() {
+    return Collections.unmodifiableList(parseProblems);
+  }
+
+  // triples are read-only views of encoded table
+  public TripleTable getTriples() {
+    return triples;
+  }
+
+  public Map<String, String> getPrefixes() {
+    return Collections.unmodifiableMap(prefixes);
+  }
+
+  public Exception getLoadError() {
+    return loadError;
+  }
+
+  List<ParseEvent> getEvents() {
+    List<ParseEvent> current = events;
+    return current != null ? Collections.unmodifiableList(current) : Collections.emptyList();
+  }
+
+  /**
+   * return whether document can be validated, i.e. callbacks are recorded and not released.
+   * documents which failed to load or parse are always validated by their problems.
+   */
+  public boolean canValidate() {
+    return loadError != null || !parseProblems.isEmpty() || events != null;
+  }
+
+  /**
+   * release recorded callbacks after last replay, triples and prefixes are kept.
+   */
+  public void releaseEvents() {
+    events = null;
+  }
+
+  /**
+   * validate document by validators. same as parse with validators, parse problems are
+   * reported if exists, otherwise recorded triples and nodes are replayed to validators.
+   */
+  public void validate(List<RdfValidator> validators, List<LintProblem> problems) {
+    if (loadError != null) {
+      return;
+    }
+    if (!parseProblems.isEmpty()) {
+      problems.addAll(parseProblems);
+      return;
+    }
+    List<ParseEvent> current = events;
+    if (current == null) {
+      throw new IllegalStateException("callbacks are not recorded or released: " + filename);
+    }
+    for (ParseEvent e : current) {
+      for (RdfValidator v : validators) {
+        e.dispatch(v, filename, problems);
+      }
+    }
+  }
+
+  // validateTriple/validateNode call on parsing
+  static class ParseEvent {
+
+    private final Node subject;
+    private final Node predicate;
+    private final Node object;
+    private final int beginLine;
+    private final int beginCol;
+    private final int endLine;
+    private final int endCol;
+
+    ParseEvent(Node subject, Node predicate, Node object,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      this.subject = subject;
+      this.predicate = predicate;
+      this.object = object;
+      this.beginLine = beginLine;
+      this.beginCol = beginCol;
+      this.endLine = endLine;
+      this.endCol = endCol;
+    }
+
+    Node getSubject() {
+      return subject;
+    }
+
+    // null if validateNode call
+    Node getPredicate() {
+      return predicate;
+    }
+
+    Node getObject() {
+      return object;
+    }
+
+    int[] getRange() {
+      return new int[]{beginLine, beginCol, endLine, endCol};
+    }
+
+    void dispatch(RdfValidator v, String file, List<LintProblem> problems) {
+      if (predicate == null) {
+        problems.addAll(v.validateNode(subject, beginLine, beginCol, endLine, endCol));
+      } else {
+        problems.addAll(v.validateTriple(file, subject, predicate, object,
+            beginLine, beginCol, endLine, endCol));
+      }
+    }
+  }
+
+  // collects parsed triples and prefixes, duplicated triples are dropped same as graph
+  private static class TripleCollector extends StreamRDFBase {
+
+    private final TripleTable triples;
+    private final Map<String, String> prefixes = new HashMap<>();
+
+    TripleCollector(NodeDictionary dictionary) {
+      this.triples = new TripleTable(dictionary);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+      triples.addTriple(triple);
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+      prefixes.put(prefix, iri);
+    }
+  }
+
+  // records parser callbacks, for replay to validators after dataset is prepared.
+  // nodes are interned, so events share nodes with triples.
+  private static class ParseRecorder extends AbstractRdfValidator {
+
+    private final NodeDictionary dictionary;
+    private final List<ParseEvent> events = new ArrayList<>();
+
+    ParseRecorder(NodeDictionary dictionary) {
+      this.dictionary = dictionary;
+    }
+
+    @Override
+    public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      events.add(new ParseEvent(dictionary.intern(subject), dictionary.intern(predicate),
+          dictionary.intern(object), beginLine, beginCol, endLine, endCol));
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<LintProblem> validateNode(Node node,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      events.add(new ParseEvent(dictionary.intern(node), null, null,
+          beginLine, beginCol, endLine, endCol));
+      return Collections.emptyList();
+    }
+  }
+
+}
@@ -0,0 +1,258 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jena.graph.Triple;
+import org.apache.log4j.Logger;
+
+/**
+ * run-scoped cache of parsed rdf documents, shared by generation and validation.
+ */
+public class RdfDocumentCache implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(RdfDocumentCache.class.getName());
+
+  // approximate heap bytes of parsed document per source byte
+  private static final int DOCUMENT_MEMORY_FACTOR = 16;
+
+  public static final String STORAGE_HEAP = "heap";
+  public static final String STORAGE_MAPPED = "mapped";
+  private static final String STORE_DIR_PREFIX = ".rdflint-store";
+
+  private final String baseUri;
+  private final NodeDictionary dictionary;
+  private final Map<String, DocumentHolder> documents = new ConcurrentHashMap<>();
+  private IncrementalCache incrementalCache;
+  private Profiler profiler = Profiler.disabled();
+  // pool of running validation, null if not running
+  private WorkerPool workerPool;
+  // whether documents requested without explicit policy record callbacks for validate
+  private volatile boolean recordCallbacks = true;
+
+  public RdfDocumentCache(String baseUri) {
+    this(baseUri, new NodeDictionary());
+  }
+
+  private RdfDocumentCache(String baseUri, NodeDictionary dictionary) {
+    this.baseUri = baseUri;
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * create cache for run, with persistent cache if incremental mode, and memory-mapped
+   * dictionary if mapped storage.
+   */
+  public static RdfDocumentCache create(RdfLintParameters params) throws IOException {
+    NodeDictionary dictionary;
+    if (params.getStorage() == null || STORAGE_HEAP.equalsIgnoreCase(params.getStorage())) {
+      dictionary = new NodeDictionary();
+    } else if (STORAGE_MAPPED.equalsIgnoreCase(params.getStorage())) {
+      dictionary = MappedNodeDictionary.create(createStoreDir(params));
+    } else {
+      logger.warn(String.format("create: unknown storage %s, use heap", params.getStorage()));
+      dictionary = new NodeDictionary();
+    }
+    RdfDocumentCache cache = new RdfDocumentCache(params.getBaseUri(), dictionary);
+    if (params.isIncremental() && params.getOutputDir() != null) {
+      cache.incrementalCache = IncrementalCache.open(params, cache.dictionary);
+    }
+    if (params.isProfile()) {
+      cache.profiler = new Profiler();
+    }
+    return cache;
+  }
+
+  // store files are under output directory if specified, otherwise temporary directory
+  private static Path createStoreDir(RdfLintParameters params) throws IOException {
+    if (params.getOutputDir() != null) {
+      return Files.createTempDirectory(Paths.get(params.getOutputDir()), STORE_DIR_PREFIX);
+    }
+    return Files.createTempDirectory(STORE_DIR_PREFIX);
+  }
+
+  /**
+   * return persistent cache, or null if not incremental mode.
+   */
+  public IncrementalCache getIncrementalCache() {
+    return incrementalCache;
+  }
+
+  /**
+   * return profiler of run, records nothing if not profile mode.
+   */
+  public Profiler getProfiler() {
+    return profiler;
+  }
+
+  public void setProfiler(Profiler profiler) {
+    this.profiler = profiler;
+  }
+
+  /**
+   * return worker pool of running validation, so validators can split dataset-level work on
+   * same workers instead of creating own pool. null if validation is not running.
+   */
+  public WorkerPool getWorkerPool() {
+    return workerPool;
+  }
+
+  public void setWorkerPool(WorkerPool workerPool) {
+    this.workerPool = workerPool;
+  }
+
+  /**
+   * return whether callbacks for validate are recorded, for documents requested without
+   * explicit policy.
+   */
+  public boolean isRecordCallbacks() {
+    return recordCallbacks;
+  }
+
+  /**
+   * set whether callbacks for validate are recorded, for documents requested without explicit
+   * policy, e.g. validators parse files before runner in first pass. runner disables them
+   * while documents are not retained until validate.
+   */
+  public void setRecordCallbacks(boolean recordCallbacks) {
+    this.recordCallbacks = recordCallbacks;
+  }
+
+  /**
+   * return dictionary, which encodes triples of all documents in cache.
+   */
+  public NodeDictionary getNodeDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * scan rdf files under parentPath.
+   */
+  public FileManifest scan(String parentPath) throws IOException {
+    return FileManifest.scan(parentPath, baseUri);
+  }
+
+  /**
+   * get parsed document, parse file at first access. callbacks are recorded by policy of cache.
+   */
+  public RdfDocument get(String path, String parentPath) {
+    String filename = path.substring(parentPath.length() + 1);
+    return get(Paths.get(path), filename, FileManifest.resolveBaseUri(baseUri, filename),
+        recordCallbacks);
+  }
+
+  /**
+   * get parsed document of manifest entry, parse file at first access. callbacks are recorded
+   * by policy of cache.
+   */
+  public RdfDocument get(FileManifest.Entry entry) {
+    return get(entry, recordCallbacks);
+  }
+
+  /**
+   * get parsed document of manifest entry. callbacks for validate are recorded only if
+   * recordCallbacks, e.g. documents of origin files are not validated. if document is already
+   * parsed without callbacks, or they are released, file is parsed again.
+   */
+  public RdfDocument get(FileManifest.Entry entry, boolean recordCallbacks) {
+    return get(entry.getPath(), entry.getFilename(), entry.getBaseUri(), recordCallbacks);
+  }
+
+  private RdfDocument get(Path path, String filename, String fileBaseUri,
+      boolean recordCallbacks) {
+    return documents.computeIfAbsent(path.toString(), p -> new DocumentHolder())
+        .get(path, filename, fileBaseUri, recordCallbacks, dictionary, incrementalCache,
+            profiler);
+  }
+
+  /**
+   * return whether parsed documents of all files in manifest can be kept, they fit in half of
+   * max heap and storage is not mapped.
+   * documents are parsed again if not, but nodes of heap dictionary are kept until end of run,
+   * so heap storage is bounded by distinct terms of dataset, not by retained documents.
+   */
+  public boolean canRetain(FileManifest manifest) {
+    return !(dictionary instanceof MappedNodeDictionary)
+        && manifest.getTotalSize() * DOCUMENT_MEMORY_FACTOR
+        < Runtime.getRuntime().maxMemory() / 2;
+  }
+
+  /**
+   * discard parsed document, e.g. file is rewritten or document is no longer used.
+   */
+  public void invalidate(String path) {
+    documents.remove(path);
+    if (incrementalCache != null) {
+      incrementalCache.invalidate(path);
+    }
+  }
+
+  /**
+   * load documents of all files in manifest, files are parsed in parallel.
+   */
+  public List<RdfDocument> loadAll(FileManifest manifest, WorkerPool pool) {
+    return pool.map(manifest.getEntries(), this::get);
+  }
+
+  /**
+   * load triples of all rdf files under parentPath.
+   */
+  public Map<String, List<Triple>> loadFileTripleSet(String parentPath) throws IOException {
+    try (WorkerPool pool = new WorkerPool(1)) {
+      return loadFileTripleSet(scan(parentPath), pool);
+    }
+  }
+
+  /**
+   * load triples of all files in manifest, files are parsed in parallel.
+   */
+  public Map<String, List<Triple>> loadFileTripleSet(FileManifest manifest, WorkerPool pool) {
+    Map<String, List<Triple>> fileTripleSet = new ConcurrentHashMap<>();
+    loadAll(manifest, pool).forEach(doc -> fileTripleSet.put(doc.getFilename(),
+        doc.getTriples()));
+    return fileTripleSet;
+  }
+
+  /**
+   * release parsed documents and storage of dictionary.
+   */
+  @Override
+  public void close() {
+    documents.clear();
+    dictionary.close();
+  }
+
+  // parse outside of map lock, and only once even if requested from many threads
+  private static class DocumentHolder {
+
+    private RdfDocument document;
+
+    synchronized RdfDocument get(Path path, String filename, String baseUri,
+        boolean recordCallbacks, NodeDictionary dictionary, IncrementalCache incrementalCache,
+        Profiler profiler) {
+      if (document != null && recordCallbacks && !document.canValidate()) {
+        document = null;
+      }
+      if (document == null && incrementalCache != null) {
+        IncrementalCache.Entry cached = incrementalCache.lookup(path);
+        if (cached != null && baseUri.equals(cached.getDocument().getBaseUri())
+            && (!recordCallbacks || cached.getDocument().canValidate())) {
+          document = cached.getDocument();
+        }
+      }
+      if (document == null) {
+        try (Profiler.Timer t = profiler.task(Profiler.PARSE, filename)) {
+          document = RdfDocument.load(path, filename, baseUri, dictionary, recordCallbacks);
+        }
+      }
+      return document;
+    }
+  }
+
+}
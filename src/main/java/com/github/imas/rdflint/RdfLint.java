@@ -1,11 +1,17 @@
 package com.github.imas.rdflint;
 
 import com.github.imas.rdflint.config.RdfLintParameters;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.cli.CommandLine;
@@ -40,8 +46,27 @@ public class RdfLint {
     options.addOption("origindir", true, "Origin Dataset Directory Path");
     options.addOption("config", true, "Configuration file Path");
     options.addOption("suppress", true, "Suppress problems file Path");
+    options.addOption("format", true,
+        "Format of problems file, yaml (default), jsonl or sarif, comma separated");
+    options.addOption("jobs", true,
+        "Number of parallel validation workers (default: available processors)");
+    options.addOption("incremental", false,
+        "Incremental mode, reuse results of unchanged files cached in output directory");
+    options.addOption("storage", true,
+        "Storage of parsed dataset, heap (default) or mapped (memory-mapped files)");
+    options.addOption("profile", false,
+        "Report wall and cpu time of phases, validators and parsed files");
+    options.addOption("maxProblems", true,
+        "Maximum number of problems, rest of run is cancelled when reached");
+    options.addOption("maxProblemsPerKey", true, "Maximum number of problems of each kind");
+    options.addOption("failFast", false,
+        "Cancel rest of run as soon as a problem of minErrorLevel or worse is found");
     options.addOption("minErrorLevel", true,
         "Minimal logging level which is considered an error, e.g. INFO, WARN, ERROR");
+    options.addOption("offline", false,
+        "Offline mode, use only cached vocabularies of undefinedSubject url parameters");
+    options.addOption("vocabularyCache", true,
+        "Cache directory of fetched vocabularies (default: ~/.rdflint/vocabulary)");
     options.addOption("i", false, "Interactive mode");
     options.addOption("ls", false, "Language Server mode (experimental)");
     options.addOption("h", false, "Print usage");
@@ -90,11 +115,25 @@ public class RdfLint {
     // Set parameter
     Map<String, String> cmdOptions = new ConcurrentHashMap<>();
     for (String key :
-        Arrays.asList("targetdir", "config", "suppress", "outputdir", "baseuri", "origindir")) {
+        Arrays.asList("targetdir", "config", "suppress", "outputdir", "baseuri", "origindir",
+            "jobs", "storage", "maxProblems", "maxProblemsPerKey", "minErrorLevel",
+            "vocabularyCache")) {
       if (cmd.hasOption(key)) {
         cmdOptions.put(key, cmd.getOptionValue(key));
       }
     }
+    if (cmd.hasOption("incremental")) {
+      cmdOptions.put("incremental", "true");
+    }
+    if (cmd.hasOption("profile")) {
+      cmdOptions.put("profile", "true");
+    }
+    if (cmd.hasOption("failFast")) {
+      cmdOptions.put("failFast", "true");
+    }
+    if (cmd.hasOption("offline")) {
+      cmdOptions.put("offline", "true");
+    }
 
     // Main procedure
     if (cmd.hasOption("i")) {
@@ -105,11 +144,22 @@ public class RdfLint {
       // Execute linter
       RdfLint lint = new RdfLint();
       RdfLintParameters params = ConfigurationLoader.loadParameters(cmdOptions);
-      LintProblemSet problems = lint.lintRdfDataSet(params, params.getTargetDir());
+      Profiler profiler = params.isProfile() ? new Profiler() : Profiler.disabled();
+      LintProblemSet problems;
+      // problems files are written as each file is done
+      try (ProblemFiles files = new ProblemFiles(params.getOutputDir(),
+          cmd.getOptionValue("format", "yaml").split(","))) {
+        problems = lint.lintRdfDataSet(params, params.getTargetDir(), profiler, files);
+      }
+      if (profiler.isEnabled()) {
+        Path profilePath = Paths.get(params.getOutputDir() + "/rdflint-profile.json");
+        profiler.print(System.out);
+        try (OutputStream out = Files.newOutputStream(profilePath)) {
+          profiler.json(out);
+        }
+      }
       if (problems.hasProblem()) {
-        Path problemsPath = Paths.get(params.getOutputDir() + "/rdflint-problems.yml");
         LintProblemFormatter.out(System.out, problems);
-        LintProblemFormatter.yaml(Files.newOutputStream(problemsPath), problems);
         final String minErrorLevel = cmd.getOptionValue("minErrorLevel", "WARN");
         final LintProblem.ErrorLevel errorLevel = LintProblem.ErrorLevel.valueOf(minErrorLevel);
         if (problems.hasProblemOfLevelOrWorse(errorLevel)) {
@@ -119,21 +169,115 @@ public class RdfLint {
     }
   }
 
+  /**
+   * problems files of formats in output directory. file is created on first problem, so no
+   * file is written if there is no problem.
+   */
+  static class ProblemFiles implements ProblemSink, Closeable {
+
+    private final String outputDir;
+    private final Map<String, String> fileNames = new LinkedHashMap<>();
+    private final List<OutputStream> streams = new LinkedList<>();
+    private final List<LintProblemFormatter.ProblemWriter> writers = new LinkedList<>();
+
+    ProblemFiles(String outputDir, String... formats) {
+      this.outputDir = outputDir;
+      for (String format : formats) {
+        switch (format.trim()) {
+          case "yaml":
+            fileNames.put("yaml", "rdflint-problems.yml");
+            break;
+          case "jsonl":
+            fileNames.put("jsonl", "rdflint-problems.jsonl");
+            break;
+          case "sarif":
+            fileNames.put("sarif", "rdflint-problems.sarif");
+            break;
+          default:
+            logger.warn(String.format("writeProblems: unknown format %s", format.trim()));
+        }
+      }
+    }
+
+    @Override
+    public synchronized void write(String file, List<LintProblem> problems) {
+      if (writers.isEmpty() && !fileNames.isEmpty()) {
+        try {
+          for (Map.Entry<String, String> e : fileNames.entrySet()) {
+            OutputStream out = Files.newOutputStream(Paths.get(outputDir + "/" + e.getValue()));
+            streams.add(out);
+            writers.add(createWriter(e.getKey(), out));
+          }
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+      writers.forEach(w -> w.write(file, problems));
+    }
+
+    @Override
+    public boolean isGroupedByFile() {
+      return fileNames.containsKey("yaml");
+    }
+
+    private static LintProblemFormatter.ProblemWriter createWriter(String format,
+        OutputStream out) {
+      switch (format) {
+        case "jsonl":
+          return LintProblemFormatter.jsonLinesWriter(out);
+        case "sarif":
+          return LintProblemFormatter.sarifWriter(out);
+        default:
+          return LintProblemFormatter.yamlWriter(out);
+      }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+      writers.forEach(LintProblemFormatter.ProblemWriter::close);
+      for (OutputStream out : streams) {
+        out.close();
+      }
+    }
+  }
+
   /**
    * rdflint main process.
    */
   LintProblemSet lintRdfDataSet(RdfLintParameters params, String targetDir)
       throws IOException {
+    return lintRdfDataSet(params, targetDir, Profiler.disabled());
+  }
+
+  /**
+   * rdflint main process, with time of run recorded to profiler.
+   */
+  LintProblemSet lintRdfDataSet(RdfLintParameters params, String targetDir, Profiler profiler)
+      throws IOException {
+    return lintRdfDataSet(params, targetDir, profiler, null);
+  }
+
+  /**
+   * rdflint main process, with problems of each file passed to sink when the file is done.
+   */
+  LintProblemSet lintRdfDataSet(RdfLintParameters params, String targetDir, Profiler profiler,
+      ProblemSink sink) throws IOException {
     logger.trace("lintRdfDataSet: in");
 
-    // execute generator
-    GenerationRunner grunner = new GenerationRunner();
-    grunner.execute(params, targetDir);
+    // parsed documents are shared by generator and validator
+    try (RdfDocumentCache documentCache = RdfDocumentCache.create(params)) {
+      if (profiler.isEnabled()) {
+        documentCache.setProfiler(profiler);
+      }
+      // execute generator
+      GenerationRunner grunner = new GenerationRunner();
+      grunner.execute(params, targetDir, documentCache);
 
-    // call validator runner
-    ValidationRunner runner = new ValidationRunner();
-    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
-    return runner.execute(params, targetDir);
+      // call validator runner
+      ValidationRunner runner = new ValidationRunner();
+      runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+      return runner.execute(params, targetDir, documentCache, sink);
+    }
   }
 
 }
@@ -3,6 +3,7 @@ package com.github.imas.rdflint;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.config.RdfLintParameters;
 import com.github.imas.rdflint.parser.RdflintParser;
+import com.github.imas.rdflint.parser.RdflintParserBuilder;
 import com.github.imas.rdflint.validator.RdfValidator;
 import com.github.imas.rdflint.validator.impl.ShaclValidator;
 import com.github.imas.rdflint.validator.impl.TrimValidator;
@@ -14,7 +15,6 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -205,44 +205,39 @@ public class RdfLintLanguageServer implements LanguageServer, LanguageClientAwar
   void refreshFileTripleSet() {
     try {
       // load triple
-      String parentPath = rdflintParams.getTargetDir();
-      String baseUri = rdflintParams.getBaseUri();
-      fileTripleSet = Files // NOPMD
-          .walk(Paths.get(parentPath))
-          .filter(e -> e.toString().endsWith(".rdf") || e.toString().endsWith(".ttl"))
-          .collect(Collectors.toConcurrentMap(
-              e -> e.toString().substring(parentPath.length() + 1),
-              e -> {
-                Graph g = Factory.createGraphMem();
-                String filename = e.toString().substring(parentPath.length() + 1);
-                String subdir = filename.substring(0, filename.lastIndexOf(File.separator) + 1);
-                if (File.separatorChar == '\\') {
-                  subdir = filename.replaceAll("\\\\", "/");
-                }
-                if (subdir.length() > 0 && subdir.charAt(0) == '/' && baseUri.endsWith("/")) {
-                  subdir = subdir.substring(1);
-                }
-                Lang lang = e.toString().endsWith(".ttl") ? Lang.TURTLE : Lang.RDFXML;
-                String text = sourceTextMap.get(convertFilePath2Uri(e.toString()));
-                List<Triple> lst;
-                List<LintProblem> problems = new LinkedList<>();
-                try {
-                  (text != null ? RdflintParser.fromString(text) : RdflintParser.source(e))
-                      .lang(lang)
-                      .base(baseUri + subdir)
-                      .parse(g, problems);
-                  lst = g.find().toList();
-                } catch (IOException ex) {
-                  lst = new LinkedList<>();
-                }
-                return lst;
-              }
-          ));
+      FileManifest manifest = FileManifest
+          .scan(rdflintParams.getTargetDir(), rdflintParams.getBaseUri());
+      List<FileManifest.Entry> entries = manifest.getEntries();
+      NodeDictionary dictionary = new NodeDictionary();
+      List<List<Triple>> tripleSets;
+      try (WorkerPool pool = new WorkerPool(rdflintParams.getJobs())) {
+        tripleSets = pool.map(entries, e -> loadTriples(e, dictionary));
+      }
+      Map<String, List<Triple>> loaded = new ConcurrentHashMap<>();
+      for (int i = 0; i < entries.size(); i++) {
+        loaded.put(entries.get(i).getFilename(), tripleSets.get(i));
+      }
+      fileTripleSet = loaded;
     } catch (IOException ex) {
       showException("Error cannot diagnostics", ex);
     }
   }
 
+  // parse file, or editing text if opened
+  private List<Triple> loadTriples(FileManifest.Entry entry, NodeDictionary dictionary) {
+    String text = sourceTextMap.get(convertFilePath2Uri(entry.getPath().toString()));
+    try {
+      RdflintParserBuilder builder = text != null
+          ? RdflintParser.fromString(text) : RdflintParser.source(entry.getPath());
+      return RdfDocument
+          .parse(builder.lang(entry.getLang()), entry.getFilename(), entry.getBaseUri(), false,
+              dictionary)
+          .getTriples();
+    } catch (IOException ex) {
+      return new LinkedList<>();
+    }
+  }
+
   void diagnostics(String changedUri) {
     // load triple
     String changedFilePath = convertUri2FilePath(changedUri);
@@ -0,0 +1,115 @@
+package com.github.imas.rdflint;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+import org.apache.jena.graph.Node;
+
+/**
+ * uri subjects of dataset, shared by validators of a run through node dictionary.
+ * exact membership is a bit set of dictionary ids, and bloom filter over uri hashes answers
+ * most negative lookups of nodes without probing dictionary.
+ */
+public final class SubjectIndex {
+
+  private static final int BITS_PER_SUBJECT = 10;
+  private static final int HASH_COUNT = 7;
+
+  private final NodeDictionary dictionary;
+  private volatile boolean sealed;
+  private BitSet ids = new BitSet();
+  private long[] filter = new long[1];
+  private long filterBits = 64;
+  private int size;
+
+  SubjectIndex(NodeDictionary dictionary) {
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * build index once, by filling ids of uri subjects. index built by another validator is
+   * reused, and fill is not called.
+   */
+  public synchronized void build(Consumer<BitSet> fill) {
+    if (sealed) {
+      return;
+    }
+    BitSet subjects = new BitSet(dictionary.size());
+    fill.accept(subjects);
+    int count = subjects.cardinality();
+    long bits = Math.max(64, (long) count * BITS_PER_SUBJECT);
+    long[] words = new long[(int) ((bits + 63) >>> 6)];
+    bits = (long) words.length << 6;
+    for (int id = subjects.nextSetBit(0); id >= 0; id = subjects.nextSetBit(id + 1)) {
+      int h = hash(dictionary.decode(id).getURI());
+      int h2 = mix(h) | 1;
+      for (int i = 0; i < HASH_COUNT; i++) {
+        long bit = Integer.toUnsignedLong(h + i * h2) % bits;
+        words[(int) (bit >>> 6)] |= 1L << bit;
+      }
+    }
+    this.ids = subjects;
+    this.filter = words;
+    this.filterBits = bits;
+    this.size = count;
+    this.sealed = true;
+  }
+
+  public boolean isBuilt() {
+    return sealed;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * return true if id is uri subject of dataset.
+   */
+  public boolean contains(int id) {
+    return sealed && id >= 0 && ids.get(id);
+  }
+
+  /**
+   * return true if node is uri subject of dataset.
+   */
+  public boolean contains(Node node) {
+    if (node == null || !node.isURI() || !mightContain(node.getURI())) {
+      return false;
+    }
+    return contains(dictionary.lookup(node));
+  }
+
+  /**
+   * return false if uri is surely not subject of dataset.
+   */
+  public boolean mightContain(String uri) {
+    if (!sealed) {
+      return false;
+    }
+    int h = hash(uri);
+    int h2 = mix(h) | 1;
+    for (int i = 0; i < HASH_COUNT; i++) {
+      long bit = Integer.toUnsignedLong(h + i * h2) % filterBits;
+      if ((filter[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hash(String uri) {
+    return mix(uri.hashCode() ^ uri.length());
+  }
+
+  // finalizer of murmur3
+  private static int mix(int value) {
+    int h = value;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+}
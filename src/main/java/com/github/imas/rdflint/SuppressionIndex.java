@@ -0,0 +1,164 @@
+package com.github.imas.rdflint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jena.graph.Triple;
+import org.apache.log4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * suppress file compiled into hash tables of file and problem key.
+ * compiled index is cached per suppress file, and reloaded only when the file is changed.
+ */
+final class SuppressionIndex {
+
+  private static final Logger logger = Logger.getLogger(SuppressionIndex.class.getName());
+
+  private static final Map<Path, SuppressionIndex> cache = new ConcurrentHashMap<>();
+
+  // file -> problem key -> entries
+  private final Map<String, Map<String, Entries>> index = new HashMap<>();
+  private final long lastModified;
+  private final long size;
+
+  private static class Entries {
+
+    final Set<List<String>> triples = new HashSet<>();
+    final Set<String> nodes = new HashSet<>();
+    final Set<Long> lines = new HashSet<>();
+    // line -> cols
+    final Map<Long, Set<Long>> lineCols = new HashMap<>();
+  }
+
+  private SuppressionIndex(long lastModified, long size) {
+    this.lastModified = lastModified;
+    this.size = size;
+  }
+
+  /**
+   * load compiled suppress file, reuse cached one if the file is not changed.
+   */
+  static SuppressionIndex load(String suppressPath) throws IOException {
+    Path path = Paths.get(new File(suppressPath).getCanonicalPath());
+    long lastModified = Files.getLastModifiedTime(path).toMillis();
+    long size = Files.size(path);
+    SuppressionIndex cached = cache.get(path);
+    if (cached != null && cached.lastModified == lastModified && cached.size == size) {
+      return cached;
+    }
+    logger.trace("load: compile " + path);
+    SuppressionIndex loaded = new SuppressionIndex(lastModified, size);
+    try (Reader reader = new InputStreamReader(Files.newInputStream(path),
+        StandardCharsets.UTF_8)) {
+      Yaml yaml = new Yaml();
+      @SuppressWarnings("unchecked")
+      LinkedHashMap<String, List<LinkedHashMap<String, Object>>> suppressYaml = yaml.loadAs(
+          reader,
+          (Class<LinkedHashMap<String, List<LinkedHashMap<String, Object>>>>)
+              (Class<?>) LinkedHashMap.class // NOPMD
+      );
+      if (suppressYaml != null) {
+        suppressYaml.forEach((f, l) -> {
+          if (l != null) {
+            l.forEach(fm -> loaded.compile(f, fm));
+          }
+        });
+      }
+    }
+    cache.put(path, loaded);
+    return loaded;
+  }
+
+  private void compile(String file, Map<String, Object> fm) {
+    if (fm == null || fm.get("key") == null) {
+      return;
+    }
+    Entries entries = index.computeIfAbsent(file, k -> new HashMap<>())
+        .computeIfAbsent(fm.get("key").toString(), k -> new Entries());
+    if (fm.get("subject") != null && fm.get("predicate") != null && fm.get("object") != null) {
+      entries.triples.add(Arrays.asList(fm.get("subject").toString(),
+          fm.get("predicate").toString(), fm.get("object").toString()));
+    }
+    if (fm.get("node") != null) {
+      entries.nodes.add(fm.get("node").toString());
+    }
+    if (fm.get("line") != null) {
+      try {
+        long line = Integer.parseInt(fm.get("line").toString());
+        entries.lines.add(line);
+        if (fm.get("col") != null) {
+          long col = Integer.parseInt(fm.get("col").toString());
+          entries.lineCols.computeIfAbsent(line, k -> new HashSet<>()).add(col);
+        }
+      } catch (NumberFormatException ex) {
+        logger.warn("invalid suppress line: " + fm);
+      }
+    }
+  }
+
+  /**
+   * return true if problem of the file is suppressed.
+   */
+  boolean isSuppressed(String file, LintProblem problem) {
+    String relativeUriPath = file;
+    if (File.separatorChar == '\\') {
+      relativeUriPath = relativeUriPath.replaceAll("\\\\", "/");
+    }
+    Map<String, Entries> fileIndex = index.get(relativeUriPath);
+    if (fileIndex == null) {
+      return false;
+    }
+    Entries entries = fileIndex.get(problem.getKey());
+    LintProblemLocation location = problem.getLocation();
+    if (entries == null || location == null) {
+      return false;
+    }
+    Triple triple = location.getTriple();
+    if (triple != null && !entries.triples.isEmpty()
+        && entries.triples.contains(Arrays.asList(triple.getSubject().toString(),
+        triple.getPredicate().toString(), triple.getObject().toString()))) {
+      return true;
+    }
+    if (location.getNode() != null && !entries.nodes.isEmpty()
+        && entries.nodes.contains(location.getNode().toString())) {
+      return true;
+    }
+    if (location.getBeginCol() > 0 && !entries.lineCols.isEmpty()) {
+      Set<Long> cols = entries.lineCols.get(location.getBeginLine());
+      if (cols != null && cols.contains(location.getBeginCol())) {
+        return true;
+      }
+    }
+    return location.getBeginLine() > 0 && entries.lines.contains(location.getBeginLine());
+  }
+
+  /**
+   * return problems which are not suppressed.
+   */
+  LintProblemSet filter(LintProblemSet problemSet) {
+    LintProblemSet filtered = new LintProblemSet();
+    problemSet.getProblemSet().forEach((f, l) -> {
+      l.forEach(m -> {
+        if (!isSuppressed(f, m)) {
+          filtered.addProblem(f, m);
+        }
+      });
+    });
+    return filtered;
+  }
+
+}
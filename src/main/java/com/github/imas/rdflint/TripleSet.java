@@ -0,0 +1,38 @@
+package com.github.imas.rdflint;
+
+/**
+ * set of triples encoded by node dictionary, accessed by ids. implemented by in-heap
+ * TripleTable, and memory-mapped MappedTripleSet.
+ */
+public interface TripleSet {
+
+  NodeDictionary getDictionary();
+
+  int size();
+
+  // add triple of ids, return false if already exists (may be deferred until compact)
+  boolean add(int subject, int predicate, int object);
+
+  // called after all triples are added
+  void compact();
+
+  boolean contains(int subject, int predicate, int object);
+
+  void forEachId(IdConsumer consumer);
+
+  // call consumer with triples matched to pattern, -1 is wildcard
+  void find(int subject, int predicate, int object, IdConsumer consumer);
+
+  // release storage of set
+  void close();
+
+  /**
+   * consumer of triple ids.
+   */
+  @FunctionalInterface
+  interface IdConsumer {
+
+    void accept(int subject, int predicate, int object);
+  }
+
+}
@@ -0,0 +1,204 @@
+package com.github.imas.rdflint;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import org.apache.jena.graph.Triple;
+
+/**
+ * set of triples encoded by node dictionary. triples are stored as int id array in insertion
+ * order, and read as triple views. duplicated triples are dropped same as graph.
+ */
+public final class TripleTable extends AbstractList<Triple> implements RandomAccess, TripleSet {
+
+  private final NodeDictionary dictionary;
+  private int[] ids;
+  private int size;
+  // open addressing index of rows, slot holds row + 1, built at first add or contains.
+  // table is not thread-safe on add, but contains may be called concurrently after that.
+  private volatile int[] index;
+
+  public TripleTable(NodeDictionary dictionary) {
+    this(dictionary, 16);
+  }
+
+  /**
+   * constructor, with expected number of triples.
+   */
+  public TripleTable(NodeDictionary dictionary, int capacity) {
+    this.dictionary = dictionary;
+    this.ids = new int[Math.max(capacity, 1) * 3];
+  }
+
+  /**
+   * return triples as table of dictionary. table is returned as is if already encoded by it.
+   */
+  public static TripleTable encode(List<Triple> triples, NodeDictionary dictionary) {
+    if (triples instanceof TripleTable
+        && ((TripleTable) triples).getDictionary() == dictionary) {
+      return (TripleTable) triples;
+    }
+    TripleTable table = new TripleTable(dictionary, triples.size());
+    triples.forEach(table::addTriple);
+    table.compact();
+    return table;
+  }
+
+  @Override
+  public NodeDictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * add triple, return false if already exists.
+   */
+  public boolean addTriple(Triple t) {
+    return add(dictionary.encode(t.getSubject()), dictionary.encode(t.getPredicate()),
+        dictionary.encode(t.getObject()));
+  }
+
+  @Override
+  public boolean add(int subject, int predicate, int object) {
+    int[] current = index;
+    if (current == null || size * 2 >= current.length) {
+      current = createIndex();
+      index = current;
+    }
+    int slot = findSlot(current, subject, predicate, object);
+    if (current[slot] != 0) {
+      return false;
+    }
+    if (size * 3 == ids.length) {
+      ids = Arrays.copyOf(ids, Math.max(ids.length * 2, 48));
+    }
+    ids[size * 3] = subject;
+    ids[size * 3 + 1] = predicate;
+    ids[size * 3 + 2] = object;
+    size++;
+    current[slot] = size;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public boolean contains(int subject, int predicate, int object) {
+    int[] current = index;
+    if (current == null) {
+      current = createIndex();
+      index = current;
+    }
+    return current[findSlot(current, subject, predicate, object)] != 0;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof Triple)) {
+      return false;
+    }
+    Triple t = (Triple) o;
+    int subject = dictionary.lookup(t.getSubject());
+    int predicate = dictionary.lookup(t.getPredicate());
+    int object = dictionary.lookup(t.getObject());
+    return subject >= 0 && predicate >= 0 && object >= 0
+        && contains(subject, predicate, object);
+  }
+
+  /**
+   * release unused capacity and index, after all triples are added.
+   */
+  @Override
+  public void compact() {
+    ids = Arrays.copyOf(ids, size * 3);
+    index = null;
+  }
+
+  @Override
+  public void close() {
+    ids = new int[0];
+    size = 0;
+    index = null;
+  }
+
+  @Override
+  public Triple get(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+    }
+    return Triple.create(dictionary.decode(ids[i * 3]), dictionary.decode(ids[i * 3 + 1]),
+        dictionary.decode(ids[i * 3 + 2]));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  public int getSubject(int i) {
+    return ids[i * 3];
+  }
+
+  public int getPredicate(int i) {
+    return ids[i * 3 + 1];
+  }
+
+  public int getObject(int i) {
+    return ids[i * 3 + 2];
+  }
+
+  /**
+   * call consumer with ids of each triple, in insertion order.
+   */
+  @Override
+  public void forEachId(IdConsumer consumer) {
+    for (int i = 0; i < size; i++) {
+      consumer.accept(ids[i * 3], ids[i * 3 + 1], ids[i * 3 + 2]);
+    }
+  }
+
+  @Override
+  public void find(int subject, int predicate, int object, IdConsumer consumer) {
+    for (int i = 0; i < size; i++) {
+      int s = ids[i * 3];
+      int p = ids[i * 3 + 1];
+      int o = ids[i * 3 + 2];
+      if ((subject < 0 || subject == s) && (predicate < 0 || predicate == p)
+          && (object < 0 || object == o)) {
+        consumer.accept(s, p, o);
+      }
+    }
+  }
+
+  private int findSlot(int[] index, int subject, int predicate, int object) {
+    int mask = index.length - 1;
+    int slot = hash(subject, predicate, object) & mask;
+    while (index[slot] != 0) {
+      int row = (index[slot] - 1) * 3;
+      if (ids[row] == subject && ids[row + 1] == predicate && ids[row + 2] == object) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private int[] createIndex() {
+    int capacity = Math.max(16, Integer.highestOneBit(Math.max(size, 1)) * 4);
+    int[] index = new int[capacity];
+    int mask = capacity - 1;
+    for (int i = 0; i < size; i++) {
+      int slot = hash(ids[i * 3], ids[i * 3 + 1], ids[i * 3 + 2]) & mask;
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      index[slot] = i + 1;
+    }
+    return index;
+  }
+
+  private static int hash(int subject, int predicate, int object) {
+    int h = (subject * 31 + predicate) * 31 + object;
+    return h ^ (h >>> 16);
+  }
+
+}
@@ -1,28 +1,21 @@
 package com.github.imas.rdflint;
 
 import com.github.imas.rdflint.config.RdfLintParameters;
-import com.github.imas.rdflint.parser.RdflintParser;
+import com.github.imas.rdflint.validator.AbstractRdfValidator;
 import com.github.imas.rdflint.validator.RdfValidator;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import org.apache.jena.graph.Factory;
-import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Triple;
-import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFParser;
 import org.apache.log4j.Logger;
 import org.reflections.Reflections;
-import org.yaml.snakeyaml.Yaml;
 
 public class ValidationRunner {
 
@@ -62,105 +55,332 @@ public class ValidationRunner {
    */
   public LintProblemSet execute(RdfLintParameters params, String targetDir)
       throws IOException {
-    logger.trace("execute: in");
-    LintProblemSet problems = new LintProblemSet();
-
-    // initialize validators
-    validators.forEach(v ->
-        v.setParameters(params)
-    );
-
-    // validation: validateFile
-    String parentPath = new File(targetDir).getCanonicalPath();
-    Files.walk(Paths.get(parentPath))
-        .filter(e -> e.toString().endsWith(".rdf") || e.toString().endsWith(".ttl"))
-        .forEach(f -> validators.forEach(v -> v.validateFile(problems, f.toString(), parentPath)));
-    if (problems.hasProblem()) {
-      return problems;
+    try (RdfDocumentCache documentCache = RdfDocumentCache.create(params)) {
+      return execute(params, targetDir, documentCache);
     }
+  }
+
+  /**
+   * execute lint process, with parsed documents shared in run.
+   */
+  public LintProblemSet execute(RdfLintParameters params, String targetDir,
+      RdfDocumentCache documentCache) throws IOException {
+    return execute(params, targetDir, documentCache, null);
+  }
 
-    // parse rdf & ttl
-    String baseUri = params.getBaseUri();
-    Map<String, List<Triple>> fileTripleSet = loadFileTripleSet(parentPath, baseUri);
-    String originPath = params.getOriginDir() != null
-        ? new File(params.getOriginDir()).getCanonicalPath() : null;
-    Map<String, List<Triple>> originFileTripleSet = originPath != null
-        ? loadFileTripleSet(originPath, baseUri) : new ConcurrentHashMap<>();
+  /**
+   * execute lint process, with parsed documents shared in run. problems of each file are
+   * passed to sink as soon as the file is done, in manifest order, and rest of problems are
+   * passed at end of run.
+   */
+  public LintProblemSet execute(RdfLintParameters params, String targetDir,
+      RdfDocumentCache documentCache, ProblemSink sink) throws IOException {
+    logger.trace("execute: in");
+    // problems are collected in manifest order as soon as preceding files are done, so that
+    // limits of problems can cancel rest of run. suppressed problems are dropped on add.
+    LintProblemSet problems = new LintProblemSet(params.getMaxProblems(),
+        params.getMaxProblemsPerKey(), params.isFailFast()
+        ? LintProblem.ErrorLevel.valueOf(params.getMinErrorLevel() != null
+        ? params.getMinErrorLevel() : "WARN") : null);
+    if (params.getSuppressPath() != null) {
+      problems.setSuppression(SuppressionIndex.load(params.getSuppressPath()));
+    }
+    Profiler profiler = documentCache.getProfiler();
 
-    // setup triple set to validator
+    // initialize validators
     validators.forEach(v -> {
-      v.prepareValidationResource(fileTripleSet);
+      v.setParameters(params);
+      v.setDocumentCache(documentCache);
     });
-    // validate triple, node
-    Files.walk(Paths.get(parentPath))
-        .filter(e -> e.toString().endsWith(".rdf") || e.toString().endsWith(".ttl"))
-        .forEach(f -> {
-          String filename = f.toString().substring(parentPath.length() + 1);
-          String subdir = filename.substring(0, filename.lastIndexOf(File.separator) + 1);
-          if (File.separatorChar == '\\') {
-            subdir = filename.replaceAll("\\\\", "/");
+
+    // dataset-level phases of independent validators run concurrently
+    ValidatorScheduler scheduler = new ValidatorScheduler(profiler.isEnabled()
+        ? validators.stream().map(v -> new ProfiledValidator(v, profiler))
+        .collect(Collectors.toList()) : validators);
+    List<RdfValidator> scheduled = scheduler.getValidators();
+    // files can not be written twice to sink grouped by file, so they are held until end of
+    // run if problems may be added to them in reportAdditionalProblem
+    SinkWriter sinkWriter = new SinkWriter(problems, sink, sink != null
+        && sink.isGroupedByFile()
+        && scheduled.stream().anyMatch(ValidationRunner::reportsAdditionalProblem));
+
+    try (WorkerPool pool = new WorkerPool(params.getJobs())) {
+      documentCache.setWorkerPool(pool);
+      // scan target files
+      String parentPath = new File(targetDir).getCanonicalPath();
+      FileManifest manifest;
+      try (Profiler.Timer t = profiler.phase("validation.scan")) {
+        manifest = documentCache.scan(parentPath);
+      }
+      String originPath = params.getOriginDir() != null
+          ? new File(params.getOriginDir()).getCanonicalPath() : null;
+
+      // results of file-local validators are reused for unchanged files in incremental mode.
+      // otherwise validators run in order of registration
+      IncrementalCache incrementalCache = documentCache.getIncrementalCache();
+      List<RdfValidator> localValidators = scheduled.stream()
+          .filter(RdfValidator::isFileLocal)
+          .collect(Collectors.toList());
+      List<RdfValidator> datasetValidators = scheduled.stream()
+          .filter(v -> !v.isFileLocal())
+          .collect(Collectors.toList());
+      Map<String, List<LintProblem>> localFileProblems = new ConcurrentHashMap<>();
+
+      // validators which implement only prepareValidationResource are given triples of all
+      // files at once, as views of parsed documents
+      boolean needsFileTripleSet = scheduled.stream()
+          .anyMatch(ValidationRunner::needsFileTripleSet);
+      Map<String, List<Triple>> fileTripleSet = new ConcurrentHashMap<>();
+
+      // parsed documents are kept for second pass if they fit in heap, otherwise they are
+      // released after each pass and parsed again
+      boolean retainDocuments = documentCache.canRetain(manifest);
+      if (!retainDocuments
+          && !(documentCache.getNodeDictionary() instanceof MappedNodeDictionary)) {
+        logger.warn("execute: dataset may not fit in heap, nodes of dataset are kept in heap "
+            + "until end of run. use -storage mapped for large dataset");
+      }
+      // callbacks are needed in second pass only if document is kept until then, also for
+      // documents which validators get in validateFile
+      documentCache.setRecordCallbacks(retainDocuments);
+
+      // validation: validateFile, and stream triples to validators for preparation
+      // problems found here end the run, so files of them are done
+      try (Profiler.Timer t = profiler.phase("validation.validateFile")) {
+        OrderedProblemCollector collector = new OrderedProblemCollector(problems,
+            manifest.getEntries().size(), sinkWriter::write);
+        pool.forEachIndexed(manifest.getEntries(), (e, index) -> {
+          if (problems.isCancelled()) {
+            collector.complete(index, null);
+            return;
+          }
+          String path = e.getPath().toString();
+          LintProblemSet fileProblems = new LintProblemSet();
+          if (incrementalCache == null) {
+            scheduled.forEach(v -> v.validateFile(fileProblems, path, parentPath));
+          } else {
+            IncrementalCache.Entry cached = incrementalCache.lookup(e.getPath());
+            if (cached != null) {
+              cached.getFileProblems().forEach(p -> fileProblems.addProblem(e.getFilename(), p));
+            } else {
+              localValidators.forEach(v -> v.validateFile(fileProblems, path, parentPath));
+            }
+            localFileProblems.put(path, new LinkedList<>(fileProblems.getProblemSet()
+                .getOrDefault(e.getFilename(), new LinkedList<>())));
+            datasetValidators.forEach(v -> v.validateFile(fileProblems, path, parentPath));
           }
-          String subBase = baseUri + subdir;
 
-          Graph g = Factory.createGraphMem();
+          RdfDocument doc = documentCache.get(e);
+          if (needsFileTripleSet) {
+            fileTripleSet.put(e.getFilename(), doc.getTriples());
+          }
+          if (doc.getParseProblems().isEmpty()) {
+            scheduled.forEach(v -> {
+              TripleSet.IdConsumer subscriber = v.subscribeValidationResource(e.getFilename(),
+                  documentCache.getNodeDictionary());
+              if (subscriber != null) {
+                doc.getTriples().forEachId(subscriber);
+              }
+            });
+          }
+          if (!retainDocuments) {
+            documentCache.invalidate(path);
+          }
+          collector.complete(index, fileProblems);
+        });
+      }
+      if (problems.hasProblem()) {
+        sinkWriter.writeAll();
+        return problems;
+      }
+
+      // setup triple set to validator
+      if (!problems.isCancelled()) {
+        try (Profiler.Timer t = profiler.phase("validation.prepareValidationResource")) {
+          Map<String, List<Triple>> preparedTripleSet = Collections
+              .unmodifiableMap(fileTripleSet);
+          scheduler.run(pool, (v, p) -> {
+            if (needsFileTripleSet(v)) {
+              v.prepareValidationResource(preparedTripleSet);
+            } else {
+              v.completeValidationResource();
+            }
+          });
+        }
+      }
+
+      // validate triple, node, and triple set of each file. file is done here unless problems
+      // of origin files are added to it later
+      try (Profiler.Timer t = profiler.phase("validation.validateTripleSet")) {
+        OrderedProblemCollector collector = originPath == null
+            ? new OrderedProblemCollector(problems, manifest.getEntries().size(),
+            sinkWriter::write)
+            : new OrderedProblemCollector(problems, manifest.getEntries().size());
+        pool.forEachIndexed(manifest.getEntries(), (e, index) -> {
+          if (problems.isCancelled()) {
+            collector.complete(index, null);
+            return;
+          }
+          RdfDocument doc = documentCache.get(e, true);
           List<LintProblem> fileProblems = new LinkedList<>();
-          Lang lang = f.toString().endsWith(".ttl") ? Lang.TURTLE : Lang.RDFXML;
-          try {
-            RdflintParser.source(f)
-                .lang(lang)
-                .base(subBase)
-                .validators(validators)
-                .parse(g, fileProblems);
-            logger.trace(String.format(
-                "execute: Files.walk (path=%s,problemsize=%d)",
-                f.toString(),
-                fileProblems.size()));
-          } catch (IOException ex) {
-            ex.printStackTrace(); // NOPMD
+          if (incrementalCache == null) {
+            doc.validate(scheduled, fileProblems);
+          } else {
+            IncrementalCache.Entry cached = incrementalCache.lookup(e.getPath());
+            if (cached != null && cached.getDocument() == doc) {
+              fileProblems.addAll(cached.getTripleProblems());
+            } else {
+              doc.validate(localValidators, fileProblems);
+              incrementalCache.store(e.getPath(), doc,
+                  localFileProblems.get(e.getPath().toString()), fileProblems);
+            }
+            doc.validate(datasetValidators, fileProblems);
+          }
+          // callbacks are replayed once in run, retained document keeps only triples
+          doc.releaseEvents();
+          logger.trace(String.format(
+              "execute: validate (path=%s,problemsize=%d)",
+              e.getPath().toString(),
+              fileProblems.size()));
+          LintProblemSet fileProblemSet = new LintProblemSet();
+          fileProblems.forEach(p -> fileProblemSet.addProblem(doc.getFilename(), p));
+          scheduled.forEach(v ->
+              v.validateTripleSet(fileProblemSet, doc.getFilename(), doc.getTriples()));
+          if (!retainDocuments) {
+            documentCache.invalidate(e.getPath().toString());
           }
-          String file = f.toString().substring(parentPath.length() + 1);
-          fileProblems.forEach(p -> problems.addProblem(file, p));
+          collector.complete(index, fileProblemSet);
         });
+        if (incrementalCache != null) {
+          incrementalCache.retain(manifest);
+        }
+      }
 
-    // validation: validateTripleSet
-    validators.forEach(v -> {
-      fileTripleSet.forEach((f, l) -> v.validateTripleSet(problems, f, l));
-      originFileTripleSet.forEach((f, l) -> v.validateOriginTripleSet(problems, f, l));
-      v.reportAdditionalProblem(problems);
-      v.close();
-    });
+      // validation: validateOriginTripleSet
+      if (originPath != null && !problems.isCancelled()) {
+        try (Profiler.Timer t = profiler.phase("validation.validateOriginTripleSet")) {
+          List<FileManifest.Entry> originEntries = documentCache.scan(originPath).getEntries();
+          OrderedProblemCollector collector = new OrderedProblemCollector(problems,
+              originEntries.size());
+          pool.forEachIndexed(originEntries, (e, index) -> {
+            if (problems.isCancelled()) {
+              collector.complete(index, null);
+              return;
+            }
+            RdfDocument doc = documentCache.get(e, false);
+            LintProblemSet fileProblemSet = new LintProblemSet();
+            scheduled.forEach(v -> v.validateOriginTripleSet(fileProblemSet,
+                doc.getFilename(), doc.getTriples()));
+            if (!retainDocuments) {
+              documentCache.invalidate(e.getPath().toString());
+            }
+            collector.complete(index, fileProblemSet);
+          });
+        }
+      }
+
+      // report all problems before close, so dependent validators can use outputs
+      try (Profiler.Timer t = profiler.phase("validation.reportAdditionalProblem")) {
+        if (!problems.isCancelled()) {
+          problems.addProblemSet(scheduler.run(pool, (v, p) -> v.reportAdditionalProblem(p)));
+        }
+        scheduler.run(pool, (v, p) -> v.close());
+      }
+    } finally {
+      documentCache.setWorkerPool(null);
+      documentCache.setRecordCallbacks(true);
+    }
+    sinkWriter.writeAll();
 
-    // suppress problems
-    LintProblemSet filtered = suppressProblems(problems, params.getSuppressPath());
+    if (problems.isCancelled() || problems.getDroppedSize() > 0) {
+      logger.warn(String.format("execute: limit of problems is reached, %d problems are dropped",
+          problems.getDroppedSize()));
+    }
 
     logger.trace("execute: out");
-    return filtered;
+    return problems;
   }
 
-  private Map<String, List<Triple>> loadFileTripleSet(String parentPath, String baseUri)
-      throws IOException {
-    return Files
-        .walk(Paths.get(parentPath))
-        .filter(e -> e.toString().endsWith(".rdf") || e.toString().endsWith(".ttl"))
-        .collect(Collectors.toMap(
-            e -> e.toString().substring(parentPath.length() + 1),
-            e -> {
-              Graph g = Factory.createGraphMem();
-              String filename = e.toString().substring(parentPath.length() + 1);
-              String subdir = filename.substring(0, filename.lastIndexOf(File.separator) + 1);
-              if (File.separatorChar == '\\') {
-                subdir = filename.replaceAll("\\\\", "/");
-              }
-              RDFParser.source(e.toString()).base(baseUri + subdir).parse(g);
-              List<Triple> lst = g.find().toList();
-              g.close();
-              return lst;
-            }
-        ));
+  /**
+   * return true if validator implements prepareValidationResource but not its streaming
+   * alternative subscribeValidationResource.
+   */
+  static boolean needsFileTripleSet(RdfValidator validator) {
+    Class<?> clz = DelegatingValidator.unwrap(validator).getClass();
+    try {
+      Class<?> prepare = clz.getMethod("prepareValidationResource", Map.class)
+          .getDeclaringClass();
+      Class<?> subscribe = clz.getMethod("subscribeValidationResource", String.class,
+          NodeDictionary.class).getDeclaringClass();
+      return prepare != AbstractRdfValidator.class
+          && (subscribe == RdfValidator.class || subscribe == AbstractRdfValidator.class);
+    } catch (NoSuchMethodException ex) {
+      return false;
+    }
   }
 
   /**
-   * suppress problems.
+   * return whether validator implements reportAdditionalProblem, seen through wrappers.
+   */
+  static boolean reportsAdditionalProblem(RdfValidator validator) {
+    Class<?> clz = DelegatingValidator.unwrap(validator).getClass();
+    try {
+      Class<?> report = clz.getMethod("reportAdditionalProblem", LintProblemSet.class)
+          .getDeclaringClass();
+      return report != RdfValidator.class && report != AbstractRdfValidator.class;
+    } catch (NoSuchMethodException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * writes problems collected in run to sink, each problem once. if held, files are written
+   * only by writeAll.
+   */
+  private static class SinkWriter {
+
+    private final LintProblemSet problems;
+    private final ProblemSink sink;
+    // number of written problems of each file
+    private final Map<String, Integer> written = new HashMap<>();
+    private final boolean held;
+
+    SinkWriter(LintProblemSet problems, ProblemSink sink, boolean held) {
+      this.problems = problems;
+      this.sink = sink;
+      this.held = held;
+    }
+
+    void write(String file) {
+      if (!held) {
+        writeFile(file);
+      }
+    }
+
+    private synchronized void writeFile(String file) {
+      List<LintProblem> lst = problems.getProblemSet().get(file);
+      if (sink == null || lst == null) {
+        return;
+      }
+      List<LintProblem> added;
+      synchronized (lst) {
+        int from = written.getOrDefault(file, 0);
+        if (lst.size() <= from) {
+          return;
+        }
+        added = new ArrayList<>(lst.subList(from, lst.size()));
+      }
+      written.merge(file, added.size(), Integer::sum);
+      sink.write(file, added);
+    }
+
+    void writeAll() {
+      problems.getProblemSet().keySet().forEach(this::writeFile);
+    }
+  }
+
+  /**
+   * suppress problems. suppress file is compiled once, and reloaded when it is changed.
    */
   public static LintProblemSet suppressProblems(LintProblemSet problemSet, String suppressPath)
       throws IOException {
@@ -169,71 +389,7 @@ public class ValidationRunner {
       logger.trace("suppressProblems: exit");
       return problemSet;
     }
-    Yaml yaml = new Yaml();
-    @SuppressWarnings("unchecked")
-    LinkedHashMap<String, List<LinkedHashMap<String, Object>>> suppressYaml = yaml.loadAs(
-        new InputStreamReader(
-            Files.newInputStream(Paths.get(new File(suppressPath).getCanonicalPath())),
-            StandardCharsets.UTF_8),
-        (Class<LinkedHashMap<String, List<LinkedHashMap<String, Object>>>>)
-            (Class<?>) LinkedHashMap.class // NOPMD
-    );
-    final LinkedHashMap<String, List<LinkedHashMap<String, Object>>> suppress
-        = suppressYaml == null ? new LinkedHashMap<>() : suppressYaml;
-
-    LintProblemSet filtered = new LintProblemSet();
-    problemSet.getProblemSet().forEach((f, l) -> {
-      String relativeUriPath = f;
-      if (File.separatorChar == '\\') {
-        relativeUriPath = relativeUriPath.replaceAll("\\\\", "/");
-      }
-      List<LinkedHashMap<String, Object>> filterList = suppress.get(relativeUriPath);
-      l.forEach(m -> {
-        if (filterList == null) {
-          filtered.addProblem(f, m);
-        } else {
-          boolean filter = filterList.stream().anyMatch(fm -> {
-            if (m.getKey().equals(fm.get("key"))) {
-              if (m.getLocation() != null) {
-                if (m.getLocation().getTriple() != null
-                    && m.getLocation().getTriple().getSubject().toString()
-                    .equals(fm.get("subject").toString())
-                    && m.getLocation().getTriple().getPredicate().toString()
-                    .equals(fm.get("predicate").toString())
-                    && m.getLocation().getTriple().getObject().toString()
-                    .equals(fm.get("object").toString())
-                ) {
-                  return true;
-                }
-                if (m.getLocation().getNode() != null
-                    && fm.get("node") != null
-                    && m.getLocation().getNode().toString().equals(fm.get("node").toString())) {
-                  return true;
-                }
-                if (m.getLocation().getBeginCol() > 0
-                    && fm.get("line") != null
-                    && fm.get("col") != null
-                    && m.getLocation().getBeginLine() == Integer.parseInt(fm.get("line").toString())
-                    && m.getLocation().getBeginCol() == Integer
-                    .parseInt(fm.get("col").toString())) {
-                  return true;
-                }
-                if (m.getLocation().getBeginLine() > 0
-                    && fm.get("line") != null
-                    && m.getLocation().getBeginLine() == Integer
-                    .parseInt(fm.get("line").toString())) {
-                  return true;
-                }
-              }
-            }
-            return false;
-          });
-          if (!filter) {
-            filtered.addProblem(f, m);
-          }
-        }
-      });
-    });
+    LintProblemSet filtered = SuppressionIndex.load(suppressPath).filter(problemSet);
 
     logger.trace("suppressProblems: out");
     return filtered;
@@ -0,0 +1,247 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import com.github.imas.rdflint.validator.RdfValidator;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.log4j.Logger;
+
+/**
+ * scheduler of dataset-level phases of validators. validators are grouped into stages by
+ * dependencies, validators in same stage run concurrently, and stages run in order.
+ * validators which are not thread-safe are wrapped, so their calls are serialized.
+ */
+class ValidatorScheduler {
+
+  private static final Logger logger = Logger.getLogger(ValidatorScheduler.class.getName());
+
+  private final List<List<RdfValidator>> stages = new LinkedList<>();
+  private final List<RdfValidator> validators = new LinkedList<>();
+
+  /**
+   * constructor. throws IllegalArgumentException if dependencies are cyclic.
+   */
+  ValidatorScheduler(List<RdfValidator> validators) {
+    Map<String, List<RdfValidator>> byName = new ConcurrentHashMap<>();
+    validators.forEach(v -> byName.computeIfAbsent(v.getValidatorName(), k -> new LinkedList<>())
+        .add(v));
+
+    Map<RdfValidator, Integer> depths = new IdentityHashMap<>();
+    for (RdfValidator v : validators) {
+      int depth = depth(v, byName, depths, new LinkedList<>());
+      while (stages.size() <= depth) {
+        stages.add(new LinkedList<>());
+      }
+      stages.get(depth).add(v.isThreadSafe() ? v : new SynchronizedValidator(v));
+    }
+    stages.forEach(this.validators::addAll);
+  }
+
+  // stage of validator, 1 + max stage of dependencies
+  private static int depth(RdfValidator v, Map<String, List<RdfValidator>> byName,
+      Map<RdfValidator, Integer> depths, List<String> path) {
+    Integer known = depths.get(v);
+    if (known != null) {
+      return known;
+    }
+    if (path.contains(v.getValidatorName())) {
+      path.add(v.getValidatorName());
+      throw new IllegalArgumentException("cyclic validator dependencies: "
+          + String.join(" -> ", path));
+    }
+    path.add(v.getValidatorName());
+    int depth = 0;
+    for (String name : v.getDependencies()) {
+      List<RdfValidator> deps = byName.get(name);
+      if (deps == null) {
+        logger.warn(String.format("validator %s depends on unknown validator %s",
+            v.getValidatorName(), name));
+        continue;
+      }
+      for (RdfValidator dep : deps) {
+        depth = Math.max(depth, depth(dep, byName, depths, path) + 1);
+      }
+    }
+    path.remove(path.size() - 1);
+    depths.put(v, depth);
+    return depth;
+  }
+
+  /**
+   * validators in order of stages, not thread-safe validators are wrapped.
+   */
+  List<RdfValidator> getValidators() {
+    return validators;
+  }
+
+  List<List<RdfValidator>> getStages() {
+    return stages;
+  }
+
+  /**
+   * run phase of all validators, stage by stage. problems are merged in order of validators.
+   */
+  LintProblemSet run(WorkerPool pool, BiConsumer<RdfValidator, LintProblemSet> phase) {
+    LintProblemSet problems = new LintProblemSet();
+    stages.forEach(stage -> pool.map(stage, v -> {
+      logger.trace(String.format("run: %s", v.getValidatorName()));
+      LintProblemSet validatorProblems = new LintProblemSet();
+      phase.accept(v, validatorProblems);
+      return validatorProblems;
+    }).forEach(problems::addProblemSet));
+    return problems;
+  }
+
+  /**
+   * validator wrapper which serializes calls to validator.
+   */
+  private static class SynchronizedValidator implements DelegatingValidator {
+
+    private final RdfValidator validator;
+
+    SynchronizedValidator(RdfValidator validator) {
+      this.validator = validator;
+    }
+
+    @Override
+    public RdfValidator getDelegate() {
+      return validator;
+    }
+
+    @Override
+    public String getValidatorName() {
+      return validator.getValidatorName();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+
+    @Override
+    public Set<String> getDependencies() {
+      return validator.getDependencies();
+    }
+
+    @Override
+    public void setParameters(RdfLintParameters params) {
+      synchronized (validator) {
+        validator.setParameters(params);
+      }
+    }
+
+    @Override
+    public void setDocumentCache(RdfDocumentCache documentCache) {
+      synchronized (validator) {
+        validator.setDocumentCache(documentCache);
+      }
+    }
+
+    @Override
+    public boolean isFileLocal() {
+      return validator.isFileLocal();
+    }
+
+    @Override
+    public void validateFile(LintProblemSet problems, String path, String parentPath) {
+      synchronized (validator) {
+        validator.validateFile(problems, path, parentPath);
+      }
+    }
+
+    @Override
+    public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+      synchronized (validator) {
+        validator.prepareValidationResource(fileTripleSet);
+      }
+    }
+
+    @Override
+    public TripleSet.IdConsumer subscribeValidationResource(String file,
+        NodeDictionary dictionary) {
+      TripleSet.IdConsumer subscriber;
+      synchronized (validator) {
+        subscriber = validator.subscribeValidationResource(file, dictionary);
+      }
+      if (subscriber == null) {
+        return null;
+      }
+      return (s, p, o) -> {
+        synchronized (validator) {
+          subscriber.accept(s, p, o);
+        }
+      };
+    }
+
+    @Override
+    public void completeValidationResource() {
+      synchronized (validator) {
+        validator.completeValidationResource();
+      }
+    }
+
+    @Override
+    public void validateTripleSet(LintProblemSet problems, String file,
+        List<Triple> tripeSet) {
+      synchronized (validator) {
+        validator.validateTripleSet(problems, file, tripeSet);
+      }
+    }
+
+    @Override
+    public void validateOriginTripleSet(LintProblemSet problems, String file,
+        List<Triple> tripeSet) {
+      synchronized (validator) {
+        validator.validateOriginTripleSet(problems, file, tripeSet);
+      }
+    }
+
+    @Override
+    public void reportAdditionalProblem(LintProblemSet problems) {
+      synchronized (validator) {
+        validator.reportAdditionalProblem(problems);
+      }
+    }
+
+    @Override
+    public void close() {
+      synchronized (validator) {
+        validator.close();
+      }
+    }
+
+    @Override
+    public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      synchronized (validator) {
+        return validator.validateTriple(subject, predicate, object,
+            beginLine, beginCol, endLine, endCol);
+      }
+    }
+
+    @Override
+    public List<LintProblem> validateTriple(String file, Node subject, Node predicate,
+        Node object, int beginLine, int beginCol, int endLine, int endCol) {
+      synchronized (validator) {
+        return validator.validateTriple(file, subject, predicate, object,
+            beginLine, beginCol, endLine, endCol);
+      }
+    }
+
+    @Override
+    public List<LintProblem> validateNode(Node node,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      synchronized (validator) {
+        return validator.validateNode(node, beginLine, beginCol, endLine, endCol);
+      }
+    }
+  }
+
+}
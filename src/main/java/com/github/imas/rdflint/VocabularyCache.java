@@ -0,0 +1,404 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import com.github.imas.rdflint.utils.FileBufferUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFParserBuilder;
+import org.apache.log4j.Logger;
+
+/**
+ * on-disk cache of vocabularies fetched by url. subject index, etag and last-modified of each
+ * vocabulary are stored under cache directory, reused until ttl is expired, and then
+ * revalidated by conditional request. stale entry is used if fetch fails, and only cached
+ * entries are used in offline mode.
+ */
+public class VocabularyCache {
+
+  private static final Logger logger = Logger.getLogger(VocabularyCache.class.getName());
+
+  static final long DEFAULT_TTL = 24 * 60 * 60;
+  static final int DEFAULT_TIMEOUT = 30;
+  private static final int FORMAT_VERSION = 1;
+  private static final int MAX_FETCH_THREADS = 4;
+  // redirects are followed manually, since http to https is not followed by connection
+  private static final int MAX_REDIRECTS = 5;
+  private static final String META_SUFFIX = ".meta";
+
+  private final Path dir;
+  private final long ttlMillis;
+  private final int timeoutMillis;
+  private final boolean offline;
+
+  /**
+   * constructor.
+   */
+  public VocabularyCache(Path dir, long ttlMillis, int timeoutMillis, boolean offline) {
+    this.dir = dir;
+    this.ttlMillis = ttlMillis;
+    this.timeoutMillis = timeoutMillis;
+    this.offline = offline;
+  }
+
+  /**
+   * cache of parameters. default directory is .rdflint/vocabulary under user home.
+   */
+  public static VocabularyCache of(RdfLintParameters params) {
+    String cacheDir = params.getVocabularyCacheDir();
+    Path dir = cacheDir != null ? Paths.get(cacheDir)
+        : Paths.get(System.getProperty("user.home"), ".rdflint", "vocabulary");
+    long ttl = params.getVocabularyTtl() > 0 ? params.getVocabularyTtl() : DEFAULT_TTL;
+    int timeout = params.getVocabularyTimeout() > 0
+        ? params.getVocabularyTimeout() : DEFAULT_TIMEOUT;
+    return new VocabularyCache(dir, ttl * 1000, timeout * 1000, params.isOffline());
+  }
+
+  // vocabulary to fetch
+  public static class Source {
+
+    private final String url;
+    private final String namespace;
+    private final Lang lang;
+
+    /**
+     * constructor.
+     */
+    public Source(String url, String namespace, Lang lang) {
+      this.url = url;
+      this.namespace = namespace;
+      this.lang = lang;
+    }
+
+    public String getUrl() {
+      return url;
+    }
+
+    public String getNamespace() {
+      return namespace;
+    }
+
+    String key() {
+      return url + " " + namespace + " " + lang.getName();
+    }
+  }
+
+  // cached entry
+  private static class Entry {
+
+    String etag;
+    String lastModified;
+    long fetchedAt;
+    VocabularySnapshot snapshot;
+  }
+
+  /**
+   * fetch vocabularies concurrently, each fetch is bounded by timeout.
+   * return snapshots in order of sources, null if not available.
+   */
+  public Map<Source, VocabularySnapshot> fetchAll(List<Source> sources) {
+    Map<Source, VocabularySnapshot> result = new LinkedHashMap<>();
+    if (sources.isEmpty()) {
+      return result;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(sources.size(), MAX_FETCH_THREADS));
+    try {
+      List<Future<VocabularySnapshot>> futures = new ArrayList<>();
+      sources.forEach(s -> futures.add(executor.submit(() -> fetch(s))));
+      // connect and read are bounded, this bounds slow transfers
+      long deadline = System.currentTimeMillis() + (long) timeoutMillis * 2
+          * ((sources.size() + MAX_FETCH_THREADS - 1) / MAX_FETCH_THREADS);
+      for (int i = 0; i < sources.size(); i++) {
+        Source source = sources.get(i);
+        VocabularySnapshot snapshot = null;
+        try {
+          snapshot = futures.get(i).get(
+              Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+          futures.get(i).cancel(true);
+          logger.warn(String.format("fetchAll: timeout %s", source.getUrl()));
+          Entry cached = readEntry(source);
+          snapshot = cached != null ? cached.snapshot : null;
+        } catch (ExecutionException ex) {
+          logger.warn(String.format("fetchAll: skip %s", source.getUrl()));
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        result.put(source, snapshot);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return result;
+  }
+
+  /**
+   * fetch vocabulary. cached one is used if it is fresh, not modified, or fetch fails.
+   */
+  public VocabularySnapshot fetch(Source source) {
+    logger.trace("fetch: in (url=" + source.getUrl() + ")");
+    if (!isHttp(source.getUrl())) {
+      // local vocabulary is not cached
+      try {
+        byte[] bytes = parse(RDFParser.source(source.getUrl()), source.lang, source);
+        return bytes != null ? VocabularySnapshot.of(ByteBuffer.wrap(bytes)) : null;
+      } catch (IOException ex) {
+        return null;
+      }
+    }
+    Entry cached = readEntry(source);
+    if (offline) {
+      if (cached == null) {
+        logger.warn(String.format("fetch: offline, not cached %s", source.getUrl()));
+        return null;
+      }
+      return cached.snapshot;
+    }
+    if (cached != null && System.currentTimeMillis() - cached.fetchedAt < ttlMillis) {
+      return cached.snapshot;
+    }
+
+    try {
+      HttpURLConnection conn = openConnection(source.getUrl(), source, cached);
+      try {
+        int status = conn.getResponseCode();
+        for (int hops = 0; isRedirect(status); hops++) {
+          String location = conn.getHeaderField("Location");
+          if (location == null || hops == MAX_REDIRECTS) {
+            throw new IOException("cannot follow redirect, status " + status);
+          }
+          String url = new URL(conn.getURL(), location).toString();
+          if (!isHttp(url)) {
+            throw new IOException("redirect to " + url);
+          }
+          conn.disconnect();
+          conn = openConnection(url, source, cached);
+          status = conn.getResponseCode();
+        }
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+          logger.trace("fetch: not modified");
+          cached.fetchedAt = System.currentTimeMillis();
+          writeMeta(source, cached);
+          return cached.snapshot;
+        }
+        if (status / 100 != 2) {
+          throw new IOException("status " + status);
+        }
+        byte[] body;
+        try (InputStream is = conn.getInputStream()) {
+          body = readAll(is);
+        }
+        Lang lang = contentLang(conn.getContentType(), source.lang);
+        byte[] bytes = parse(RDFParser.source(new ByteArrayInputStream(body)), lang, source);
+        if (bytes == null) {
+          throw new IOException("cannot parse");
+        }
+        Entry entry = new Entry();
+        entry.etag = conn.getHeaderField("ETag");
+        entry.lastModified = conn.getHeaderField("Last-Modified");
+        entry.fetchedAt = System.currentTimeMillis();
+        entry.snapshot = VocabularySnapshot.of(ByteBuffer.wrap(bytes));
+        writeEntry(source, entry, bytes);
+        return entry.snapshot;
+      } finally {
+        conn.disconnect();
+      }
+    } catch (IOException ex) {
+      if (cached != null) {
+        logger.warn(String.format("fetch: use stale cache of %s (%s)", source.getUrl(),
+            ex.getMessage()));
+        return cached.snapshot;
+      }
+      logger.warn(String.format("fetch: skip %s (%s)", source.getUrl(), ex.getMessage()));
+      return null;
+    }
+  }
+
+  // connection with conditional headers of cached entry, redirects are not followed
+  private HttpURLConnection openConnection(String url, Source source, Entry cached)
+      throws IOException {
+    HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+    conn.setInstanceFollowRedirects(false);
+    conn.setConnectTimeout(timeoutMillis);
+    conn.setReadTimeout(timeoutMillis);
+    conn.setRequestProperty("Accept", source.lang == Lang.RDFXML
+        ? "application/rdf+xml, text/turtle;q=0.9, */*;q=0.1"
+        : "text/turtle, application/rdf+xml;q=0.9, */*;q=0.1");
+    if (cached != null && cached.etag != null) {
+      conn.setRequestProperty("If-None-Match", cached.etag);
+    }
+    if (cached != null && cached.lastModified != null) {
+      conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+    }
+    return conn;
+  }
+
+  private static boolean isRedirect(int status) {
+    return status == HttpURLConnection.HTTP_MOVED_PERM
+        || status == HttpURLConnection.HTTP_MOVED_TEMP
+        || status == HttpURLConnection.HTTP_SEE_OTHER
+        || status == 307 || status == 308;
+  }
+
+  private static boolean isHttp(String url) {
+    return url.startsWith("http://") || url.startsWith("https://");
+  }
+
+  // language of content type, or hint for unspecific types
+  private static Lang contentLang(String contentType, Lang hint) {
+    if (contentType == null) {
+      return hint;
+    }
+    String type = contentType.split(";")[0].trim();
+    if ("text/plain".equals(type) || "application/octet-stream".equals(type)) {
+      return hint;
+    }
+    Lang lang = RDFLanguages.contentTypeToLang(type);
+    return lang != null ? lang : hint;
+  }
+
+  // built snapshot of vocabulary, null if fail to parse
+  private static byte[] parse(RDFParserBuilder builder, Lang lang, Source source)
+      throws IOException {
+    Collection<String> subjects = VocabularySnapshot.parseSubjects(builder,
+        source.getNamespace(), lang);
+    return subjects != null ? VocabularySnapshot.build(source.getNamespace(), subjects) : null;
+  }
+
+  private static byte[] readAll(InputStream is) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[8192];
+    int len;
+    while ((len = is.read(buf)) >= 0) {
+      out.write(buf, 0, len);
+    }
+    return out.toByteArray();
+  }
+
+  private Path entryPath(Source source, String suffix) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      byte[] digest = md.digest(source.key().getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder();
+      for (byte b : digest) {
+        sb.append(String.format("%02x", b));
+      }
+      return dir.resolve(sb.toString() + suffix);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private Entry readEntry(Source source) {
+    Path metaPath = entryPath(source, META_SUFFIX);
+    Path snapshotPath = entryPath(source, VocabularySnapshot.SUFFIX);
+    if (!Files.exists(metaPath) || !Files.exists(snapshotPath)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(metaPath)))) {
+      if (in.readInt() != FORMAT_VERSION || !source.key().equals(in.readUTF())) {
+        return null;
+      }
+      Entry entry = new Entry();
+      entry.etag = readString(in);
+      entry.lastModified = readString(in);
+      entry.fetchedAt = in.readLong();
+      entry.snapshot = VocabularySnapshot.of(FileBufferUtils.read(snapshotPath));
+      return entry;
+    } catch (IOException ex) {
+      logger.warn(String.format("readEntry: ignore broken cache of %s", source.getUrl()));
+      return null;
+    }
+  }
+
+  private void writeEntry(Source source, Entry entry, byte[] bytes) {
+    Path tmpPath = null;
+    try {
+      Files.createDirectories(dir);
+      tmpPath = Files.createTempFile(dir, "vocabulary", ".tmp");
+      Files.write(tmpPath, bytes);
+      Files.move(tmpPath, entryPath(source, VocabularySnapshot.SUFFIX),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      tmpPath = null;
+      writeMeta(source, entry);
+    } catch (IOException ex) {
+      logger.warn(String.format("writeEntry: cannot write cache of %s", source.getUrl()));
+      deleteQuietly(tmpPath);
+    }
+  }
+
+  private void writeMeta(Source source, Entry entry) {
+    Path tmpPath = null;
+    try {
+      Files.createDirectories(dir);
+      tmpPath = Files.createTempFile(dir, "vocabulary", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(source.key());
+        writeString(out, entry.etag);
+        writeString(out, entry.lastModified);
+        out.writeLong(entry.fetchedAt);
+      }
+      Files.move(tmpPath, entryPath(source, META_SUFFIX),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      logger.warn(String.format("writeMeta: cannot write cache of %s", source.getUrl()));
+      deleteQuietly(tmpPath);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null) {
+      out.writeUTF(s);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void deleteQuietly(Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      logger.trace(String.format("deleteQuietly: cannot delete (path=%s)", path));
+    }
+  }
+
+}
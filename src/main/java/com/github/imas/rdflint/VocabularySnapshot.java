@@ -0,0 +1,347 @@
+package com.github.imas.rdflint;
+
+import com.github.imas.rdflint.utils.FileBufferUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.TreeSet;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFParserBuilder;
+import org.apache.log4j.Logger;
+
+/**
+ * sorted and prefix-compressed subject iris of a vocabulary namespace, looked up by binary
+ * search without decoding whole snapshot. bundled vocabularies are precompiled at build time
+ * by precompileVocabulary task, and memory-mapped if snapshot is a plain file.
+ * concurrent lookups are safe.
+ */
+public final class VocabularySnapshot {
+
+  private static final Logger logger = Logger.getLogger(VocabularySnapshot.class.getName());
+
+  private static final int MAGIC = 0x52445653;
+  private static final int VERSION = 1;
+  private static final int BLOCK_SIZE = 16;
+  static final String SUFFIX = ".idx";
+
+  /**
+   * vocabularies bundled in resources, pair of namespace and resource name.
+   */
+  public static final String[][] BUNDLED = {
+      {"http://www.w3.org/1999/02/22-rdf-syntax-ns#", "rdf/org/w3/rdf-syntax-ns.ttl"},
+      {"http://www.w3.org/2000/01/rdf-schema#", "rdf/org/w3/rdf-schema.ttl"},
+      {"http://www.w3.org/ns/shacl#", "rdf/org/w3/shacl.ttl"},
+      {"http://schema.org/", "rdf/org/schema/11.01/schemaorg-all-http.ttl"},
+      {"http://xmlns.com/foaf/0.1/", "rdf/com/xmlns/foaf/20140114.rdf"},
+      {"http://purl.org/dc/elements/1.1/", "rdf/org/purl/dcelements.ttl"},
+  };
+
+  private final String namespace;
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int blockCount;
+  private final int offsetsStart;
+  private final int dataStart;
+
+  private VocabularySnapshot(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("invalid vocabulary snapshot");
+    }
+    int nsLength = buffer.getInt(8);
+    byte[] ns = new byte[nsLength];
+    ByteBuffer dup = buffer.duplicate();
+    dup.position(12);
+    dup.get(ns);
+    this.namespace = new String(ns, StandardCharsets.UTF_8);
+    int pos = 12 + nsLength;
+    this.size = buffer.getInt(pos);
+    this.blockCount = buffer.getInt(pos + 4);
+    this.offsetsStart = pos + 8;
+    this.dataStart = offsetsStart + blockCount * 4;
+  }
+
+  /**
+   * read snapshot from buffer.
+   */
+  public static VocabularySnapshot of(ByteBuffer buffer) throws IOException {
+    return new VocabularySnapshot(buffer);
+  }
+
+  /**
+   * load snapshot of bundled vocabulary. precompiled snapshot is used if exists,
+   * otherwise resource is parsed. return null if vocabulary is not available.
+   */
+  public static VocabularySnapshot loadBundled(String namespace, String resourceName) {
+    logger.trace("loadBundled: in (resource=" + resourceName + ")");
+    ClassLoader loader = VocabularySnapshot.class.getClassLoader();
+    URL url = loader.getResource(resourceName + SUFFIX);
+    try {
+      if (url != null) {
+        if ("file".equals(url.getProtocol())) {
+          return of(FileBufferUtils.read(Paths.get(url.toURI())));
+        }
+        try (InputStream is = url.openStream()) {
+          return of(ByteBuffer.wrap(readAll(is)));
+        }
+      }
+      logger.debug("loadBundled: no snapshot, parse " + resourceName);
+      InputStream is = loader.getResourceAsStream(resourceName);
+      if (is == null) {
+        return null;
+      }
+      try (InputStream in = is) {
+        Collection<String> subjects = parseSubjects(RDFParser.source(in), namespace,
+            langOf(resourceName));
+        return subjects != null ? of(ByteBuffer.wrap(build(namespace, subjects))) : null;
+      }
+    } catch (IOException | URISyntaxException ex) {
+      logger.warn(String.format("loadBundled: skip %s", resourceName));
+      return null;
+    }
+  }
+
+  private static byte[] readAll(InputStream is) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[8192];
+    int len;
+    while ((len = is.read(buf)) >= 0) {
+      out.write(buf, 0, len);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * rdf/xml if resource name ends with .rdf, otherwise turtle.
+   */
+  public static Lang langOf(String resourceName) {
+    return resourceName.endsWith(".rdf") ? Lang.RDFXML : Lang.TTL;
+  }
+
+  /**
+   * parse uri subjects of vocabulary. return null if fail to parse.
+   */
+  public static Collection<String> parseSubjects(RDFParserBuilder builder, String namespace,
+      Lang lang) {
+    Graph g = Factory.createGraphMem();
+    try {
+      builder.base(namespace).lang(lang).parse(g);
+      Collection<String> subjects = new ArrayList<>();
+      g.find().forEachRemaining(t -> {
+        if (t.getSubject().isURI()) {
+          subjects.add(t.getSubject().getURI());
+        }
+      });
+      return subjects;
+    } catch (Exception ex) {
+      logger.warn(String.format("parseSubjects: skip %s", namespace));
+    } finally {
+      g.close();
+    }
+    return null;
+  }
+
+  /**
+   * build snapshot of subjects. subjects outside of namespace are dropped.
+   */
+  public static byte[] build(String namespace, Collection<String> subjects) throws IOException {
+    // sort by utf-8 bytes, same order as lookup
+    TreeSet<byte[]> keys = new TreeSet<>(VocabularySnapshot::compare);
+    for (String s : subjects) {
+      if (s.startsWith(namespace)) {
+        keys.add(s.substring(namespace.length()).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    int blocks = (keys.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    int[] offsets = new int[blocks];
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    byte[] prev = null;
+    int i = 0;
+    for (byte[] key : keys) {
+      if (i % BLOCK_SIZE == 0) {
+        // first entry of block is stored whole
+        offsets[i / BLOCK_SIZE] = data.size();
+        writeVarint(data, key.length);
+        data.write(key, 0, key.length);
+      } else {
+        int shared = 0;
+        while (shared < prev.length && shared < key.length && prev[shared] == key[shared]) {
+          shared++;
+        }
+        writeVarint(data, shared);
+        writeVarint(data, key.length - shared);
+        data.write(key, shared, key.length - shared);
+      }
+      prev = key;
+      i++;
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      byte[] ns = namespace.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(ns.length);
+      out.write(ns);
+      out.writeInt(keys.size());
+      out.writeInt(blocks);
+      for (int offset : offsets) {
+        out.writeInt(offset);
+      }
+      data.writeTo(out);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, int value) {
+    int v = value;
+    while ((v & ~0x7f) != 0) {
+      out.write((v & 0x7f) | 0x80);
+      v >>>= 7;
+    }
+    out.write(v);
+  }
+
+  private static int compare(byte[] a, byte[] b) {
+    int len = Math.min(a.length, b.length);
+    for (int i = 0; i < len; i++) {
+      int c = (a[i] & 0xff) - (b[i] & 0xff);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return a.length - b.length;
+  }
+
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * return true if uri is subject of vocabulary.
+   */
+  public boolean contains(String uri) {
+    if (uri == null || !uri.startsWith(namespace) || size == 0) {
+      return false;
+    }
+    byte[] key = uri.substring(namespace.length()).getBytes(StandardCharsets.UTF_8);
+
+    // last block which first entry is not greater than key
+    int lo = 0;
+    int hi = blockCount - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (compareFirst(mid, key) <= 0) {
+        lo = mid;
+      } else {
+        hi = mid - 1;
+      }
+    }
+
+    // scan entries of block
+    int[] pos = {dataStart + buffer.getInt(offsetsStart + lo * 4)};
+    int entries = Math.min(BLOCK_SIZE, size - lo * BLOCK_SIZE);
+    byte[] entry = new byte[Math.max(64, key.length)];
+    int length = 0;
+    for (int i = 0; i < entries; i++) {
+      int shared = i == 0 ? 0 : readVarint(pos);
+      int suffix = readVarint(pos);
+      length = shared + suffix;
+      if (length > entry.length) {
+        byte[] grown = new byte[length * 2];
+        System.arraycopy(entry, 0, grown, 0, shared);
+        entry = grown;
+      }
+      for (int j = 0; j < suffix; j++) {
+        entry[shared + j] = buffer.get(pos[0] + j);
+      }
+      pos[0] += suffix;
+      int c = compare(entry, length, key);
+      if (c == 0) {
+        return true;
+      } else if (c > 0) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private int compareFirst(int block, byte[] key) {
+    int[] pos = {dataStart + buffer.getInt(offsetsStart + block * 4)};
+    int length = readVarint(pos);
+    int len = Math.min(length, key.length);
+    for (int i = 0; i < len; i++) {
+      int c = (buffer.get(pos[0] + i) & 0xff) - (key[i] & 0xff);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return length - key.length;
+  }
+
+  private static int compare(byte[] entry, int length, byte[] key) {
+    int len = Math.min(length, key.length);
+    for (int i = 0; i < len; i++) {
+      int c = (entry[i] & 0xff) - (key[i] & 0xff);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return length - key.length;
+  }
+
+  private int readVarint(int[] pos) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get(pos[0]++);
+      value |= (b & 0x7f) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  /**
+   * precompile bundled vocabularies. args are resource directory and output directory.
+   */
+  public static void main(String[] args) throws IOException {
+    Path resourceDir = Paths.get(args.length > 0 ? args[0] : "src/main/resources");
+    Path outputDir = Paths.get(args.length > 1 ? args[1] : "build/vocabulary");
+    for (String[] bundled : BUNDLED) {
+      String namespace = bundled[0];
+      String resourceName = bundled[1];
+      Collection<String> subjects;
+      try (InputStream is = Files.newInputStream(resourceDir.resolve(resourceName))) {
+        subjects = parseSubjects(RDFParser.source(is), namespace, langOf(resourceName));
+      }
+      if (subjects == null) {
+        throw new IOException("fail to parse " + resourceName);
+      }
+      Path output = outputDir.resolve(resourceName + SUFFIX);
+      Files.createDirectories(output.getParent());
+      byte[] snapshot = build(namespace, subjects);
+      Files.write(output, snapshot);
+      System.out.println(String.format("%s: %d subjects, %d bytes", // NOPMD
+          output, of(ByteBuffer.wrap(snapshot)).size(), snapshot.length));
+    }
+  }
+
+}
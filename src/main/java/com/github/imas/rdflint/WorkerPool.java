@@ -0,0 +1,79 @@
+package com.github.imas.rdflint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * work-stealing pool for per-file tasks. results are returned in input order, so problems
+ * are reported in same order as sequential run.
+ */
+public class WorkerPool implements AutoCloseable {
+
+  private final ForkJoinPool pool;
+
+  /**
+   * constructor. jobs less than 1 means number of available processors.
+   */
+  public WorkerPool(int jobs) {
+    int parallelism = jobs > 0 ? jobs : Runtime.getRuntime().availableProcessors();
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  public int getParallelism() {
+    return pool.getParallelism();
+  }
+
+  /**
+   * apply function to each item in parallel, and return results in input order.
+   */
+  public <T, R> List<R> map(List<T> items, Function<T, R> fn) {
+    if (pool.getParallelism() == 1 || items.size() <= 1) {
+      return items.stream().map(fn).collect(Collectors.toList());
+    }
+    try {
+      return pool.submit(() -> items.parallelStream().map(fn).collect(Collectors.toList()))
+          .get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  /**
+   * apply consumer to each item in parallel.
+   */
+  public <T> void forEach(List<T> items, Consumer<T> fn) {
+    map(items, t -> {
+      fn.accept(t);
+      return null;
+    });
+  }
+
+  /**
+   * apply consumer to each item and its index in parallel.
+   */
+  public <T> void forEachIndexed(List<T> items, ObjIntConsumer<T> fn) {
+    List<T> list = items instanceof RandomAccess ? items : new ArrayList<>(items);
+    forEach(IntStream.range(0, list.size()).boxed().collect(Collectors.toList()),
+        i -> fn.accept(list.get(i), i));
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+}
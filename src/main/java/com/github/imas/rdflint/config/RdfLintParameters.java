@@ -13,6 +13,18 @@ public class RdfLintParameters {
   private List<CustomRule> rules;
   private List<GenerationRule> generation;
   private Map<String, Object> validation;
+  private int jobs;
+  private boolean incremental;
+  private String storage;
+  private boolean profile;
+  private int maxProblems;
+  private int maxProblemsPerKey;
+  private boolean failFast;
+  private String minErrorLevel;
+  private boolean offline;
+  private String vocabularyCacheDir;
+  private int vocabularyTtl;
+  private int vocabularyTimeout;
 
   public String getTargetDir() {
     return targetDir;
@@ -78,6 +90,102 @@ public class RdfLintParameters {
     this.rules = rules;
   }
 
+  public int getJobs() {
+    return jobs;
+  }
+
+  public void setJobs(int jobs) {
+    this.jobs = jobs;
+  }
+
+  public boolean isIncremental() {
+    return incremental;
+  }
+
+  public void setIncremental(boolean incremental) {
+    this.incremental = incremental;
+  }
+
+  public String getStorage() {
+    return storage;
+  }
+
+  public void setStorage(String storage) {
+    this.storage = storage;
+  }
+
+  public boolean isProfile() {
+    return profile;
+  }
+
+  public void setProfile(boolean profile) {
+    this.profile = profile;
+  }
+
+  public int getMaxProblems() {
+    return maxProblems;
+  }
+
+  public void setMaxProblems(int maxProblems) {
+    this.maxProblems = maxProblems;
+  }
+
+  public int getMaxProblemsPerKey() {
+    return maxProblemsPerKey;
+  }
+
+  public void setMaxProblemsPerKey(int maxProblemsPerKey) {
+    this.maxProblemsPerKey = maxProblemsPerKey;
+  }
+
+  public boolean isFailFast() {
+    return failFast;
+  }
+
+  public void setFailFast(boolean failFast) {
+    this.failFast = failFast;
+  }
+
+  public String getMinErrorLevel() {
+    return minErrorLevel;
+  }
+
+  public void setMinErrorLevel(String minErrorLevel) {
+    this.minErrorLevel = minErrorLevel;
+  }
+
+  public boolean isOffline() {
+    return offline;
+  }
+
+  public void setOffline(boolean offline) {
+    this.offline = offline;
+  }
+
+  public String getVocabularyCacheDir() {
+    return vocabularyCacheDir;
+  }
+
+  public void setVocabularyCacheDir(String vocabularyCacheDir) {
+    this.vocabularyCacheDir = vocabularyCacheDir;
+  }
+
+  public int getVocabularyTtl() {
+    return vocabularyTtl;
+  }
+
+  public void setVocabularyTtl(int vocabularyTtl) {
+    this.vocabularyTtl = vocabularyTtl;
+  }
+
+  public int getVocabularyTimeout() {
+    return vocabularyTimeout;
+  }
+
+  public void setVocabularyTimeout(int vocabularyTimeout) {
+    this.vocabularyTimeout = vocabularyTimeout;
+  }
+
   public static void copyProperties(RdfLintParameters src, RdfLintParameters dst) {
     dst.setTargetDir(src.getTargetDir());
     dst.setOutputDir(src.getOutputDir());
@@ -87,5 +195,17 @@ public class RdfLintParameters {
     dst.setRules(src.getRules());
     dst.setGeneration(src.getGeneration());
     dst.setValidation(src.getValidation());
+    dst.setJobs(src.getJobs());
+    dst.setIncremental(src.isIncremental());
+    dst.setStorage(src.getStorage());
+    dst.setProfile(src.isProfile());
+    dst.setMaxProblems(src.getMaxProblems());
+    dst.setMaxProblemsPerKey(src.getMaxProblemsPerKey());
+    dst.setFailFast(src.isFailFast());
+    dst.setMinErrorLevel(src.getMinErrorLevel());
+    dst.setOffline(src.isOffline());
+    dst.setVocabularyCacheDir(src.getVocabularyCacheDir());
+    dst.setVocabularyTtl(src.getVocabularyTtl());
+    dst.setVocabularyTimeout(src.getVocabularyTimeout());
   }
 }
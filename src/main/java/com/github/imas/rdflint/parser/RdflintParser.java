@@ -5,10 +5,16 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import org.apache.jena.graph.Graph;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 
 public abstract class RdflintParser {
 
-  public abstract void parse(Graph g, List<LintProblem> problems);
+  public abstract void parse(StreamRDF sink, List<LintProblem> problems);
+
+  public void parse(Graph g, List<LintProblem> problems) {
+    parse(StreamRDFLib.graph(g), problems);
+  }
 
   public static RdflintParserBuilder create() {
     return RdflintParserBuilder.create();
@@ -1,20 +1,26 @@
 package com.github.imas.rdflint.parser;
 
 import com.github.imas.rdflint.LintProblem;
+import com.github.imas.rdflint.utils.FileBufferUtils;
 import com.github.imas.rdflint.validator.RdfValidator;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
 
 public class RdflintParserBuilder {
 
   private String body;
+  private ByteBuffer bytes;
   private String base;
   private Lang lang = Lang.RDFXML;
   private List<RdfValidator> validators;
@@ -24,17 +30,45 @@ public class RdflintParserBuilder {
   }
 
   /**
-   * Build RdflintParser from path.
+   * Build RdflintParser from path. parser reads bytes of file as is, large file is mapped.
+   * throws MalformedInputException if file is not valid UTF-8.
    */
   public RdflintParserBuilder source(Path path) throws IOException {
     this.lang = path.toString().endsWith(".ttl") ? Lang.TURTLE : Lang.RDFXML;
-    this.body = Files.lines(path, StandardCharsets.UTF_8)
-        .collect(Collectors.joining(System.getProperty("line.separator")));
+    ByteBuffer buffer = FileBufferUtils.read(path);
+    checkUtf8(buffer.duplicate());
+    this.bytes = buffer;
+    this.body = null;
     return this;
   }
 
+  // decode through small buffer, to detect malformed input without copy of whole text
+  private static void checkUtf8(ByteBuffer buffer) throws IOException {
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT);
+    CharBuffer chars = CharBuffer.allocate(8192);
+    CoderResult result;
+    do {
+      chars.clear();
+      result = decoder.decode(buffer, chars, true);
+      if (result.isError()) {
+        result.throwException();
+      }
+    } while (result.isOverflow());
+    chars.clear();
+    result = decoder.flush(chars);
+    if (result.isError()) {
+      result.throwException();
+    }
+  }
+
+  /**
+   * Build RdflintParser from text, e.g. editing buffer of language server.
+   */
   public RdflintParserBuilder fromString(String body) {
     this.body = body;
+    this.bytes = null;
     return this;
   }
 
@@ -60,6 +94,13 @@ public class RdflintParserBuilder {
     this.build().parse(g, problems);
   }
 
+  /**
+   * Parse Source and send triples to sink.
+   */
+  public void parse(StreamRDF sink, List<LintProblem> problems) {
+    this.build().parse(sink, problems);
+  }
+
   /**
    * Build RdfLintParser by lang format.
    */
@@ -69,10 +110,12 @@ public class RdflintParserBuilder {
       this.validators = new LinkedList<>();
     }
     // build parser
+    ByteBuffer source = this.bytes != null
+        ? this.bytes.duplicate() : ByteBuffer.wrap(this.body.getBytes(StandardCharsets.UTF_8));
     if (this.lang == Lang.RDFXML) {
-      return new RdflintParserRdfxml(this.body, this.validators, this.base);
+      return new RdflintParserRdfxml(source, this.validators, this.base);
     }
-    return new RdflintParserTurtle(this.body, this.validators);
+    return new RdflintParserTurtle(source, this.validators, this.base);
   }
 
 }
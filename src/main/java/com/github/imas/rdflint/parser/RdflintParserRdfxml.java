@@ -3,10 +3,10 @@ package com.github.imas.rdflint.parser;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblemLocation;
 import com.github.imas.rdflint.validator.RdfValidator;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.List;
@@ -17,7 +17,6 @@ import org.apache.jena.atlas.logging.Log;
 import org.apache.jena.atlas.web.ContentType;
 import org.apache.jena.datatypes.RDFDatatype;
 import org.apache.jena.datatypes.TypeMapper;
-import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
@@ -40,7 +39,6 @@ import org.apache.jena.riot.lang.ReaderRIOTRDFXML;
 import org.apache.jena.riot.system.ErrorHandler;
 import org.apache.jena.riot.system.IRIResolver;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.sparql.util.Context;
 import org.apache.log4j.Logger;
 import org.xml.sax.SAXException;
@@ -50,7 +48,7 @@ public class RdflintParserRdfxml extends RdflintParser {
 
   private static final Logger logger = Logger.getLogger(RdflintParserRdfxml.class.getName());
 
-  String text;
+  ByteBuffer source;
   List<RdfValidator> validators;
   String baseUri;
 
@@ -58,14 +56,22 @@ public class RdflintParserRdfxml extends RdflintParser {
    * constructor.
    */
   public RdflintParserRdfxml(String text, List<RdfValidator> validators, String baseUri) {
+    this(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), validators, baseUri);
+  }
+
+  /**
+   * constructor, with UTF-8 bytes of source.
+   */
+  public RdflintParserRdfxml(ByteBuffer source, List<RdfValidator> validators,
+      String baseUri) {
     super();
-    this.text = text;
+    this.source = source;
     this.baseUri = baseUri;
     this.validators = validators;
   }
 
   @Override
-  public void parse(Graph g, List<LintProblem> problems) {
+  public void parse(StreamRDF sink, List<LintProblem> problems) {
     // validation
     Context context = new Context();
 
@@ -75,9 +81,9 @@ public class RdflintParserRdfxml extends RdflintParser {
         this.validators);
 
     ContentType ct = Lang.RDFXML.getContentType();
-    InputStream validateIn = new ByteArrayInputStream(this.text.getBytes(StandardCharsets.UTF_8));
+    InputStream validateIn = new ByteBufferInputStream(this.source.duplicate());
     try {
-      reader.read(validateIn, baseUri, ct, StreamRDFLib.graph(g), context);
+      reader.read(validateIn, baseUri, ct, sink, context);
 
       if (!parseProblemList.isEmpty()) {
         problems.addAll(parseProblemList);
@@ -3,16 +3,14 @@ package com.github.imas.rdflint.parser;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblemLocation;
 import com.github.imas.rdflint.validator.RdfValidator;
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.jena.atlas.web.ContentType;
-import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
-import org.apache.jena.query.ARQ;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFParserRegistry;
 import org.apache.jena.riot.ReaderRIOT;
@@ -25,7 +23,7 @@ import org.apache.jena.riot.system.ParserProfileStd;
 import org.apache.jena.riot.system.PrefixMap;
 import org.apache.jena.riot.system.PrefixMapFactory;
 import org.apache.jena.riot.system.RiotLib;
-import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.tokens.Token;
 import org.apache.jena.riot.tokens.TokenType;
 import org.apache.jena.sparql.util.Context;
@@ -61,64 +59,63 @@ public class RdflintParserTurtle extends RdflintParser {
       return super.createTriple(subject, predicate, object, line, col);
     }
 
-    private String expandPrefixedName(String prefix, String localPart) {
-      String expansion = getPrefixMap().expand(prefix, localPart);
-      if (expansion == null) {
-        if (ARQ.isTrue(ARQ.fixupUndefinedPrefixes)) {
-          return RiotLib.fixupPrefixIRI(prefix, localPart);
-        }
-      }
-      return expansion;
-    }
-
     @Override
     public Node create(Node currentGraph, Token token) {
+      Node created = super.create(currentGraph, token);
+      if (token.getType() != TokenType.PREFIXED_NAME && token.getType() != TokenType.IRI) {
+        return created;
+      }
+      // node is resolved once by profile, and shared by all validators
       int line = (int) token.getLine();
       int col = (int) token.getColumn();
-      String str = token.getImage();
-      validationModels.forEach(m -> {
-        Node node = null;
-        int length = 0;
-        if (token.getType() == TokenType.PREFIXED_NAME) {
-          String prefix = str;
-          String suffix = token.getImage2();
-          String expansion = expandPrefixedName(prefix, suffix);
-          node = createURI(expansion, line, col);
-          length = str.length() + suffix.length();
-        } else if (token.getType() == TokenType.IRI) {
-          node = createURI(str, line, col);
-          length = str.length();
-        }
-        if (node != null) {
-          List<LintProblem> diagnostic = m
-              .validateNode(node, line, col, line, col + length);
-          diagnosticList.addAll(diagnostic);
-        }
-      });
-      return super.create(currentGraph, token);
+      int length = token.getImage().length();
+      if (token.getType() == TokenType.PREFIXED_NAME) {
+        length += token.getImage2().length();
+      }
+      for (RdfValidator m : validationModels) {
+        diagnosticList.addAll(m.validateNode(created, line, col, line, col + length));
+      }
+      return created;
     }
   }
 
-  String text;
+  ByteBuffer source;
   List<RdfValidator> validators;
+  String baseUri;
 
   /**
    * constructor.
    */
   public RdflintParserTurtle(String text, List<RdfValidator> validators) {
+    this(text, validators, null);
+  }
+
+  /**
+   * constructor.
+   */
+  public RdflintParserTurtle(String text, List<RdfValidator> validators, String baseUri) {
+    this(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), validators, baseUri);
+  }
+
+  /**
+   * constructor, with UTF-8 bytes of source.
+   */
+  public RdflintParserTurtle(ByteBuffer source, List<RdfValidator> validators,
+      String baseUri) {
     super();
-    this.text = text;
+    this.source = source;
     this.validators = validators;
+    this.baseUri = baseUri;
   }
 
   @Override
-  public void parse(Graph g, List<LintProblem> problems) {
+  public void parse(StreamRDF sink, List<LintProblem> problems) {
     List<LintProblem> diagnosticList = new LinkedList<>();
     List<LintProblem> diagnosticErrorList = new LinkedList<>();
     try {
       // validation
       FactoryRDF factory = RiotLib.factoryRDF();
-      IRIResolver resolver = IRIResolver.create();
+      IRIResolver resolver = baseUri != null ? IRIResolver.create(baseUri) : IRIResolver.create();
       PrefixMap prefixMap = PrefixMapFactory.createForInput();
       Context context = new Context();
       boolean checking = true;
@@ -137,8 +134,8 @@ public class RdflintParserTurtle extends RdflintParser {
       ReaderRIOTFactory r = RDFParserRegistry.getFactory(Lang.TURTLE);
       ReaderRIOT reader = r.create(Lang.TURTLE, profile);
       ContentType ct = Lang.TURTLE.getContentType();
-      InputStream validateIn = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
-      reader.read(validateIn, null, ct, StreamRDFLib.graph(g), context);
+      InputStream validateIn = new ByteBufferInputStream(source.duplicate());
+      reader.read(validateIn, null, ct, sink, context);
 
       if (!diagnosticErrorList.isEmpty()) {
         problems.addAll(diagnosticErrorList);
@@ -1,12 +1,5 @@
 package com.github.imas.rdflint.utils;
 
-import java.lang.Character.UnicodeBlock;
-import java.nio.charset.Charset;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 public class DataTypeUtils {
 
   public enum DataType {
@@ -16,19 +9,103 @@ public class DataTypeUtils {
     NATURAL
   }
 
-  private static final String REGEX_NATURAL = "\\d+";
-  private static final String REGEX_INTEGER = "[+-]?\\d+";
-  private static final String REGEX_FLOAT = "[+-]?\\d+(\\.\\d+)?";
+  // flags of classify, string matches [0-9]+, [+-]?[0-9]+, [+-]?[0-9]+(\.[0-9]+)?
+  public static final int NATURAL = 1;
+  public static final int INTEGER = 1 << 1;
+  public static final int FLOAT = 1 << 2;
+  // flags of classify, all chars are ascii, katakana, hiragana
+  public static final int ASCII = 1 << 3;
+  public static final int KATAKANA = 1 << 4;
+  public static final int HIRAGANA = 1 << 5;
+
+  // states of number scan
+  private static final int NUM_START = 0;
+  private static final int NUM_SIGN = 1;
+  private static final int NUM_INT = 2;
+  private static final int NUM_DOT = 3;
+  private static final int NUM_FRAC = 4;
+  private static final int NUM_NONE = 5;
+
+  /**
+   * classify string by one scan without allocation, return flags of number types and scripts.
+   */
+  public static int classify(String s) {
+    int num = NUM_START;
+    boolean signed = false;
+    boolean ascii = true;
+    boolean kana = true;
+    boolean hira = true;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      boolean digit = c >= '0' && c <= '9';
+      switch (num) {
+        case NUM_START:
+          if (c == '+' || c == '-') {
+            signed = true;
+            num = NUM_SIGN;
+          } else {
+            num = digit ? NUM_INT : NUM_NONE;
+          }
+          break;
+        case NUM_SIGN:
+          num = digit ? NUM_INT : NUM_NONE;
+          break;
+        case NUM_INT:
+          num = digit ? NUM_INT : c == '.' ? NUM_DOT : NUM_NONE;
+          break;
+        case NUM_DOT:
+        case NUM_FRAC:
+          num = digit ? NUM_FRAC : NUM_NONE;
+          break;
+        default:
+          break;
+      }
+      if (c >= 0x80) {
+        ascii = false;
+        // miscellaneous symbols block is allowed in both kana
+        boolean symbol = c >= 0x2600 && c <= 0x26ff;
+        kana = kana && (symbol || c >= 0x30a0 && c <= 0x30ff);
+        hira = hira && (symbol || c >= 0x3040 && c <= 0x309f || c == '・' || c == 'ー');
+      } else {
+        kana = false;
+        hira = false;
+      }
+    }
+
+    int flags = 0;
+    if (num == NUM_INT) {
+      flags |= signed ? INTEGER | FLOAT : NATURAL | INTEGER | FLOAT;
+    } else if (num == NUM_FRAC) {
+      flags |= FLOAT;
+    }
+    if (ascii) {
+      flags |= ASCII;
+    }
+    if (kana) {
+      flags |= KATAKANA;
+    }
+    if (hira) {
+      flags |= HIRAGANA;
+    }
+    return flags;
+  }
 
   /**
    * guess datatype from string.
    */
   public static DataType guessDataType(String s) {
-    if (s.matches(REGEX_NATURAL)) {
+    return dataTypeOf(classify(s));
+  }
+
+  /**
+   * datatype of flags of classify.
+   */
+  public static DataType dataTypeOf(int flags) {
+    if ((flags & NATURAL) != 0) {
       return DataType.NATURAL;
-    } else if (s.matches(REGEX_INTEGER)) {
+    } else if ((flags & INTEGER) != 0) {
       return DataType.INTEGER;
-    } else if (s.matches(REGEX_FLOAT)) {
+    } else if ((flags & FLOAT) != 0) {
       return DataType.FLOAT;
     }
     return DataType.STRING;
@@ -52,55 +129,34 @@ public class DataTypeUtils {
     return true;
   }
 
-  private static Map<String, List<UnicodeBlock>> langCodeBlocks = new ConcurrentHashMap<>();
-  private static List<Character> jaHiraIgnores = Arrays.asList('・', 'ー');
-
-  static {
-    langCodeBlocks.put("ja-kana", Arrays.asList(
-        UnicodeBlock.KATAKANA, UnicodeBlock.MISCELLANEOUS_SYMBOLS));
-    langCodeBlocks.put("ja-hira", Arrays.asList(
-        UnicodeBlock.HIRAGANA, UnicodeBlock.MISCELLANEOUS_SYMBOLS));
-  }
-
   /**
    * check language.
    */
   public static boolean isLang(String str, String lang) {
-    String[] langs = lang.split("-");
+    return isLang(classify(str), lang);
+  }
 
-    switch (langs[0]) {
-      case "en":
-        return str.equals(
-            new String(str.getBytes(Charset.forName("US-ASCII")), Charset.forName("US-ASCII")));
-      case "ja":
-        if (langs.length > 1) {
-          switch (langs[1]) {
-            case "Kana":
-            case "kana":
-              for (char c : str.toCharArray()) {
-                if (!langCodeBlocks.get("ja-kana").contains(Character.UnicodeBlock.of(c))) {
-                  return false;
-                }
-              }
-              return true;
-            case "Hira":
-            case "hira":
-              for (char c : str.toCharArray()) {
-                if (!langCodeBlocks.get("ja-hira").contains(Character.UnicodeBlock.of(c))
-                    && !jaHiraIgnores.contains(c)) {
-                  return false;
-                }
-              }
-              return true;
-            default:
-              break;
-          }
-        }
-        return true;
-      default:
-        break;
+  /**
+   * check language by flags of classify.
+   */
+  public static boolean isLang(int flags, String lang) {
+    if (isSubtag(lang, 0, "en")) {
+      return (flags & ASCII) != 0;
+    } else if (isSubtag(lang, 0, "ja")) {
+      if (isSubtag(lang, 3, "Kana") || isSubtag(lang, 3, "kana")) {
+        return (flags & KATAKANA) != 0;
+      } else if (isSubtag(lang, 3, "Hira") || isSubtag(lang, 3, "hira")) {
+        return (flags & HIRAGANA) != 0;
+      }
     }
     return true;
   }
 
+  // true if subtag of lang from offset is name
+  private static boolean isSubtag(String lang, int offset, String name) {
+    int end = offset + name.length();
+    return lang.regionMatches(offset, name, 0, name.length())
+        && (lang.length() == end || lang.charAt(end) == '-');
+  }
+
 }
@@ -0,0 +1,32 @@
+package com.github.imas.rdflint.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FileBufferUtils {
+
+  // files larger than this are memory-mapped, smaller ones are read into heap
+  private static final long MAP_THRESHOLD = 1024 * 1024;
+
+  /**
+   * read whole file as byte buffer. large file is memory-mapped instead of copied.
+   */
+  public static ByteBuffer read(Path path) throws IOException {
+    try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = ch.size();
+      if (size > MAP_THRESHOLD) {
+        return ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && ch.read(buffer) >= 0) {
+        // read all
+      }
+      buffer.flip();
+      return buffer;
+    }
+  }
+
+}
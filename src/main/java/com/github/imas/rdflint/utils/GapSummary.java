@@ -0,0 +1,175 @@
+package com.github.imas.rdflint.utils;
+
+import java.util.Arrays;
+
+/**
+ * mergeable streaming summary of numeric values for gap based outlier test.
+ * values are kept as sorted clusters of min, max and count. while distinct values fit in
+ * capacity, clusters are exact values. beyond capacity, adjacent clusters of smallest gaps
+ * are merged, so gaps between clusters stay exact, and gaps inside are bounded by mergedSpan.
+ * not thread-safe, summaries of files are built separately and merged.
+ */
+public final class GapSummary {
+
+  private static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private final int capacity;
+
+  // values not merged into clusters yet
+  private double[] buffer = new double[16];
+  private int bufferSize;
+
+  // clusters sorted by min, not overlapped
+  double[] mins = new double[0];
+  double[] maxs = new double[0];
+  long[] counts = new long[0];
+  int clusterCount;
+
+  // number of values
+  private long count;
+  // max gap merged into clusters, 0 while exact
+  double mergedSpan;
+
+  public GapSummary() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * constructor. capacity is max number of clusters.
+   */
+  public GapSummary(int capacity) {
+    this.capacity = Math.max(capacity, 16);
+  }
+
+  /**
+   * add value.
+   */
+  public void add(double value) {
+    if (bufferSize == buffer.length) {
+      if (buffer.length < capacity) {
+        buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, capacity));
+      } else {
+        flush();
+      }
+    }
+    // -0.0 is same value as 0.0
+    buffer[bufferSize++] = value + 0.0;
+    count++;
+  }
+
+  /**
+   * merge values of other summary.
+   */
+  public void merge(GapSummary other) {
+    other.flush();
+    flush();
+    mergeClusters(other.mins, other.maxs, other.counts, other.clusterCount);
+    count += other.count;
+    mergedSpan = Math.max(mergedSpan, other.mergedSpan);
+    compact();
+  }
+
+  public long count() {
+    return count;
+  }
+
+  /**
+   * return true if clusters are exact values.
+   */
+  public boolean isExact() {
+    flush();
+    return mergedSpan == 0.0;
+  }
+
+  /**
+   * merge buffered values into clusters.
+   */
+  void flush() {
+    if (bufferSize == 0) {
+      return;
+    }
+    Arrays.sort(buffer, 0, bufferSize);
+    int size = 0;
+    long[] bufferCounts = new long[bufferSize];
+    for (int i = 0; i < bufferSize; i++) {
+      if (size > 0 && buffer[size - 1] == buffer[i]) {
+        bufferCounts[size - 1]++;
+      } else {
+        buffer[size] = buffer[i];
+        bufferCounts[size++] = 1;
+      }
+    }
+    mergeClusters(buffer, buffer, bufferCounts, size);
+    bufferSize = 0;
+    compact();
+  }
+
+  // merge sorted clusters, overlapped clusters are combined
+  private void mergeClusters(double[] otherMins, double[] otherMaxs, long[] otherCounts,
+      int otherCount) {
+    int total = clusterCount + otherCount;
+    double[] newMins = new double[total];
+    double[] newMaxs = new double[total];
+    long[] newCounts = new long[total];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < clusterCount || j < otherCount) {
+      double min;
+      double max;
+      long cnt;
+      if (j >= otherCount || i < clusterCount && mins[i] <= otherMins[j]) {
+        min = mins[i];
+        max = maxs[i];
+        cnt = counts[i++];
+      } else {
+        min = otherMins[j];
+        max = otherMaxs[j];
+        cnt = otherCounts[j++];
+      }
+      if (size > 0 && min <= newMaxs[size - 1]) {
+        // gaps inside combined cluster are not larger than gaps inside each cluster
+        newMaxs[size - 1] = Math.max(newMaxs[size - 1], max);
+        newCounts[size - 1] += cnt;
+      } else {
+        newMins[size] = min;
+        newMaxs[size] = max;
+        newCounts[size++] = cnt;
+      }
+    }
+    mins = newMins;
+    maxs = newMaxs;
+    counts = newCounts;
+    clusterCount = size;
+  }
+
+  // merge clusters of smallest gaps, until clusters are half of capacity
+  private void compact() {
+    if (clusterCount <= capacity) {
+      return;
+    }
+    int merges = clusterCount - capacity / 2;
+    double[] gaps = new double[clusterCount - 1];
+    for (int i = 0; i < gaps.length; i++) {
+      gaps[i] = mins[i + 1] - maxs[i];
+    }
+    double[] sorted = Arrays.copyOf(gaps, gaps.length);
+    Arrays.sort(sorted);
+    double threshold = sorted[merges - 1];
+
+    int size = 1;
+    for (int i = 1; i < clusterCount; i++) {
+      if (gaps[i - 1] <= threshold) {
+        maxs[size - 1] = maxs[i];
+        counts[size - 1] += counts[i];
+      } else {
+        mins[size] = mins[i];
+        maxs[size] = maxs[i];
+        counts[size++] = counts[i];
+      }
+    }
+    clusterCount = size;
+    mergedSpan = Math.max(mergedSpan, threshold);
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.github.imas.rdflint.utils;
+
+public class JsonUtils {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * quote string as json string literal. quotes, backslashes and control characters are escaped.
+   */
+  public static String quote(String s) {
+    StringBuilder sb = new StringBuilder(s.length() + 2);
+    sb.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.github.imas.rdflint.utils;
+
+import com.github.imas.rdflint.utils.DataTypeUtils.DataType;
+
+/**
+ * classifier of literal strings, memoized per string in direct mapped cache.
+ * one instance is used for a run, concurrent calls are safe.
+ */
+public final class LiteralClassifier {
+
+  private static final int CACHE_SIZE = 1 << 14;
+
+  // direct mapped cache of classify, entries are immutable so racy update is safe
+  private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+
+  // immutable entry of classify cache
+  private static class CacheEntry {
+
+    final String value;
+    final int flags;
+
+    CacheEntry(String value, int flags) {
+      this.value = value;
+      this.flags = flags;
+    }
+  }
+
+  /**
+   * flags of DataTypeUtils.classify.
+   */
+  public int classify(String value) {
+    int slot = value.hashCode() & (CACHE_SIZE - 1);
+    CacheEntry cached = cache[slot];
+    if (cached != null && cached.value.equals(value)) {
+      return cached.flags;
+    }
+    int flags = DataTypeUtils.classify(value);
+    cache[slot] = new CacheEntry(value, flags);
+    return flags;
+  }
+
+  public DataType guessDataType(String value) {
+    return DataTypeUtils.dataTypeOf(classify(value));
+  }
+
+  public boolean isLang(String value, String lang) {
+    return DataTypeUtils.isLang(classify(value), lang);
+  }
+
+}
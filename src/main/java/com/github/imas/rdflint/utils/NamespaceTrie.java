@@ -0,0 +1,95 @@
+package com.github.imas.rdflint.utils;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * prefix trie of namespaces. all namespaces which are prefix of a string are found
+ * in one walk over the string. build before lookups, concurrent lookups are safe.
+ */
+public final class NamespaceTrie<T> {
+
+  private static final class Node<T> {
+
+    // sorted chars of children
+    char[] keys = new char[0];
+    Node<T>[] children = newArray(0);
+    T value;
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newArray(int size) {
+      return (Node<T>[]) new Node<?>[size];
+    }
+
+    Node<T> child(char c) {
+      int idx = Arrays.binarySearch(keys, c);
+      return idx >= 0 ? children[idx] : null;
+    }
+
+    Node<T> addChild(char c) {
+      int idx = Arrays.binarySearch(keys, c);
+      if (idx >= 0) {
+        return children[idx];
+      }
+      int ins = -idx - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node<T>[] newChildren = newArray(children.length + 1);
+      System.arraycopy(keys, 0, newKeys, 0, ins);
+      System.arraycopy(children, 0, newChildren, 0, ins);
+      System.arraycopy(keys, ins, newKeys, ins + 1, keys.length - ins);
+      System.arraycopy(children, ins, newChildren, ins + 1, children.length - ins);
+      newKeys[ins] = c;
+      newChildren[ins] = new Node<>();
+      keys = newKeys;
+      children = newChildren;
+      return newChildren[ins];
+    }
+  }
+
+  private final Node<T> root = new Node<>();
+  private int size;
+
+  /**
+   * register value of namespace, replace value of same namespace.
+   */
+  public void put(String namespace, T value) {
+    Node<T> node = root;
+    for (int i = 0; i < namespace.length(); i++) {
+      node = node.addChild(namespace.charAt(i));
+    }
+    if (node.value == null) {
+      size++;
+    }
+    node.value = value;
+  }
+
+  /**
+   * return true if predicate holds for any value of namespace which is prefix of s.
+   * shorter namespace is tested first.
+   */
+  public boolean anyPrefix(String s, Predicate<T> predicate) {
+    Node<T> node = root;
+    if (node.value != null && predicate.test(node.value)) {
+      return true;
+    }
+    for (int i = 0; i < s.length(); i++) {
+      node = node.child(s.charAt(i));
+      if (node == null) {
+        return false;
+      }
+      if (node.value != null && predicate.test(node.value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+}
@@ -47,4 +47,82 @@ public class StatsTestUtils {
     return new double[]{};
   }
 
+  /**
+   * compute outlier values by hierarchical clustering, from summary of values.
+   * same result as sorted values while summary is exact. otherwise spans inside clusters are
+   * taken as their upper bound, so outlier is reported only if it is also outlier of values.
+   */
+  public static double[] clusteringOutlierTest(GapSummary summary, double alpha,
+      int targetSize) {
+    summary.flush();
+    long n = summary.count();
+    if (n < 3 || n < targetSize) {
+      return new double[]{};
+    }
+    int k = summary.clusterCount;
+    double[] mins = summary.mins;
+    double[] maxs = summary.maxs;
+    long[] counts = summary.counts;
+
+    // three largest spans, in ascending order
+    double[] maxSpans = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.NEGATIVE_INFINITY};
+    for (int i = 0; i < k; i++) {
+      double inner = Math.min(maxs[i] - mins[i], summary.mergedSpan);
+      for (long c = Math.min(counts[i] - 1, 3); c > 0; c--) {
+        pushSpan(maxSpans, inner);
+      }
+      if (i + 1 < k) {
+        pushSpan(maxSpans, mins[i + 1] - maxs[i]);
+      }
+    }
+    if (maxSpans[1] == 0.0) {
+      return new double[]{};
+    }
+
+    // test max, min. span at end is known if value at end is single
+    if (counts[0] == 1 && maxSpans[2] == mins[1] - maxs[0]
+        && maxSpans[1] * alpha < maxSpans[2]) {
+      return new double[]{mins[0]};
+    }
+    if (counts[k - 1] == 1 && maxSpans[2] == mins[k - 1] - maxs[k - 2]
+        && maxSpans[1] * alpha < maxSpans[2]) {
+      return new double[]{maxs[k - 1]};
+    }
+
+    // test intermediate, value of index from 2 to n - 3 between two largest spans
+    double[] neighborSpan = new double[2];
+    long index = counts[0];
+    for (int i = 1; i < k - 1; i++) {
+      if (counts[i] == 1 && index >= 2 && index <= n - 3) {
+        neighborSpan[0] = mins[i] - maxs[i - 1];
+        neighborSpan[1] = mins[i + 1] - maxs[i];
+        Arrays.sort(neighborSpan);
+        if (neighborSpan[0] == maxSpans[1] && neighborSpan[1] == maxSpans[2]
+            && maxSpans[0] * alpha < maxSpans[1]) {
+          return new double[]{mins[i]};
+        }
+      }
+      index += counts[i];
+    }
+
+    return new double[]{};
+  }
+
+  private static void pushSpan(double[] maxSpans, double span) {
+    if (span <= maxSpans[0]) {
+      return;
+    }
+    if (span <= maxSpans[1]) {
+      maxSpans[0] = span;
+    } else if (span <= maxSpans[2]) {
+      maxSpans[0] = maxSpans[1];
+      maxSpans[1] = span;
+    } else {
+      maxSpans[0] = maxSpans[1];
+      maxSpans[1] = maxSpans[2];
+      maxSpans[2] = span;
+    }
+  }
+
 }
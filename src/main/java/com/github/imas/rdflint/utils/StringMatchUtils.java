@@ -1,7 +1,14 @@
 package com.github.imas.rdflint.utils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
 public class StringMatchUtils {
 
+  // wildcard -> compiled pattern
+  private static final Map<String, Pattern> wildcardCache = new ConcurrentHashMap<>();
+
   /**
    * match by wildcard.
    */
@@ -9,7 +16,14 @@ public class StringMatchUtils {
     if (target == null || wildcard == null) {
       return false;
     }
-    String regex = wildcard
+    return compileWildcard(wildcard).matcher(target).matches();
+  }
+
+  /**
+   * compile wildcard to pattern. compiled pattern is cached.
+   */
+  public static Pattern compileWildcard(String wildcard) {
+    return wildcardCache.computeIfAbsent(wildcard, w -> Pattern.compile(w
         .replace("\\", "\\\\")
         .replace(".", "\\.")
         .replace("^", "\\^")
@@ -17,8 +31,7 @@ public class StringMatchUtils {
         .replace("+", "\\+")
         .replace("|", "\\|")
         .replace("*", ".*")
-        .replace("?", ".");
-    return target.matches(regex);
+        .replace("?", ".")));
   }
 
-}
\ No newline at end of file
+}
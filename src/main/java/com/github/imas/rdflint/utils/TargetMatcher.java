@@ -0,0 +1,118 @@
+package com.github.imas.rdflint.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * target patterns of rules compiled once, answering which rules apply to a path.
+ * same pattern shared by rules is evaluated once, and result is memoized per path.
+ */
+public final class TargetMatcher<T> {
+
+  private final Pattern[] patterns;
+  // rules of each pattern, in order of registration
+  private final int[][] ruleIndexes;
+  private final List<T> rules;
+  private final Map<String, List<T>> memo = new ConcurrentHashMap<>();
+
+  private TargetMatcher(Map<String, Pattern> patternMap, Map<String, List<Integer>> indexMap,
+      List<T> rules) {
+    this.patterns = patternMap.values().toArray(new Pattern[0]);
+    this.ruleIndexes = new int[patterns.length][];
+    int i = 0;
+    for (List<Integer> indexes : indexMap.values()) {
+      ruleIndexes[i++] = indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+    this.rules = rules;
+  }
+
+  public static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * rules which target matches path, in order of registration.
+   */
+  public List<T> match(String path) {
+    if (path == null) {
+      return Collections.emptyList();
+    }
+    return memo.computeIfAbsent(path, this::evaluate);
+  }
+
+  private List<T> evaluate(String path) {
+    boolean[] matched = new boolean[rules.size()];
+    int count = 0;
+    for (int i = 0; i < patterns.length; i++) {
+      if (patterns[i].matcher(path).matches()) {
+        for (int idx : ruleIndexes[i]) {
+          matched[idx] = true;
+        }
+        count += ruleIndexes[i].length;
+      }
+    }
+    if (count == 0) {
+      return Collections.emptyList();
+    }
+    List<T> result = new ArrayList<>(count);
+    for (int i = 0; i < matched.length; i++) {
+      if (matched[i]) {
+        result.add(rules.get(i));
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  public int size() {
+    return rules.size();
+  }
+
+  public static class Builder<T> {
+
+    // pattern source -> compiled pattern, and indexes of rules
+    private final Map<String, Pattern> patternMap = new LinkedHashMap<>();
+    private final Map<String, List<Integer>> indexMap = new LinkedHashMap<>();
+    private final List<T> rules = new ArrayList<>();
+
+    /**
+     * add rule of wildcard target. rule without target never matches.
+     */
+    public Builder<T> glob(String wildcard, T rule) {
+      if (wildcard == null) {
+        return this;
+      }
+      return add("glob:" + wildcard, StringMatchUtils.compileWildcard(wildcard), rule);
+    }
+
+    /**
+     * add rule of regular expression target. rule without target never matches.
+     */
+    public Builder<T> regex(String regex, T rule) {
+      if (regex == null) {
+        return this;
+      }
+      return add("regex:" + regex, null, rule);
+    }
+
+    private Builder<T> add(String key, Pattern compiled, T rule) {
+      if (!patternMap.containsKey(key)) {
+        patternMap.put(key, compiled != null
+            ? compiled : Pattern.compile(key.substring("regex:".length())));
+        indexMap.put(key, new ArrayList<>());
+      }
+      indexMap.get(key).add(rules.size());
+      rules.add(rule);
+      return this;
+    }
+
+    public TargetMatcher<T> build() {
+      return new TargetMatcher<>(patternMap, indexMap, new ArrayList<>(rules));
+    }
+  }
+
+}
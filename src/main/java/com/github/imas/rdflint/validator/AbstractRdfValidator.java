@@ -2,10 +2,16 @@ package com.github.imas.rdflint.validator;
 
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblemSet;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.RdfDocumentCache;
+import com.github.imas.rdflint.TripleSet;
+import com.github.imas.rdflint.TripleTable;
 import com.github.imas.rdflint.config.RdfLintParameters;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
@@ -17,16 +23,13 @@ public class AbstractRdfValidator implements RdfValidator {
   private Map<String, String> validationParamMap = new ConcurrentHashMap<>();
   private List<Map<String, String>> validationParamMapList = new LinkedList<>();
   private String validatorName;
+  private RdfDocumentCache documentCache;
 
   /**
    * constructor.
    */
   public AbstractRdfValidator() {
-    String clzName = this.getClass().getSimpleName();
-    if (clzName.length() > "Validator".length()) {
-      clzName = clzName.substring(0, clzName.length() - "Validator".length());
-    }
-    validatorName = clzName.substring(0, 1).toLowerCase() + clzName.substring(1);
+    validatorName = RdfValidator.super.getValidatorName();
   }
 
   @Override
@@ -49,6 +52,14 @@ public class AbstractRdfValidator implements RdfValidator {
         }
       }
     }
+    buildParameters();
+  }
+
+  /**
+   * build typed parameters of validator, called once on setParameters.
+   * override to parse and compile parameters before validation.
+   */
+  protected void buildParameters() {
   }
 
   private Map<String, String> makeStringMap(Map paramObj) {
@@ -62,10 +73,39 @@ public class AbstractRdfValidator implements RdfValidator {
     return map;
   }
 
+  @Override
+  public void setDocumentCache(RdfDocumentCache documentCache) {
+    this.documentCache = documentCache;
+  }
+
+  public RdfDocumentCache getDocumentCache() {
+    return this.documentCache;
+  }
+
+  @Override
+  public boolean isFileLocal() {
+    return false;
+  }
+
+  /**
+   * calls are serialized by default, override to true if validator is safe to be called from
+   * multiple threads at once.
+   */
+  @Override
+  public boolean isThreadSafe() {
+    return false;
+  }
+
+  @Override
+  public Set<String> getDependencies() {
+    return Collections.emptySet();
+  }
+
   public RdfLintParameters getParameters() {
     return this.params;
   }
 
+  @Override
   public String getValidatorName() {
     return this.validatorName;
   }
@@ -86,8 +126,29 @@ public class AbstractRdfValidator implements RdfValidator {
   public void validateFile(LintProblemSet problems, String path, String parentPath) {
   }
 
+  /**
+   * prepare validation resource from whole dataset, by streaming triples of each file.
+   */
   @Override
   public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+    NodeDictionary dictionary = new NodeDictionary();
+    fileTripleSet.forEach((file, triples) -> {
+      TripleSet.IdConsumer subscriber = this.subscribeValidationResource(file, dictionary);
+      if (subscriber != null) {
+        TripleTable.encode(triples, dictionary).forEachId(subscriber);
+      }
+    });
+    this.completeValidationResource();
+  }
+
+  @Override
+  public TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
+    return null;
+  }
+
+  @Override
+  public void completeValidationResource() {
   }
 
   @Override
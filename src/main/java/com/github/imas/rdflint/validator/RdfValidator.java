@@ -2,20 +2,68 @@ package com.github.imas.rdflint.validator;
 
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblemSet;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.RdfDocumentCache;
+import com.github.imas.rdflint.TripleSet;
 import com.github.imas.rdflint.config.RdfLintParameters;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 
 public interface RdfValidator {
 
+  /**
+   * name of validator, class name without Validator suffix in lower camel case.
+   */
+  default String getValidatorName() {
+    String clzName = this.getClass().getSimpleName();
+    if (clzName.length() > "Validator".length()) {
+      clzName = clzName.substring(0, clzName.length() - "Validator".length());
+    }
+    return clzName.substring(0, 1).toLowerCase() + clzName.substring(1);
+  }
+
+  // true if validator can be called from multiple threads at once, calls are serialized if not
+  default boolean isThreadSafe() {
+    return false;
+  }
+
+  // names of validators whose dataset-level phases must be completed before this validator
+  default Set<String> getDependencies() {
+    return Collections.emptySet();
+  }
+
   void setParameters(RdfLintParameters params);
 
+  default void setDocumentCache(RdfDocumentCache documentCache) {
+  }
+
+  // true if results depend only on the file itself, not on other files in dataset
+  default boolean isFileLocal() {
+    return false;
+  }
+
   void validateFile(LintProblemSet problems, String path, String parentPath);
 
+  // called with triples of all files, if validator does not implement
+  // subscribeValidationResource
   void prepareValidationResource(Map<String, List<Triple>> fileTripleSet);
 
+  // streaming alternative of prepareValidationResource. subscriber is called with ids of each
+  // triple of file, encoded by dictionary shared in run. files are subscribed concurrently.
+  // returns null if triples are not needed.
+  default TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
+    return null;
+  }
+
+  // called after all files are subscribed
+  default void completeValidationResource() {
+  }
+
   void validateTripleSet(LintProblemSet problems, String file, List<Triple> tripeSet);
 
   void validateOriginTripleSet(LintProblemSet problems, String file, List<Triple> tripeSet);
@@ -27,6 +75,12 @@ public interface RdfValidator {
   List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
       int beginLine, int beginCol, int endLine, int endCol);
 
+  // validateTriple of triple in file, called on replay of parsed document
+  default List<LintProblem> validateTriple(String file, Node subject, Node predicate,
+      Node object, int beginLine, int beginCol, int endLine, int endCol) {
+    return validateTriple(subject, predicate, object, beginLine, beginCol, endLine, endCol);
+  }
+
   List<LintProblem> validateNode(Node node,
       int beginLine, int beginCol, int endLine, int endCol);
 
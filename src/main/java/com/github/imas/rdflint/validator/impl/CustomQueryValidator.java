@@ -3,10 +3,13 @@ package com.github.imas.rdflint.validator.impl;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.LintProblemSet;
+import com.github.imas.rdflint.config.CustomRule;
+import com.github.imas.rdflint.utils.TargetMatcher;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
 import com.github.imas.rdflint.validator.RdfValidator;
 import groovy.lang.Binding;
 import groovy.lang.GroovyShell;
+import java.util.Collections;
 import java.util.List;
 import org.apache.jena.graph.Factory;
 import org.apache.jena.graph.Graph;
@@ -21,9 +24,24 @@ import org.codehaus.groovy.control.CompilerConfiguration;
 
 public class CustomQueryValidator extends AbstractRdfValidator {
 
+  private TargetMatcher<CustomRule> matcher;
+
+  @Override
+  protected void buildParameters() {
+    matcher = null;
+    if (this.getParameters() == null || this.getParameters().getRules() == null) {
+      return;
+    }
+    TargetMatcher.Builder<CustomRule> builder = TargetMatcher.builder();
+    this.getParameters().getRules().forEach(r -> builder.regex(r.getTarget(), r));
+    matcher = builder.build();
+  }
+
   @Override
   public void validateTripleSet(LintProblemSet problems, String file, List<Triple> tripeSet) {
-    if (this.getParameters().getRules() == null) {
+    List<CustomRule> rules = matcher == null
+        ? Collections.emptyList() : matcher.match(file);
+    if (rules.isEmpty()) {
       return;
     }
     // execute sparql & custom validation
@@ -31,18 +49,16 @@ public class CustomQueryValidator extends AbstractRdfValidator {
     tripeSet.forEach(g::add);
     Model m = ModelFactory.createModelForGraph(g);
 
-    this.getParameters().getRules().stream()
-        .filter(r -> file.matches(r.getTarget()))
-        .forEach(r -> {
-          Query query = QueryFactory.create(r.getQuery());
-          QueryExecution qe = QueryExecutionFactory.create(query, m);
-
-          Binding binding = new Binding();
-          binding.setVariable("rs", qe.execSelect());
-          binding.setVariable("log", new ProblemLogger(this, problems, file, r.getName()));
-          GroovyShell shell = new GroovyShell(binding, new CompilerConfiguration());
-          shell.evaluate(r.getValid());
-        });
+    rules.forEach(r -> {
+      Query query = QueryFactory.create(r.getQuery());
+      QueryExecution qe = QueryExecutionFactory.create(query, m);
+
+      Binding binding = new Binding();
+      binding.setVariable("rs", qe.execSelect());
+      binding.setVariable("log", new ProblemLogger(this, problems, file, r.getName()));
+      GroovyShell shell = new GroovyShell(binding, new CompilerConfiguration());
+      shell.evaluate(r.getValid());
+    });
   }
 
   // Problem Logger for groovy
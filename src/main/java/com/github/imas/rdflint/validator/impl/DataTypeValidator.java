@@ -3,16 +3,20 @@ package com.github.imas.rdflint.validator.impl;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.LintProblemLocation;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.TripleSet;
+import com.github.imas.rdflint.WorkerPool;
 import com.github.imas.rdflint.utils.DataTypeUtils;
 import com.github.imas.rdflint.utils.DataTypeUtils.DataType;
+import com.github.imas.rdflint.utils.GapSummary;
+import com.github.imas.rdflint.utils.LiteralClassifier;
 import com.github.imas.rdflint.utils.StatsTestUtils;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.jena.graph.Node;
@@ -29,50 +33,120 @@ public class DataTypeValidator extends AbstractRdfValidator {
 
   ConcurrentHashMap<String, double[]> dataNgValues;
 
+  private NodeDictionary dictionary;
+  // literal classes of a run
+  private LiteralClassifier classifier = new LiteralClassifier();
+  // summaries of file by predicate id
+  private final Map<String, Map<Integer, PredicateSummary>> fileSummaryMap
+      = new ConcurrentHashMap<>();
+
+  // summaries are confined to subscriber of file, and read-only after completion
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  protected void buildParameters() {
+    classifier = new LiteralClassifier();
+  }
+
+  @Override
+  public TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
+    this.dictionary = dictionary;
+    Map<Integer, PredicateSummary> summaries = new HashMap<>();
+    fileSummaryMap.put(file, summaries);
+    return (s, p, o) -> {
+      Node object = dictionary.decode(o);
+      if (object.isLiteral()) {
+        String value = object.getLiteralLexicalForm();
+        summaries.computeIfAbsent(p, k -> new PredicateSummary())
+            .add(classifier.guessDataType(value), value);
+      }
+    };
+  }
+
   @Override
-  public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+  public void completeValidationResource() {
     if (logger.isTraceEnabled()) {
-      logger.trace("prepareValidationResource: in");
+      logger.trace("completeValidationResource: in");
     }
-    // type guess of predicates
-    List<Triple> triples = fileTripleSet.values().stream().flatMap(Collection::stream)
-        .filter(t -> t.getObject().isLiteral())
-        .collect(Collectors.toList());
-
-    Set<String> predicates = triples.stream()
-        .map(t -> t.getPredicate().getURI())
-        .collect(Collectors.toSet());
+    // group summaries of files by predicate, in one pass over files
+    Map<Integer, List<PredicateSummary>> groups = new HashMap<>();
+    fileSummaryMap.values().forEach(m -> m.forEach((pred, summary) ->
+        groups.computeIfAbsent(pred, k -> new ArrayList<>()).add(summary)));
+    fileSummaryMap.clear();
+
+    // type guess and outlier of predicates, finalized in parallel on workers of run
+    List<Map.Entry<Integer, List<PredicateSummary>>> entries = new ArrayList<>(groups.entrySet());
+    WorkerPool pool = getDocumentCache() != null ? getDocumentCache().getWorkerPool() : null;
+    List<PredicateSummary> merged = pool != null
+        ? pool.map(entries, e -> PredicateSummary.concat(e.getValue()))
+        : entries.stream().map(e -> PredicateSummary.concat(e.getValue()))
+            .collect(Collectors.toList());
 
     dataTypeMap = new HashMap<>();
+    dataNgValues = new ConcurrentHashMap<>();
+    for (int i = 0; i < entries.size(); i++) {
+      String pred = dictionary.decode(entries.get(i).getKey()).getURI();
+      PredicateSummary summary = merged.get(i);
+      dataTypeMap.put(pred, summary.dataType);
+      if (summary.outliers != null) {
+        dataNgValues.put(pred, summary.outliers);
+      }
+    }
+    logger.trace("completeValidationResource: out");
+  }
 
-    predicates.forEach(p -> {
-      List<DataType> datatypes = triples.stream()
-          .filter(t -> t.getPredicate().getURI().equals(p))
-          .map(t -> DataTypeUtils.guessDataType(t.getObject().getLiteralLexicalForm()))
-          .collect(Collectors.toList());
-
-      long cntNatural = 0;
-      long cntInteger = 0;
-      long cntFloat = 0;
-      long cntString = 0;
-      long cntTotal = 0;
-      for (DataType t : datatypes) {
-        cntTotal++;
-        cntString++;
-        if (t.equals(DataType.STRING)) {
-          continue;
-        }
-        cntFloat++;
-        if (t.equals(DataType.FLOAT)) {
-          continue;
-        }
-        cntInteger++;
-        if (t.equals(DataType.INTEGER)) {
-          continue;
-        }
-        cntNatural++;
+  // counts of guessed types, and numeric values of predicate
+  private static class PredicateSummary {
+
+    private long cntNatural;
+    private long cntInteger;
+    private long cntFloat;
+    private long cntTotal;
+    private GapSummary values = new GapSummary();
+
+    void add(DataType t, String value) {
+      cntTotal++;
+      if (t.equals(DataType.STRING)) {
+        return;
+      }
+      cntFloat++;
+      values.add(Double.parseDouble(value));
+      if (t.equals(DataType.FLOAT)) {
+        return;
+      }
+      cntInteger++;
+      if (t.equals(DataType.INTEGER)) {
+        return;
       }
+      cntNatural++;
+    }
 
+    // result of concat
+    private DataType dataType;
+    private double[] outliers;
+
+    // merge summaries of files, and compute type guess and outlier
+    static PredicateSummary concat(List<PredicateSummary> summaries) {
+      PredicateSummary rtn = new PredicateSummary();
+      for (PredicateSummary s : summaries) {
+        rtn.cntNatural += s.cntNatural;
+        rtn.cntInteger += s.cntInteger;
+        rtn.cntFloat += s.cntFloat;
+        rtn.cntTotal += s.cntTotal;
+        rtn.values.merge(s.values);
+      }
+      rtn.dataType = rtn.guessDataType();
+      if (DataTypeUtils.isDataType(rtn.dataType, DataType.FLOAT)) {
+        rtn.outliers = StatsTestUtils.clusteringOutlierTest(rtn.values, 3.0, 10);
+      }
+      return rtn;
+    }
+
+    DataType guessDataType() {
       DataType dataType = DataType.STRING;
       if (((double) cntNatural / cntTotal) >= TYPE_GUESS_THRESHOLD) {
         dataType = DataType.NATURAL;
@@ -80,36 +154,9 @@ public class DataTypeValidator extends AbstractRdfValidator {
         dataType = DataType.INTEGER;
       } else if (((double) cntFloat / cntTotal) >= TYPE_GUESS_THRESHOLD) {
         dataType = DataType.FLOAT;
-      } else if (((double) cntString / cntTotal) >= TYPE_GUESS_THRESHOLD) {
-        dataType = DataType.STRING;
       }
-
-      dataTypeMap.put(p, dataType);
-    });
-
-    // compute outlier
-    dataNgValues = new ConcurrentHashMap<>();
-    predicates.forEach(p -> {
-      dataTypeMap.forEach((pred, dataType) -> {
-        if (DataTypeUtils.isDataType(dataType, DataType.FLOAT)) {
-          List<Double> valueList = triples.stream()
-              .filter(t -> t.getPredicate().getURI().equals(pred))
-              .filter(t -> DataTypeUtils.isDataType(
-                  DataTypeUtils.guessDataType(t.getObject().getLiteralLexicalForm()),
-                  DataType.FLOAT))
-              .map(t -> Double.parseDouble(t.getObject().getLiteralLexicalForm()))
-              .collect(Collectors.toList());
-          double[] values = new double[valueList.size()];
-          for (int i = 0; i < valueList.size(); i++) {
-            values[i] = valueList.get(i);
-          }
-
-          double[] range = StatsTestUtils.clusteringOutlierTest(values, 3.0, 10);
-          dataNgValues.put(pred, range);
-        }
-      });
-    });
-    logger.trace("prepareValidationResource: out");
+      return dataType;
+    }
   }
 
   @Override
@@ -122,7 +169,8 @@ public class DataTypeValidator extends AbstractRdfValidator {
 
       // check data type by guessedType
       DataType guessedType = dataTypeMap.get(predicate.getURI());
-      DataType dataType = DataTypeUtils.guessDataType(value);
+      int flags = classifier.classify(value);
+      DataType dataType = DataTypeUtils.dataTypeOf(flags);
       if (!DataTypeUtils.isDataType(dataType, guessedType)) {
         rtn.add(new LintProblem(ErrorLevel.INFO, this,
             new LintProblemLocation(beginLine, beginCol, endLine, endCol,
@@ -132,7 +180,7 @@ public class DataTypeValidator extends AbstractRdfValidator {
 
       // check data type by language
       String litLang = object.getLiteralLanguage();
-      if (!DataTypeUtils.isLang(value, litLang)) {
+      if (!DataTypeUtils.isLang(flags, litLang)) {
         rtn.add(new LintProblem(ErrorLevel.INFO, this,
             new LintProblemLocation(beginLine, beginCol, endLine, endCol,
                 new Triple(subject, predicate, object)),
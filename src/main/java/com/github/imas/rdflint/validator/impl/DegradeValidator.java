@@ -3,73 +3,143 @@ package com.github.imas.rdflint.validator.impl;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.LintProblemSet;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.SubjectIndex;
+import com.github.imas.rdflint.TripleSet;
+import com.github.imas.rdflint.TripleTable;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
-import org.apache.jena.graph.Node;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.jena.graph.Triple;
 
 public class DegradeValidator extends AbstractRdfValidator {
 
-  private Set<Triple> flatTripleSet;
-  private Set<String> subjectSet;
+  private static final int BATCH_SIZE = 1024;
 
+  private NodeDictionary dictionary;
+  // triples of dataset, stored by dictionary (in heap, or memory-mapped)
+  private TripleSet flatTripleSet;
+  // uri subjects in dataset
+  private SubjectIndex subjectSet;
+  private final Map<String, TripleBatch> fileBatchMap = new ConcurrentHashMap<>();
+
+  // triple set is filled under lock, and read-only after completion
   @Override
-  public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public synchronized TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
     if (this.getParameters().getOriginDir() == null) {
-      return;
+      return null;
     }
+    if (this.flatTripleSet == null) {
+      this.dictionary = dictionary;
+      this.flatTripleSet = dictionary.createTripleSet();
+    }
+    TripleBatch batch = new TripleBatch(this.flatTripleSet);
+    fileBatchMap.put(file, batch);
+    return batch::add;
+  }
 
-    this.flatTripleSet = fileTripleSet.values().stream().flatMap(Collection::stream)
-        .collect(Collectors.toSet());
-    this.subjectSet = this.flatTripleSet.stream()
-        .filter(t -> t.getSubject().isURI())
-        .map(t -> t.getSubject().getURI())
-        .collect(Collectors.toSet());
+  @Override
+  public synchronized void completeValidationResource() {
+    if (this.getParameters().getOriginDir() == null) {
+      return;
+    }
+    if (this.flatTripleSet == null) {
+      this.dictionary = new NodeDictionary();
+      this.flatTripleSet = dictionary.createTripleSet();
+    }
+    fileBatchMap.values().forEach(TripleBatch::flush);
+    fileBatchMap.clear();
+    this.flatTripleSet.compact();
+    // index is shared with other validators of run, and built once
+    SubjectIndex index = dictionary.getSubjectIndex();
+    index.build(subjects -> this.flatTripleSet.forEachId((s, p, o) -> {
+      if (dictionary.decode(s).isURI()) {
+        subjects.set(s);
+      }
+    }));
+    this.subjectSet = index;
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
+    if (this.flatTripleSet != null) {
+      this.flatTripleSet.close();
+    }
     this.flatTripleSet = null;
     this.subjectSet = null;
   }
 
+  // buffers triples of file, and adds them to shared set in batch
+  private static class TripleBatch {
+
+    private final TripleSet target;
+    private final int[] ids = new int[BATCH_SIZE * 3];
+    private int size;
+
+    TripleBatch(TripleSet target) {
+      this.target = target;
+    }
+
+    void add(int subject, int predicate, int object) {
+      ids[size * 3] = subject;
+      ids[size * 3 + 1] = predicate;
+      ids[size * 3 + 2] = object;
+      size++;
+      if (size == BATCH_SIZE) {
+        flush();
+      }
+    }
+
+    void flush() {
+      synchronized (target) {
+        for (int i = 0; i < size; i++) {
+          target.add(ids[i * 3], ids[i * 3 + 1], ids[i * 3 + 2]);
+        }
+      }
+      size = 0;
+    }
+  }
+
   @Override
   public void validateOriginTripleSet(LintProblemSet problems, String file, List<Triple> tripeSet) {
+    TripleTable origin = TripleTable.encode(tripeSet, dictionary);
 
     // alert removed subject
-    tripeSet.stream()
-        .map(t -> {
-          if (t.getSubject().isURI()) {
-            return t.getSubject().getURI();
-          }
-          return null;
-        })
-        .distinct()
-        .filter(Objects::nonNull)
-        .forEach(s -> {
-          if (!this.subjectSet.contains(s)) {
-            problems.addProblem(file,
-                new LintProblem(ErrorLevel.INFO, this, null,
-                    "removedSubject", s));
-          }
-        });
+    BitSet reported = new BitSet();
+    for (int i = 0; i < origin.size(); i++) {
+      int s = origin.getSubject(i);
+      if (!reported.get(s) && dictionary.decode(s).isURI()) {
+        reported.set(s);
+        if (!this.subjectSet.contains(s)) {
+          problems.addProblem(file,
+              new LintProblem(ErrorLevel.INFO, this, null,
+                  "removedSubject", dictionary.decode(s).getURI()));
+        }
+      }
+    }
 
     // alert removed triple
-    tripeSet.forEach(t -> {
-      for (Node n : new Node[]{t.getPredicate(), t.getObject()}) {
-        if (n.isURI()) {
-          if (!this.flatTripleSet.contains(t)
-              && this.subjectSet.contains(t.getSubject().toString())) {
+    for (int i = 0; i < origin.size(); i++) {
+      int s = origin.getSubject(i);
+      int p = origin.getPredicate(i);
+      int o = origin.getObject(i);
+      for (int n : new int[]{p, o}) {
+        if (dictionary.decode(n).isURI()) {
+          if (!this.flatTripleSet.contains(s, p, o) && this.subjectSet.contains(s)) {
             problems.addProblem(file,
-                new LintProblem(ErrorLevel.INFO, this, null, "removedTriple", t)); //NOPMD
+                new LintProblem(ErrorLevel.INFO, this, null, "removedTriple", //NOPMD
+                    origin.get(i)));
           }
         }
       }
-    });
+    }
   }
 }
@@ -3,14 +3,14 @@ package com.github.imas.rdflint.validator.impl;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.LintProblemSet;
-import com.github.imas.rdflint.utils.StringMatchUtils;
+import com.github.imas.rdflint.utils.FileBufferUtils;
+import com.github.imas.rdflint.utils.TargetMatcher;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Paths;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.log4j.Logger;
 import org.mozilla.universalchardet.UniversalDetector;
 
@@ -18,7 +18,9 @@ public class FileEncodingValidator extends AbstractRdfValidator {
 
   private static final Logger logger = Logger.getLogger(FileEncodingValidator.class.getName());
 
-  UniversalDetector detector = new UniversalDetector();
+  private TargetMatcher<Rule> matcher;
+  // path -> effective settings
+  private final Map<String, Settings> settingsMap = new ConcurrentHashMap<>();
 
   private enum EndOfLine {
     CRLF,
@@ -33,221 +35,324 @@ public class FileEncodingValidator extends AbstractRdfValidator {
     NONE
   }
 
-  @Override
-  public void validateFile(LintProblemSet problems, String path, String parentPath) {
-    if (logger.isTraceEnabled()) {
-      logger.trace("validateFile: in (path=" + path + ")");
-    }
-    List<Map<String, String>> params = getValidationParameterMapList();
-
-    String filename = path.substring(parentPath.length() + 1);
+  // effective settings for a file
+  static class Settings {
 
-    // check parameters
-    String charset = null;
+    String charset;
     EndOfLine eol = EndOfLine.NONE;
-    boolean newline = false;
+    boolean newline;
     IndentStyle indentStyle = IndentStyle.NONE;
     int indentSize = 2;
-    boolean trailingSpace = false;
-    for (Map<String, String> m : params) {
-      if (StringMatchUtils.matchWildcard(path, m.get("target"))) {
-        // charset
-        if ("utf-8".equals(m.get("charset"))) {
-          charset = "UTF-8";
-        } else if ("utf-16be".equals(m.get("charset"))) {
-          charset = "UTF-16BE";
-        } else if ("utf-16le".equals(m.get("charset"))) {
-          charset = "UTF-16LE";
-        }
-        // end_of_line
-        if ("cr".equals(m.get("end_of_line"))) {
-          eol = EndOfLine.CR;
-        } else if ("lf".equals(m.get("end_of_line"))) {
-          eol = EndOfLine.LF;
-        } else if ("crlf".equals(m.get("end_of_line"))) {
-          eol = EndOfLine.CRLF;
-        }
-        // insert_final_newline
-        if ("true".equals(m.get("insert_final_newline"))) {
-          newline = true;
-        }
-        // indent_style
-        if ("space".equals(m.get("indent_style"))) {
-          indentStyle = IndentStyle.SPACE;
-        } else if ("tab".equals(m.get("indent_style"))) {
-          indentStyle = IndentStyle.TAB;
-        }
-        // indent_size
-        if (m.get("indent_size") != null) {
-          try {
-            indentSize = Integer.parseInt(m.get("indent_size"));
-          } catch (NumberFormatException ex) {
-            // ignore, and default size
-          }
-        }
-        // trim_trailing_whitespace
-        if ("true".equals(m.get("trim_trailing_whitespace"))) {
-          trailingSpace = true;
+    boolean trailingSpace;
+  }
+
+  // parameters of a target, null if not specified
+  private static class Rule {
+
+    String charset;
+    EndOfLine eol;
+    boolean newline;
+    IndentStyle indentStyle;
+    Integer indentSize;
+    boolean trailingSpace;
+
+    Rule(Map<String, String> m) {
+      // charset
+      if ("utf-8".equals(m.get("charset"))) {
+        charset = "UTF-8";
+      } else if ("utf-16be".equals(m.get("charset"))) {
+        charset = "UTF-16BE";
+      } else if ("utf-16le".equals(m.get("charset"))) {
+        charset = "UTF-16LE";
+      }
+      // end_of_line
+      if ("cr".equals(m.get("end_of_line"))) {
+        eol = EndOfLine.CR;
+      } else if ("lf".equals(m.get("end_of_line"))) {
+        eol = EndOfLine.LF;
+      } else if ("crlf".equals(m.get("end_of_line"))) {
+        eol = EndOfLine.CRLF;
+      }
+      // insert_final_newline
+      newline = "true".equals(m.get("insert_final_newline"));
+      // indent_style
+      if ("space".equals(m.get("indent_style"))) {
+        indentStyle = IndentStyle.SPACE;
+      } else if ("tab".equals(m.get("indent_style"))) {
+        indentStyle = IndentStyle.TAB;
+      }
+      // indent_size
+      if (m.get("indent_size") != null) {
+        try {
+          indentSize = Integer.parseInt(m.get("indent_size"));
+        } catch (NumberFormatException ex) {
+          // ignore, and default size
         }
       }
+      // trim_trailing_whitespace
+      trailingSpace = "true".equals(m.get("trim_trailing_whitespace"));
     }
 
-    // validation
-    String encoding = null;
-    try {
-      byte[] buf = new byte[4096];
-      int nread;
-      BufferedInputStream br = new BufferedInputStream(Files.newInputStream(Paths.get(path)));
-      while ((nread = br.read(buf)) > 0 && !detector.isDone()) {
-        detector.handleData(buf, 0, nread);
+    void applyTo(Settings settings) {
+      if (charset != null) {
+        settings.charset = charset;
       }
-      br.close();
-      detector.dataEnd();
-      encoding = detector.getDetectedCharset();
-      detector.reset();
-
-      if (encoding != null && charset != null && !charset.equals(encoding)) {
-        problems.addProblem(filename,
-            new LintProblem(ErrorLevel.WARN, this, null, "invalidEncoding", charset, encoding));
+      if (eol != null) {
+        settings.eol = eol;
+      }
+      if (newline) {
+        settings.newline = true;
+      }
+      if (indentStyle != null) {
+        settings.indentStyle = indentStyle;
+      }
+      if (indentSize != null) {
+        settings.indentSize = indentSize;
+      }
+      if (trailingSpace) {
+        settings.trailingSpace = true;
       }
-    } catch (IOException e) {
-      e.printStackTrace(); //NOPMD
     }
+  }
 
-    try {
-      boolean eolResult = true;
-      boolean fnlResult = true;
-      boolean twsResult = true;
-      boolean indResult = true;
-
-      LineInputStream lns = new LineInputStream(
-          new BufferedInputStream(Files.newInputStream(Paths.get(path))));
-      String lastLn = null;
-      String ln;
-      while ((ln = lns.readLine()) != null) {
-        // end of line
-        boolean crlf =
-            ln.length() >= 2 && ln.lastIndexOf("\r\n") == (ln.length() - "\r\n".length());
-        boolean lf = !crlf && ln.lastIndexOf('\n') == (ln.length() - "\n".length());
-        boolean cr = ln.lastIndexOf('\r') == (ln.length() - "\r".length());
-        if (eol == EndOfLine.CR && !cr) {
-          eolResult = false;
-        } else if (eol == EndOfLine.LF && !lf) {
-          eolResult = false;
-        } else if (eol == EndOfLine.CRLF && !crlf) {
-          eolResult = false;
-        }
+  // result of single pass scan over bytes of file
+  static class ScanResult {
 
-        // trailing white space
-        String lnNoEol = ln.replace("\r", "").replace("\n", "");
-        if (trailingSpace && lnNoEol.matches(".*\\s$")) {
-          twsResult = false;
-        }
+    boolean eolResult = true;
+    boolean fnlResult = true;
+    boolean twsResult = true;
+    boolean indResult = true;
+    boolean ascii = true;
+    boolean validUtf8 = true;
+  }
 
-        // indent
-        char indentChar = ' ';
-        if (indentStyle == IndentStyle.SPACE) {
-          indentChar = ' ';
-        } else if (indentStyle == IndentStyle.TAB) {
-          indentChar = '\t';
-        }
-        int cntIndent = 0;
-        for (char c : ln.toCharArray()) {
-          if (c != ' ' && c != '\t') {
-            break;
-          }
-          if (c != indentChar) {
-            indResult = false;
-          }
-          cntIndent++;
-        }
-        if (cntIndent % indentSize != 0) {
-          indResult = false;
-        }
+  @Override
+  public boolean isFileLocal() {
+    return true;
+  }
 
-        lastLn = ln;
-      }
-      // final new line
-      if (lastLn != null && lastLn.replace("\r", "").replace("\n", "").equals(lastLn)) {
-        fnlResult = false;
-      }
-      lns.close();
+  // rules are built once, and settings are memoized in concurrent map
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
 
-      if (!eolResult) {
-        problems.addProblem(filename,
-            new LintProblem(ErrorLevel.WARN, this, null,
-                "invalidEol", eol));
-      }
-      if (newline && !fnlResult && (encoding == null || "UTF-8".equals(encoding))) {
-        problems.addProblem(filename,
-            new LintProblem(ErrorLevel.WARN, this, null,
-                "needFinalNewLine"));
-      }
-      if (indentStyle != IndentStyle.NONE && !indResult) {
-        problems.addProblem(filename,
-            new LintProblem(ErrorLevel.WARN, this, null,
-                "invalidIndentSize", indentSize, indentStyle));
-      }
-      if (!twsResult) {
-        problems.addProblem(filename,
-            new LintProblem(ErrorLevel.WARN, this, null,
-                "needTrailingWhiteSpace"));
-      }
+  @Override
+  public void validateFile(LintProblemSet problems, String path, String parentPath) {
+    if (logger.isTraceEnabled()) {
+      logger.trace("validateFile: in (path=" + path + ")");
+    }
+    String filename = path.substring(parentPath.length() + 1);
+    Settings settings = resolveSettings(path);
 
+    ByteBuffer buffer;
+    try {
+      buffer = FileBufferUtils.read(Paths.get(path));
     } catch (IOException e) {
       e.printStackTrace(); //NOPMD
+      return;
+    }
+    ScanResult result = scan(buffer.duplicate(), settings);
+
+    // encoding is detected only if it is used
+    String encoding = null;
+    if (settings.charset != null || settings.newline) {
+      encoding = detectEncoding(buffer, result);
+    }
+    if (encoding != null && settings.charset != null && !settings.charset.equals(encoding)) {
+      problems.addProblem(filename,
+          new LintProblem(ErrorLevel.WARN, this, null, "invalidEncoding",
+              settings.charset, encoding));
+    }
+    if (!result.eolResult) {
+      problems.addProblem(filename,
+          new LintProblem(ErrorLevel.WARN, this, null,
+              "invalidEol", settings.eol));
+    }
+    if (settings.newline && !result.fnlResult && (encoding == null || "UTF-8".equals(encoding))) {
+      problems.addProblem(filename,
+          new LintProblem(ErrorLevel.WARN, this, null,
+              "needFinalNewLine"));
+    }
+    if (settings.indentStyle != IndentStyle.NONE && !result.indResult) {
+      problems.addProblem(filename,
+          new LintProblem(ErrorLevel.WARN, this, null,
+              "invalidIndentSize", settings.indentSize, settings.indentStyle));
+    }
+    if (!result.twsResult) {
+      problems.addProblem(filename,
+          new LintProblem(ErrorLevel.WARN, this, null,
+              "needTrailingWhiteSpace"));
     }
 
     logger.trace("validateFile: out");
   }
 
-  static class LineInputStream {
+  @Override
+  protected void buildParameters() {
+    TargetMatcher.Builder<Rule> builder = TargetMatcher.builder();
+    for (Map<String, String> m : getValidationParameterMapList()) {
+      builder.glob(m.get("target"), new Rule(m));
+    }
+    matcher = builder.build();
+    settingsMap.clear();
+  }
+
+  // merge rules of all matched targets, later target overrides
+  private Settings resolveSettings(String path) {
+    return settingsMap.computeIfAbsent(path, p -> {
+      Settings settings = new Settings();
+      if (matcher != null) {
+        matcher.match(p).forEach(r -> r.applyTo(settings));
+      }
+      return settings;
+    });
+  }
 
-    private BufferedInputStream stream;
-    private StringBuilder buf = new StringBuilder(); // NOPMD
+  /**
+   * check line endings, trailing white space, indent, final new line and utf-8 validity
+   * in one pass over bytes.
+   */
+  static ScanResult scan(ByteBuffer buffer, Settings settings) {
+    ScanResult result = new ScanResult();
+    final byte indentChar = settings.indentStyle == IndentStyle.TAB ? (byte) '\t' : (byte) ' ';
+    // line state
+    boolean hasLine = false;
+    boolean inIndent = true;
+    int cntIndent = 0;
+    byte last = 0;
+    int contentLength = 0;
+    // utf-8 state: number of continuation bytes and range of next one
+    int need = 0;
+    int lower = 0x80;
+    int upper = 0xbf;
 
-    LineInputStream(BufferedInputStream stream) {
-      this.stream = stream;
-    }
+    while (buffer.hasRemaining()) {
+      int b = buffer.get() & 0xff;
 
-    String readLine() throws IOException {
-      String rtn = null;
-      int r;
-      while ((r = this.stream.read()) != -1) {
-        char c = (char) r;
-        buf.append(c);
-        if (c == '\n') {
-          rtn = buf.toString();
-          buf.setLength(0);
-          break;
-        }
-        if (c == '\r') {
-          int r2 = this.stream.read();
-          if (r2 == '\n') {
-            buf.append((char) r2);
-            rtn = buf.toString();
-            buf.setLength(0);
-            break;
+      // utf-8 validity
+      if (b >= 0x80) {
+        result.ascii = false;
+      }
+      if (result.validUtf8) {
+        if (need > 0) {
+          if (b < lower || b > upper) {
+            result.validUtf8 = false;
+          }
+          need--;
+          lower = 0x80;
+          upper = 0xbf;
+        } else if (b >= 0x80) {
+          if (b >= 0xc2 && b <= 0xdf) {
+            need = 1;
+          } else if (b >= 0xe0 && b <= 0xef) {
+            need = 2;
+            lower = b == 0xe0 ? 0xa0 : 0x80;
+            upper = b == 0xed ? 0x9f : 0xbf;
+          } else if (b >= 0xf0 && b <= 0xf4) {
+            need = 3;
+            lower = b == 0xf0 ? 0x90 : 0x80;
+            upper = b == 0xf4 ? 0x8f : 0xbf;
           } else {
-            rtn = buf.toString();
-            buf.setLength(0);
-            buf.append((char) r2);
-            break;
+            result.validUtf8 = false;
           }
         }
       }
-      if (r == -1 && buf.length() > 0) {
-        rtn = buf.toString();
-        buf.setLength(0);
+
+      // end of line
+      if (b == '\n' || b == '\r') {
+        EndOfLine lineEol = EndOfLine.LF;
+        if (b == '\r') {
+          lineEol = EndOfLine.CR;
+          if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+            buffer.get();
+            lineEol = EndOfLine.CRLF;
+          }
+        }
+        endLine(result, settings, lineEol, cntIndent, last, contentLength);
+        hasLine = false;
+        inIndent = true;
+        cntIndent = 0;
+        contentLength = 0;
+        continue;
       }
-      return rtn;
+
+      // indent
+      hasLine = true;
+      if (inIndent) {
+        if (b == ' ' || b == '\t') {
+          if (b != indentChar) {
+            result.indResult = false;
+          }
+          cntIndent++;
+        } else {
+          inIndent = false;
+        }
+      }
+      last = (byte) b;
+      contentLength++;
+    }
+    if (need > 0) {
+      result.validUtf8 = false;
+    }
+    // last line without new line
+    if (hasLine) {
+      endLine(result, settings, EndOfLine.NONE, cntIndent, last, contentLength);
+      result.fnlResult = false;
     }
+    return result;
+  }
 
-    void close() throws IOException {
-      this.stream.close();
-      buf = null;
+  private static void endLine(ScanResult result, Settings settings, EndOfLine lineEol,
+      int cntIndent, byte last, int contentLength) {
+    if (settings.eol != EndOfLine.NONE && settings.eol != lineEol) {
+      result.eolResult = false;
+    }
+    // white space of java regex, excluding new lines
+    if (settings.trailingSpace && contentLength > 0
+        && (last == ' ' || last == '\t' || last == 0x0b || last == '\f')) {
+      result.twsResult = false;
+    }
+    if (settings.indentSize > 0 && cntIndent % settings.indentSize != 0) {
+      result.indResult = false;
     }
   }
 
+  /**
+   * detect encoding. byte order mark and valid utf-8 are decided without charset detector.
+   */
+  static String detectEncoding(ByteBuffer buffer, ScanResult result) {
+    int size = buffer.remaining();
+    int b0 = size > 0 ? buffer.get(0) & 0xff : -1;
+    int b1 = size > 1 ? buffer.get(1) & 0xff : -1;
+    int b2 = size > 2 ? buffer.get(2) & 0xff : -1;
+    int b3 = size > 3 ? buffer.get(3) & 0xff : -1;
+    if (b0 == 0xef && b1 == 0xbb && b2 == 0xbf) {
+      return "UTF-8";
+    } else if (b0 == 0xff && b1 == 0xfe && b2 == 0x00 && b3 == 0x00) {
+      return "UTF-32LE";
+    } else if (b0 == 0x00 && b1 == 0x00 && b2 == 0xfe && b3 == 0xff) {
+      return "UTF-32BE";
+    } else if (b0 == 0xfe && b1 == 0xff) {
+      return "UTF-16BE";
+    } else if (b0 == 0xff && b1 == 0xfe) {
+      return "UTF-16LE";
+    }
+    if (!result.ascii && result.validUtf8) {
+      return "UTF-8";
+    }
+
+    // ascii or other encodings
+    UniversalDetector detector = new UniversalDetector();
+    ByteBuffer in = buffer.duplicate();
+    byte[] buf = new byte[4096];
+    while (in.hasRemaining() && !detector.isDone()) {
+      int nread = Math.min(buf.length, in.remaining());
+      in.get(buf, 0, nread);
+      detector.handleData(buf, 0, nread);
+    }
+    detector.dataEnd();
+    return detector.getDetectedCharset();
+  }
 
 }
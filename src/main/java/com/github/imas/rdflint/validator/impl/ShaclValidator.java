@@ -4,23 +4,36 @@ import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.LintProblemLocation;
 import com.github.imas.rdflint.LintProblemSet;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.TripleSet;
+import com.github.imas.rdflint.TripleTable;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.mem.GraphMem;
 import org.apache.jena.rdf.model.impl.ModelCom;
-import org.apache.jena.rdf.model.impl.StatementImpl;
 import org.topbraid.shacl.validation.ValidationUtil;
 
 public class ShaclValidator extends AbstractRdfValidator {
 
+  // triples of each file as ids, added to data graph at once after all files are subscribed
+  private Map<String, TripleTable> fileTriples = new ConcurrentHashMap<>();
   private Graph result;
+  private Map<Triple, List<Node>> violationMap;
+  private Map<Node, String> violationMessageMap;
+  private Set<Node> reportedResults;
+  // first file of violated triples
+  private Map<Triple, String> firstFileMap = new HashMap<>();
 
   private Node shaclNode(String prop) {
     return NodeFactory.createURI("http://www.w3.org/ns/shacl#" + prop);
@@ -30,22 +43,82 @@ public class ShaclValidator extends AbstractRdfValidator {
     return NodeFactory.createURI("http://www.w3.org/1999/02/22-rdf-syntax-ns#" + prop);
   }
 
+  // triples of file are confined to its subscriber, and violation maps are read-only after
+  // completion
   @Override
-  public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
-    final ModelCom model = new ModelCom(new GraphMem());
-    fileTripleSet.forEach((k, v) -> {
-      v.forEach(t -> {
-        model.add(StatementImpl.toStatement(t, model));
-      });
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
+    final TripleTable triples = new TripleTable(dictionary);
+    fileTriples.put(file, triples);
+    return triples::add;
+  }
+
+  @Override
+  public void completeValidationResource() {
+    // files in order of filename, first file of triple is first one which contains it
+    final List<Map.Entry<String, TripleTable>> files = new ArrayList<>(fileTriples.entrySet());
+    files.sort(Map.Entry.comparingByKey());
+    fileTriples = new ConcurrentHashMap<>();
+    final Graph dataGraph = new GraphMem();
+    files.forEach(e -> {
+      e.getValue().compact();
+      e.getValue().forEach(dataGraph::add);
     });
+    final ModelCom model = new ModelCom(dataGraph);
     result = ValidationUtil.validateModel(model, model, true)
         .getModel().getGraph();
+
+    // index validation results by triple, for lookup from concurrent validateTriple
+    violationMap = new HashMap<>();
+    violationMessageMap = new HashMap<>();
+    reportedResults = ConcurrentHashMap.newKeySet();
+    result.find(Node.ANY, rdfNode("type"), shaclNode("ValidationResult"))
+        .mapWith(Triple::getSubject)
+        .forEachRemaining(s -> {
+          final Optional<Node> subject = result
+              .find(s, shaclNode("focusNode"), Node.ANY)
+              .nextOptional().map(Triple::getObject);
+          final Optional<Node> predicate = result
+              .find(s, shaclNode("resultPath"), Node.ANY)
+              .nextOptional().map(Triple::getObject);
+          final Optional<Node> object = result
+              .find(s, shaclNode("value"), Node.ANY)
+              .nextOptional().map(Triple::getObject);
+          if (subject.isPresent() && predicate.isPresent() && object.isPresent()) {
+            violationMap
+                .computeIfAbsent(
+                    new Triple(subject.get(), predicate.get(), object.get()),
+                    k -> new LinkedList<>())
+                .add(s);
+            final Node detail = result
+                .find(s, shaclNode("resultMessage"), Node.ANY)
+                .next().getObject(); // ValidationResult has only one resultMessage
+            final Node constraint = result
+                .find(s, shaclNode("sourceConstraintComponent"), Node.ANY)
+                .next().getObject(); // ValidationResult has only one sourceConstraintComponent
+            violationMessageMap.put(s, buildReportMessage(constraint, detail));
+          }
+        });
+
+    // violated triples are reported in their first file only
+    Map<Triple, String> firstFiles = new HashMap<>();
+    violationMap.keySet().forEach(t -> files.stream()
+        .filter(e -> e.getValue().contains(t))
+        .findFirst()
+        .ifPresent(e -> firstFiles.put(t, e.getKey())));
+    firstFileMap = firstFiles;
   }
 
   @Override
   public void reportAdditionalProblem(LintProblemSet problems) {
     result.find(Node.ANY, rdfNode("type"), shaclNode("ValidationResult"))
         .mapWith(t -> t.getSubject())
+        .filterDrop(reportedResults::contains)
         .forEachRemaining(s -> {
           final Optional<Node> subject = result
               .find(s, shaclNode("focusNode"), Node.ANY)
@@ -92,27 +165,34 @@ public class ShaclValidator extends AbstractRdfValidator {
   @Override
   public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
       int beginLine, int beginCol, int endLine, int endCol) {
+    return validateTriple(null, subject, predicate, object, beginLine, beginCol, endLine,
+        endCol);
+  }
+
+  /**
+   * report validation results of triple once, at first occurrence in its first file.
+   * if file is unknown, results are reported at first call.
+   */
+  @Override
+  public List<LintProblem> validateTriple(String file, Node subject, Node predicate,
+      Node object, int beginLine, int beginCol, int endLine, int endCol) {
     List<LintProblem> rtn = new LinkedList<>();
 
-    final List<Node> matchedResults = result
-        .find(Node.ANY, rdfNode("type"), shaclNode("ValidationResult"))
-        .mapWith(Triple::getSubject)
-        .filterKeep(s -> result.contains(s, shaclNode("focusNode"), subject))
-        .filterKeep(s -> result.contains(s, shaclNode("resultPath"), predicate))
-        .filterKeep(s -> result.contains(s, shaclNode("value"), object))
-        .toList();
+    final Triple triple = new Triple(subject, predicate, object);
+    final List<Node> matchedResults = violationMap.get(triple);
+    if (matchedResults == null) {
+      return rtn;
+    }
+    final String firstFile = firstFileMap.get(triple);
+    if (file != null && firstFile != null && !firstFile.equals(file)) {
+      return rtn;
+    }
 
     StringBuilder buff = new StringBuilder();
     matchedResults.forEach(res -> {
-      final Node detail = result
-          .find(res, shaclNode("resultMessage"), Node.ANY)
-          .next().getObject(); // ValidationResult has only one resultMessage
-      final Node constraint = result
-          .find(res, shaclNode("sourceConstraintComponent"), Node.ANY)
-          .next().getObject(); // ValidationResult has only one sourceConstraintComponent
-      result.remove(res, Node.ANY, Node.ANY);
-      final String msg = buildReportMessage(constraint, detail);
-      buff.append(msg);
+      if (reportedResults.add(res)) {
+        buff.append(violationMessageMap.get(res));
+      }
     });
 
     if (buff.length() > 0) {
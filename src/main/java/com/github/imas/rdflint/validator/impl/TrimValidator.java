@@ -11,6 +11,16 @@ import org.apache.jena.graph.Triple;
 
 public class TrimValidator extends AbstractRdfValidator {
 
+  @Override
+  public boolean isFileLocal() {
+    return true;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
   @Override
   public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
       int beginLine, int beginCol, int endLine, int endCol) {
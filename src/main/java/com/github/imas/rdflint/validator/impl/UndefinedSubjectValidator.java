@@ -3,58 +3,64 @@ package com.github.imas.rdflint.validator.impl;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.LintProblemLocation;
+import com.github.imas.rdflint.NodeDictionary;
+import com.github.imas.rdflint.SubjectIndex;
+import com.github.imas.rdflint.TripleSet;
+import com.github.imas.rdflint.VocabularyCache;
+import com.github.imas.rdflint.VocabularySnapshot;
 import com.github.imas.rdflint.config.RdfLintParameters;
+import com.github.imas.rdflint.utils.NamespaceTrie;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import org.apache.jena.graph.Factory;
-import org.apache.jena.graph.Graph;
+import java.util.function.Supplier;
 import org.apache.jena.graph.Node;
-import org.apache.jena.graph.Triple;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFParser;
-import org.apache.jena.riot.RDFParserBuilder;
 import org.apache.log4j.Logger;
 
 public class UndefinedSubjectValidator extends AbstractRdfValidator {
 
   private static final Logger logger = Logger.getLogger(UndefinedSubjectValidator.class.getName());
 
-  private static Map<String, Set<String>> commonStartswithSubjectsMap = new ConcurrentHashMap<>();
-  private static Map<String, Set<String>> additionalUrlSubjectsMap = new ConcurrentHashMap<>();
-  private Map<String, Set<String>> additionalStartswithSubjectsMap = new ConcurrentHashMap<>();
+  // bundled vocabularies, loaded lazily on first uri of the namespace
+  private static final Map<String, Optional<VocabularySnapshot>> commonSnapshotMap =
+      new ConcurrentHashMap<>();
+  // url and startswith -> loaded additional vocabulary
+  private static Map<String, VocabularySnapshot> additionalUrlSnapshotMap =
+      new ConcurrentHashMap<>();
+  private Map<String, VocabularySnapshot> additionalStartswithSnapshotMap =
+      new ConcurrentHashMap<>();
+
+  private static final int CACHE_SIZE = 1 << 14;
+  // namespace -> vocabulary, bundled and additional
+  private NamespaceTrie<List<Supplier<VocabularySnapshot>>> namespaces = buildNamespaces(
+      Collections.emptyMap());
+  // direct mapped cache of vocabulary lookups, entries are immutable so racy update is safe
+  private CacheEntry[] lookupCache = new CacheEntry[CACHE_SIZE];
 
   private String baseUri;
-  private Set<String> subjects;
-
-  // prepare subject-set of common-resource
-  static {
-    String[] resourceMap = {
-        "http://www.w3.org/1999/02/22-rdf-syntax-ns# rdf/org/w3/rdf-syntax-ns.ttl",
-        "http://www.w3.org/2000/01/rdf-schema# rdf/org/w3/rdf-schema.ttl",
-        "http://www.w3.org/ns/shacl# rdf/org/w3/shacl.ttl",
-        "http://schema.org/ rdf/org/schema/11.01/schemaorg-all-http.ttl",
-        "http://xmlns.com/foaf/0.1/ rdf/com/xmlns/foaf/20140114.rdf",
-        "http://purl.org/dc/elements/1.1/ rdf/org/purl/dcelements.ttl",
-    };
-    for (String resourceString : resourceMap) {
-      String startswith = resourceString.split(" ")[0];
-      String resourceName = resourceString.split(" ")[1];
-
-      InputStream is = ClassLoader.getSystemResourceAsStream(resourceName);
-      Lang lang = resourceName.endsWith("ttl") ? Lang.TTL : Lang.RDFXML;
-      Set<String> sets = loadSubjects(RDFParser.source(is), startswith, lang);
-      if (sets != null) {
-        commonStartswithSubjectsMap.put(startswith, sets);
-      }
-    }
+  private NodeDictionary dictionary;
+  // uri subjects in dataset
+  private SubjectIndex subjects;
+  private final Map<String, SubjectIds> fileSubjectsMap = new ConcurrentHashMap<>();
+
+  private static VocabularySnapshot commonSnapshot(String[] bundled) {
+    return commonSnapshotMap.computeIfAbsent(bundled[0],
+        k -> Optional.ofNullable(VocabularySnapshot.loadBundled(bundled[0], bundled[1])))
+        .orElse(null);
+  }
+
+  // subject ids are confined to subscriber of file, and cache entries are immutable
+  @Override
+  public boolean isThreadSafe() {
+    return true;
   }
 
   @Override
@@ -62,57 +68,139 @@ public class UndefinedSubjectValidator extends AbstractRdfValidator {
     super.setParameters(params);
 
     List<Map<String, String>> paramList = getValidationParameterMapList();
+    List<VocabularyCache.Source> sources = new LinkedList<>();
     for (Map<String, String> map : paramList) {
       String url = map.get("url");
       String startswith = map.get("startswith");
       String langtype = map.get("langtype");
 
+      if (url == null || startswith == null) {
+        continue;
+      }
+
       // skip loaded url
-      if (additionalUrlSubjectsMap.get(url) != null) {
-        additionalStartswithSubjectsMap.put(startswith, additionalUrlSubjectsMap.get(url));
+      String loadedKey = url + " " + startswith;
+      if (additionalUrlSnapshotMap.get(loadedKey) != null) {
+        additionalStartswithSnapshotMap.put(startswith, additionalUrlSnapshotMap.get(loadedKey));
         continue;
       }
       Lang lang = Lang.TURTLE;
       if ("rdfxml".equalsIgnoreCase(langtype) || "rdf".equalsIgnoreCase(langtype)) {
         lang = Lang.RDFXML;
       }
-      Set<String> sets = loadSubjects(RDFParser.source(url), startswith, lang);
-      if (sets != null) {
-        additionalStartswithSubjectsMap.put(startswith, sets);
-        additionalUrlSubjectsMap.put(url, sets);
-      }
+      sources.add(new VocabularyCache.Source(url, startswith, lang));
     }
+    if (!sources.isEmpty()) {
+      VocabularyCache.of(params).fetchAll(sources).forEach((source, snapshot) -> {
+        if (snapshot != null) {
+          additionalStartswithSnapshotMap.put(source.getNamespace(), snapshot);
+          additionalUrlSnapshotMap.put(source.getUrl() + " " + source.getNamespace(), snapshot);
+        }
+      });
+    }
+    namespaces = buildNamespaces(additionalStartswithSnapshotMap);
+    lookupCache = new CacheEntry[CACHE_SIZE];
   }
 
-  private static Set<String> loadSubjects(RDFParserBuilder builder, String startswith, Lang lang) {
-    Graph g = Factory.createGraphMem();
-    try {
-      builder.base(startswith).lang(lang).parse(g);
-      return g.find().toList().stream()
-          .filter(t -> t.getSubject().isURI())
-          .map(t -> t.getSubject().getURI())
-          .collect(Collectors.toSet());
-    } catch (Exception ex) {
-      logger.warn(String.format("loadSubjects: skip %s", startswith));
-    } finally {
-      g.close();
+  private static NamespaceTrie<List<Supplier<VocabularySnapshot>>> buildNamespaces(
+      Map<String, VocabularySnapshot> additional) {
+    Map<String, List<Supplier<VocabularySnapshot>>> vocabularies = new HashMap<>();
+    for (String[] bundled : VocabularySnapshot.BUNDLED) {
+      vocabularies.computeIfAbsent(bundled[0], k -> new ArrayList<>(1))
+          .add(() -> commonSnapshot(bundled));
     }
-    return null;
+    additional.forEach((startswith, snapshot) ->
+        vocabularies.computeIfAbsent(startswith, k -> new ArrayList<>(1)).add(() -> snapshot));
+    NamespaceTrie<List<Supplier<VocabularySnapshot>>> trie = new NamespaceTrie<>();
+    vocabularies.forEach(trie::put);
+    return trie;
+  }
+
+  @Override
+  public TripleSet.IdConsumer subscribeValidationResource(String file,
+      NodeDictionary dictionary) {
+    this.dictionary = dictionary;
+    SubjectIds fileSubjects = new SubjectIds();
+    fileSubjectsMap.put(file, fileSubjects);
+    return (s, p, o) -> {
+      if (s != fileSubjects.last && dictionary.decode(s).isURI()) {
+        fileSubjects.add(s);
+      }
+    };
   }
 
   @Override
-  public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
-    logger.trace("prepareValidationResource: in");
+  public void completeValidationResource() {
+    logger.trace("completeValidationResource: in");
 
     this.baseUri = this.getParameters().getBaseUri();
-    this.subjects = fileTripleSet.values().stream()
-        .flatMap(Collection::stream)
-        .filter(t -> t.getSubject().isURI())
-        .map(t -> t.getSubject().getURI())
-        .collect(Collectors.toSet());
-
-    logger.trace(
-        String.format("prepareValidationResource: out (subject_size=%d)", this.subjects.size()));
+    if (dictionary != null) {
+      // index is shared with other validators of run, and built once
+      SubjectIndex index = dictionary.getSubjectIndex();
+      index.build(allSubjects -> fileSubjectsMap.values().forEach(ids -> {
+        for (int i = 0; i < ids.size; i++) {
+          allSubjects.set(ids.ids[i]);
+        }
+      }));
+      this.subjects = index;
+    }
+    fileSubjectsMap.clear();
+
+    logger.trace(String.format("completeValidationResource: out (subject_size=%d)",
+        this.subjects != null ? this.subjects.size() : 0));
+  }
+
+  // uri subject ids of file, consecutive duplicates are dropped
+  private static class SubjectIds {
+
+    private int[] ids = new int[16];
+    private int size;
+    private int last = -1;
+
+    void add(int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+      last = id;
+    }
+  }
+
+  // immutable entry of vocabulary cache
+  private static class CacheEntry {
+
+    final String uri;
+    final boolean undefined;
+
+    CacheEntry(String uri, boolean undefined) {
+      this.uri = uri;
+      this.undefined = undefined;
+    }
+  }
+
+  // true if uri is in namespace of some vocabulary, and not defined in it
+  private boolean isUndefinedInVocabulary(String uri) {
+    CacheEntry[] cache = lookupCache;
+    int slot = uri.hashCode() & (CACHE_SIZE - 1);
+    CacheEntry cached = cache[slot];
+    if (cached != null && cached.uri.equals(uri)) {
+      return cached.undefined;
+    }
+    boolean undefined = namespaces.anyPrefix(uri, vocabularies -> {
+      for (Supplier<VocabularySnapshot> vocabulary : vocabularies) {
+        VocabularySnapshot snapshot = vocabulary.get();
+        if (snapshot != null && !snapshot.contains(uri)) {
+          return true;
+        }
+      }
+      return false;
+    });
+    cache[slot] = new CacheEntry(uri, undefined);
+    return undefined;
+  }
+
+  private boolean isDefinedSubject(Node node) {
+    return subjects != null && subjects.contains(node);
   }
 
   @Override
@@ -122,18 +210,9 @@ public class UndefinedSubjectValidator extends AbstractRdfValidator {
     boolean undefinedFlag = false;
 
     if (node != null && node.isURI()) {
-      for (Map<String, Set<String>> map :
-          Arrays.asList(commonStartswithSubjectsMap, additionalStartswithSubjectsMap)) {
-        for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
-          if (node.getURI().startsWith(entry.getKey())
-              && !entry.getValue().contains(node.getURI())) {
-            undefinedFlag = true;
-            break;
-          }
-        }
-      }
-      if (baseUri != null
-          && node.getURI().startsWith(baseUri) && !subjects.contains(node.getURI())) {
+      undefinedFlag = isUndefinedInVocabulary(node.getURI());
+      if (!undefinedFlag && baseUri != null
+          && node.getURI().startsWith(baseUri) && !isDefinedSubject(node)) {
         undefinedFlag = true;
       }
     }
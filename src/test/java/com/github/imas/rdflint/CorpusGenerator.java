@@ -0,0 +1,447 @@
+package com.github.imas.rdflint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
+/**
+ * generator of synthetic rdf corpus for scale and performance testing. corpus is fully
+ * determined by parameters and seed, and has small ratio of anomalies, so every validator
+ * has something to report.
+ *
+ * <p>layout of generated directory:
+ * dataset/rdflint-config.yml, dataset/shapes.ttl, dataset/data/file*.(ttl|rdf), and
+ * origin/data/file*.(ttl|rdf) if origin is enabled.</p>
+ */
+public class CorpusGenerator {
+
+  public static final String BASE_URI = "http://example.com/corpus/";
+  public static final String VOCAB = "http://example.org/corpus-vocab#";
+
+  private static final String RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+  private static final Node RDF_TYPE = NodeFactory.createURI(RDF + "type");
+  private static final Node ITEM = NodeFactory.createURI(VOCAB + "Item");
+  private static final Node NAME = NodeFactory.createURI(VOCAB + "name");
+
+  private static final int PREDICATE_COUNT = 20;
+  private static final int TRIPLES_PER_SUBJECT = 8;
+  private static final int MAX_TEXT_LENGTH = 64;
+
+  private long seed;
+  private int files = 10;
+  private int triplesPerFile = 1000;
+  private double literalRatio = 0.5;
+  private double numericRatio = 0.4;
+  private double undefinedRatio = 0.01;
+  private double blankNodeRatio = 0.05;
+  private double rdfxmlRatio = 0.5;
+  private double originRatio;
+  private double anomalyRatio = 0.01;
+
+  public static CorpusGenerator create() {
+    return new CorpusGenerator();
+  }
+
+  public CorpusGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public CorpusGenerator files(int files) {
+    this.files = files;
+    return this;
+  }
+
+  public CorpusGenerator triplesPerFile(int triplesPerFile) {
+    this.triplesPerFile = triplesPerFile;
+    return this;
+  }
+
+  // ratio of literal objects
+  public CorpusGenerator literalRatio(double literalRatio) {
+    this.literalRatio = literalRatio;
+    return this;
+  }
+
+  // ratio of numeric predicates in literal predicates
+  public CorpusGenerator numericRatio(double numericRatio) {
+    this.numericRatio = numericRatio;
+    return this;
+  }
+
+  // ratio of links to undefined subjects
+  public CorpusGenerator undefinedRatio(double undefinedRatio) {
+    this.undefinedRatio = undefinedRatio;
+    return this;
+  }
+
+  // ratio of links to blank nodes
+  public CorpusGenerator blankNodeRatio(double blankNodeRatio) {
+    this.blankNodeRatio = blankNodeRatio;
+    return this;
+  }
+
+  // ratio of files written as rdf/xml, others are turtle
+  public CorpusGenerator rdfxmlRatio(double rdfxmlRatio) {
+    this.rdfxmlRatio = rdfxmlRatio;
+    return this;
+  }
+
+  // ratio of subjects mutated in origin copy, 0 means no origin
+  public CorpusGenerator origin(double originRatio) {
+    this.originRatio = originRatio;
+    return this;
+  }
+
+  // ratio of literals and subjects with problems, e.g. untrimmed, outlier, too long
+  public CorpusGenerator anomalyRatio(double anomalyRatio) {
+    this.anomalyRatio = anomalyRatio;
+    return this;
+  }
+
+  /**
+   * write corpus under dir.
+   */
+  public void generate(Path dir) throws IOException {
+    Path dataset = dir.resolve("dataset");
+    Files.createDirectories(dataset.resolve("data"));
+    write(dataset.resolve("rdflint-config.yml"), config());
+    write(dataset.resolve("shapes.ttl"), shapes());
+    if (originRatio > 0) {
+      Files.createDirectories(dir.resolve("origin").resolve("data"));
+    }
+    for (int i = 0; i < files; i++) {
+      List<Triple> triples = generateTriples(i);
+      write(dataset.resolve(filename(i)), serialize(i, triples));
+      if (originRatio > 0) {
+        write(dir.resolve("origin").resolve(filename(i)),
+            serialize(i, generateOriginTriples(i, triples)));
+      }
+    }
+  }
+
+  private static void write(Path path, String body) throws IOException {
+    Files.write(path, body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * return filename of file, relative to dataset directory.
+   */
+  public String filename(int file) {
+    return String.format("data/file%04d.%s", file, isRdfxml(file) ? "rdf" : "ttl");
+  }
+
+  private boolean isRdfxml(int file) {
+    return new Random(seed * 31 + file).nextDouble() < rdfxmlRatio;
+  }
+
+  private String serialize(int file, List<Triple> triples) {
+    return isRdfxml(file) ? rdfxml(triples) : turtle(triples);
+  }
+
+  private int subjectsPerFile() {
+    return Math.max(1, triplesPerFile / TRIPLES_PER_SUBJECT);
+  }
+
+  private int literalPredicates() {
+    return (int) Math.round(PREDICATE_COUNT * literalRatio);
+  }
+
+  private int numericPredicates() {
+    return (int) Math.round(literalPredicates() * numericRatio);
+  }
+
+  private static Node predicate(int k) {
+    return NodeFactory.createURI(VOCAB + "p" + k);
+  }
+
+  private static Node subject(int file, int n) {
+    return NodeFactory.createURI(BASE_URI + "resource/f" + file + "s" + n);
+  }
+
+  /**
+   * generate triples of file.
+   */
+  public List<Triple> generateTriples(int file) {
+    Random random = new Random(seed * 31 + file);
+    random.nextDouble(); // used by isRdfxml
+    int subjects = subjectsPerFile();
+    List<Triple> triples = new ArrayList<>(subjects * TRIPLES_PER_SUBJECT);
+    int blank = 0;
+    for (int n = 0; n < subjects; n++) {
+      Node s = subject(file, n);
+      triples.add(Triple.create(s, RDF_TYPE, ITEM));
+      if (random.nextDouble() >= anomalyRatio) {
+        triples.add(Triple.create(s, NAME, NodeFactory.createLiteral("item " + file + "-" + n)));
+      }
+      for (int i = 2; i < TRIPLES_PER_SUBJECT; i++) {
+        int k = random.nextInt(PREDICATE_COUNT);
+        Node p = predicate(k);
+        if (k < numericPredicates()) {
+          triples.add(Triple.create(s, p, numericLiteral(random, k)));
+        } else if (k < literalPredicates()) {
+          triples.add(Triple.create(s, p, textLiteral(random, file, n)));
+        } else if (random.nextDouble() < blankNodeRatio) {
+          Node b = NodeFactory.createBlankNode("b" + file + "x" + blank++);
+          triples.add(Triple.create(s, p, b));
+          triples.add(Triple.create(b, NAME, textLiteral(random, file, n)));
+        } else if (random.nextDouble() < undefinedRatio) {
+          triples.add(Triple.create(s, p,
+              NodeFactory.createURI(BASE_URI + "undefined/u" + random.nextInt(1000))));
+        } else {
+          triples.add(Triple.create(s, p,
+              subject(random.nextInt(files), random.nextInt(subjects))));
+        }
+      }
+    }
+    return triples;
+  }
+
+  // values around mean of predicate, with outliers and non-numeric values
+  private Node numericLiteral(Random random, int k) {
+    double mean = 10 * (k + 1);
+    if (random.nextDouble() < anomalyRatio) {
+      return random.nextBoolean()
+          ? NodeFactory.createLiteral(Long.toString(Math.round(mean * 1000)))
+          : NodeFactory.createLiteral("n/a");
+    }
+    return NodeFactory.createLiteral(
+        Long.toString(Math.max(0, Math.round(mean + random.nextGaussian() * mean / 5))));
+  }
+
+  // plain, english and japanese texts, with untrimmed, mislabeled and too long texts
+  private Node textLiteral(Random random, int file, int n) {
+    if (random.nextDouble() < anomalyRatio) {
+      switch (random.nextInt(3)) {
+        case 0:
+          return NodeFactory.createLiteral(" note " + file + "-" + n + " ");
+        case 1:
+          return NodeFactory.createLiteral("項目 " + file + "-" + n, "en");
+        default:
+          StringBuilder sb = new StringBuilder("long note");
+          while (sb.length() <= MAX_TEXT_LENGTH) {
+            sb.append(' ').append(file).append('-').append(n);
+          }
+          return NodeFactory.createLiteral(sb.toString());
+      }
+    }
+    switch (random.nextInt(3)) {
+      case 0:
+        return NodeFactory.createLiteral("note " + file + "-" + n);
+      case 1:
+        return NodeFactory.createLiteral("description of item " + file + "-" + n, "en");
+      default:
+        return NodeFactory.createLiteral("項目 " + file + "-" + n + " の説明", "ja");
+    }
+  }
+
+  /**
+   * generate triples of file in origin, which has subjects and links removed in dataset.
+   */
+  public List<Triple> generateOriginTriples(int file, List<Triple> triples) {
+    Random random = new Random(~(seed * 31 + file));
+    List<Triple> origin = new ArrayList<>(triples);
+    int subjects = subjectsPerFile();
+    Node link = predicate(PREDICATE_COUNT - 1);
+    for (int n = 0; n < subjects; n++) {
+      if (random.nextDouble() < originRatio) {
+        Node removed = NodeFactory.createURI(BASE_URI + "resource/f" + file + "r" + n);
+        origin.add(Triple.create(removed, RDF_TYPE, ITEM));
+        origin.add(Triple.create(removed, NAME,
+            NodeFactory.createLiteral("removed " + file + "-" + n)));
+      }
+      if (random.nextDouble() < originRatio) {
+        origin.add(Triple.create(subject(file, n), link,
+            subject(random.nextInt(files), random.nextInt(subjects))));
+      }
+    }
+    return origin;
+  }
+
+  /**
+   * rdflint configuration for corpus.
+   */
+  public String config() {
+    return "baseUri: " + BASE_URI + "\n"
+        + "rules:\n"
+        + "  - name: item without name\n"
+        + "    target: 'data/.*'\n"
+        + "    query: |\n"
+        + "      SELECT ?s\n"
+        + "      WHERE {\n"
+        + "        ?s a <" + ITEM.getURI() + "> .\n"
+        + "        FILTER NOT EXISTS { ?s <" + NAME.getURI() + "> ?o }\n"
+        + "      }\n"
+        + "    valid: |\n"
+        + "      while(rs.hasNext()) {\n"
+        + "        log.warn(\"no name \" + rs.next())\n"
+        + "      }\n"
+        + "validation:\n"
+        + "  fileEncoding:\n"
+        + "    - target: '*.ttl'\n"
+        + "      end_of_line: lf\n"
+        + "      insert_final_newline: true\n"
+        + "      trim_trailing_whitespace: true\n"
+        + "    - target: '*.rdf'\n"
+        + "      end_of_line: lf\n"
+        + "      insert_final_newline: true\n"
+        + "      trim_trailing_whitespace: true\n";
+  }
+
+  /**
+   * shacl shapes for corpus, text length and kind of link.
+   */
+  public String shapes() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("@prefix sh: <http://www.w3.org/ns/shacl#> .\n")
+        .append("@prefix v: <").append(VOCAB).append("> .\n\n")
+        .append("v:ItemShape a sh:NodeShape ;\n")
+        .append("  sh:targetClass v:Item ;\n")
+        .append("  sh:property [ sh:path v:name ; sh:maxLength ").append(MAX_TEXT_LENGTH)
+        .append(" ]");
+    for (int k = numericPredicates(); k < PREDICATE_COUNT; k++) {
+      sb.append(" ;\n  sh:property [ sh:path v:p").append(k);
+      if (k < literalPredicates()) {
+        sb.append(" ; sh:maxLength ").append(MAX_TEXT_LENGTH).append(" ]");
+      } else {
+        sb.append(" ; sh:nodeKind sh:BlankNodeOrIRI ]");
+      }
+    }
+    return sb.append(" .\n").toString();
+  }
+
+  /**
+   * serialize triples as turtle.
+   */
+  public static String turtle(List<Triple> triples) {
+    StringBuilder sb = new StringBuilder();
+    for (Triple t : triples) {
+      sb.append(turtleNode(t.getSubject())).append(' ')
+          .append(turtleNode(t.getPredicate())).append(' ')
+          .append(turtleNode(t.getObject())).append(" .\n");
+    }
+    return sb.toString();
+  }
+
+  private static String turtleNode(Node n) {
+    if (n.isURI()) {
+      return "<" + n.getURI() + ">";
+    } else if (n.isBlank()) {
+      return "_:" + n.getBlankNodeLabel();
+    }
+    String lit = "\"" + n.getLiteralLexicalForm().replace("\\", "\\\\").replace("\"", "\\\"")
+        + "\"";
+    return n.getLiteralLanguage().isEmpty() ? lit : lit + "@" + n.getLiteralLanguage();
+  }
+
+  /**
+   * serialize triples as rdf/xml. predicates must be in rdf or corpus vocabulary.
+   */
+  public static String rdfxml(List<Triple> triples) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        .append("<rdf:RDF xmlns:rdf=\"").append(RDF).append("\"\n")
+        .append("    xmlns:v=\"").append(VOCAB).append("\">\n");
+    Node last = null;
+    for (Triple t : triples) {
+      if (!t.getSubject().equals(last)) {
+        if (last != null) {
+          sb.append("  </rdf:Description>\n");
+        }
+        sb.append("  <rdf:Description ").append(xmlReference(t.getSubject(), "rdf:about"))
+            .append(">\n");
+        last = t.getSubject();
+      }
+      String uri = t.getPredicate().getURI();
+      String prop = uri.startsWith(RDF)
+          ? "rdf:" + uri.substring(RDF.length()) : "v:" + uri.substring(VOCAB.length());
+      Node o = t.getObject();
+      sb.append("    <").append(prop);
+      if (!o.isLiteral()) {
+        sb.append(' ').append(xmlReference(o, "rdf:resource")).append("/>\n");
+      } else {
+        if (!o.getLiteralLanguage().isEmpty()) {
+          sb.append(" xml:lang=\"").append(o.getLiteralLanguage()).append('"');
+        }
+        sb.append('>').append(xmlEscape(o.getLiteralLexicalForm())).append("</").append(prop)
+            .append(">\n");
+      }
+    }
+    if (last != null) {
+      sb.append("  </rdf:Description>\n");
+    }
+    return sb.append("</rdf:RDF>\n").toString();
+  }
+
+  private static String xmlReference(Node n, String attr) {
+    return n.isBlank()
+        ? "rdf:nodeID=\"" + n.getBlankNodeLabel() + "\""
+        : attr + "=\"" + xmlEscape(n.getURI()) + "\"";
+  }
+
+  private static String xmlEscape(String s) {
+    return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+        .replace("\"", "&quot;");
+  }
+
+  /**
+   * generate corpus from command line, arguments are key=value, e.g. dir=/tmp/corpus seed=1
+   * files=100 triples=10000 literal=0.5 numeric=0.4 undefined=0.01 blank=0.05 rdfxml=0.5
+   * origin=0.01 anomaly=0.01.
+   */
+  public static void main(String[] args) throws IOException {
+    CorpusGenerator generator = create();
+    Path dir = Paths.get("corpus");
+    for (String arg : args) {
+      String key = arg.substring(0, arg.indexOf('='));
+      String value = arg.substring(arg.indexOf('=') + 1);
+      switch (key) {
+        case "dir":
+          dir = Paths.get(value);
+          break;
+        case "seed":
+          generator.seed(Long.parseLong(value));
+          break;
+        case "files":
+          generator.files(Integer.parseInt(value));
+          break;
+        case "triples":
+          generator.triplesPerFile(Integer.parseInt(value));
+          break;
+        case "literal":
+          generator.literalRatio(Double.parseDouble(value));
+          break;
+        case "numeric":
+          generator.numericRatio(Double.parseDouble(value));
+          break;
+        case "undefined":
+          generator.undefinedRatio(Double.parseDouble(value));
+          break;
+        case "blank":
+          generator.blankNodeRatio(Double.parseDouble(value));
+          break;
+        case "rdfxml":
+          generator.rdfxmlRatio(Double.parseDouble(value));
+          break;
+        case "origin":
+          generator.origin(Double.parseDouble(value));
+          break;
+        case "anomaly":
+          generator.anomalyRatio(Double.parseDouble(value));
+          break;
+        default:
+          throw new IllegalArgumentException("unknown argument: " + arg);
+      }
+    }
+    generator.generate(dir);
+  }
+
+}
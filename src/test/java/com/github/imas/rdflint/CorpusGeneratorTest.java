@@ -0,0 +1,72 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CorpusGeneratorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void sameSeedSameCorpus() throws Exception {
+    Path first = folder.newFolder("first").toPath();
+    Path second = folder.newFolder("second").toPath();
+    Path other = folder.newFolder("other").toPath();
+    CorpusGenerator.create().seed(7).files(3).triplesPerFile(200).origin(0.1).generate(first);
+    CorpusGenerator.create().seed(7).files(3).triplesPerFile(200).origin(0.1).generate(second);
+    CorpusGenerator.create().seed(8).files(3).triplesPerFile(200).origin(0.1).generate(other);
+
+    CorpusGenerator generator = CorpusGenerator.create().seed(7).files(3);
+    for (int i = 0; i < 3; i++) {
+      for (String dir : Arrays.asList("dataset", "origin")) {
+        Path path = first.resolve(dir).resolve(generator.filename(i));
+        assertTrue(Arrays.equals(Files.readAllBytes(path),
+            Files.readAllBytes(second.resolve(dir).resolve(generator.filename(i)))));
+      }
+    }
+    assertFalse(Arrays.equals(
+        Files.readAllBytes(first.resolve("dataset").resolve(generator.filename(0))),
+        Files.readAllBytes(other.resolve("dataset").resolve(generator.filename(0)))));
+  }
+
+  @Test
+  public void triplesPerFile() throws Exception {
+    int size = CorpusGenerator.create().files(1).triplesPerFile(1000).blankNodeRatio(0)
+        .anomalyRatio(0).generateTriples(0).size();
+    assertEquals(1000, size);
+  }
+
+  @Test
+  public void exerciseValidators() throws Exception {
+    Path dir = folder.newFolder("corpus").toPath();
+    CorpusGenerator.create().seed(1).files(4).triplesPerFile(400).undefinedRatio(0.1)
+        .anomalyRatio(0.1).origin(0.1).generate(dir);
+    String targetDir = dir.resolve("dataset").toString();
+    RdfLintParameters params = ConfigurationLoader
+        .loadConfig(targetDir + File.separator + "rdflint-config.yml");
+    params.setOriginDir(dir.resolve("origin").toString());
+
+    LintProblemSet problems = new RdfLint().lintRdfDataSet(params, targetDir);
+    Set<String> keys = problems.getProblemSet().values().stream()
+        .flatMap(l -> l.stream().map(p -> p.getKey().substring(p.getKey().lastIndexOf('.') + 1)))
+        .collect(Collectors.toSet());
+
+    assertTrue(keys.toString(), keys.containsAll(Arrays.asList(
+        "undefinedUri", "needTrimLiteral", "notmatchedLanguageType", "shaclViolation",
+        "removedSubject", "removedTriple", "customError")));
+  }
+
+}
@@ -0,0 +1,45 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import org.apache.jena.riot.Lang;
+import org.junit.Test;
+
+public class FileManifestTest {
+
+  @Test
+  public void scan() throws Exception {
+    String parentPath = new File(getTestRdfsPath()).getCanonicalPath();
+    FileManifest manifest = FileManifest.scan(parentPath, "http://example.com/");
+
+    assertTrue(manifest.size() > 0);
+    manifest.getEntries().forEach(e -> assertTrue(FileManifest.isRdfFile(e.getPath())));
+
+    String filename = "turtle" + File.separator + "valid.ttl";
+    FileManifest.Entry entry = manifest.getEntry(filename);
+    assertNotNull(entry);
+    assertEquals(Lang.TURTLE, entry.getLang());
+    assertEquals("http://example.com/turtle/", entry.getBaseUri());
+    assertEquals(entry.getPath().toFile().length(), entry.getSize());
+
+    FileManifest.Entry rdfxml = manifest.getEntry("rdfxml" + File.separator + "valid.rdf");
+    assertEquals(Lang.RDFXML, rdfxml.getLang());
+
+    assertNull(manifest.getEntry("notexists.ttl"));
+  }
+
+  private String getTestRdfsPath() {
+    URL rootUrl = this.getClass().getClassLoader().getResource("testRDFs/");
+    assertNotNull("testRDFs not found", rootUrl);
+    if (rootUrl.getPath().charAt(2) == ':') {
+      return rootUrl.getPath().substring(1);
+    }
+    return rootUrl.getPath();
+  }
+
+}
@@ -0,0 +1,145 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void reuseUnchangedFile() throws Exception {
+    File targetDir = folder.newFolder("target");
+    Path ttl = Paths.get(targetDir.getPath(), "needtrim.ttl");
+    Files.copy(Paths.get(getTestRdfsPath() + "turtle/needtrim.ttl"), ttl);
+    RdfLintParameters params = createParameters(targetDir);
+
+    String first = executeAndDump(params);
+    assertTrue(first.contains("needtrim.ttl"));
+
+    RdfDocumentCache documentCache = RdfDocumentCache.create(params);
+    IncrementalCache.Entry cached = documentCache.getIncrementalCache()
+        .lookup(Paths.get(ttl.toFile().getCanonicalPath()));
+    assertNotNull(cached);
+    assertEquals(1, cached.getTripleProblems().size());
+    assertFalse(cached.getDocument().getTriples().isEmpty());
+
+    assertEquals(first, executeAndDump(params));
+    params.setIncremental(false);
+    assertEquals(first, executeAndDump(params));
+  }
+
+  @Test
+  public void changedFile() throws Exception {
+    File targetDir = folder.newFolder("target");
+    Path ttl = Paths.get(targetDir.getPath(), "data.ttl");
+    Files.copy(Paths.get(getTestRdfsPath() + "turtle/needtrim.ttl"), ttl);
+    RdfLintParameters params = createParameters(targetDir);
+    executeAndDump(params);
+
+    Files.copy(Paths.get(getTestRdfsPath() + "turtle/valid.ttl"), ttl,
+        StandardCopyOption.REPLACE_EXISTING);
+    IncrementalCache cache = IncrementalCache.open(params);
+    assertNull(cache.lookup(Paths.get(ttl.toFile().getCanonicalPath())));
+
+    String incremental = executeAndDump(params);
+    params.setIncremental(false);
+    assertEquals(executeAndDump(params), incremental);
+  }
+
+  @Test
+  public void invalidateByConfiguration() throws Exception {
+    File targetDir = folder.newFolder("target");
+    Path ttl = Paths.get(targetDir.getPath(), "needtrim.ttl");
+    Files.copy(Paths.get(getTestRdfsPath() + "turtle/needtrim.ttl"), ttl);
+    RdfLintParameters params = createParameters(targetDir);
+    executeAndDump(params);
+    Path canonical = Paths.get(ttl.toFile().getCanonicalPath());
+    assertNotNull(IncrementalCache.open(params).lookup(canonical));
+
+    params.setBaseUri("http://example.com/changed/");
+    assertNull(IncrementalCache.open(params).lookup(canonical));
+  }
+
+  @Test
+  public void invalidateBySuppressFile() throws Exception {
+    File targetDir = folder.newFolder("target");
+    Path ttl = Paths.get(targetDir.getPath(), "needtrim.ttl");
+    Files.copy(Paths.get(getTestRdfsPath() + "turtle/needtrim.ttl"), ttl);
+    Path suppress = folder.newFile("rdflint-suppress.yml").toPath();
+    RdfLintParameters params = createParameters(targetDir);
+    params.setSuppressPath(suppress.toString());
+    executeAndDump(params);
+    Path canonical = Paths.get(ttl.toFile().getCanonicalPath());
+    assertNotNull(IncrementalCache.open(params).lookup(canonical));
+
+    Files.write(suppress, "needtrim.ttl: []\n".getBytes(StandardCharsets.UTF_8));
+    assertNull(IncrementalCache.open(params).lookup(canonical));
+  }
+
+  @Test
+  public void keepByRunOptions() throws Exception {
+    File targetDir = folder.newFolder("target");
+    Path ttl = Paths.get(targetDir.getPath(), "needtrim.ttl");
+    Files.copy(Paths.get(getTestRdfsPath() + "turtle/needtrim.ttl"), ttl);
+    RdfLintParameters params = createParameters(targetDir);
+    executeAndDump(params);
+    Path canonical = Paths.get(ttl.toFile().getCanonicalPath());
+
+    params.setJobs(3);
+    params.setProfile(true);
+    params.setStorage(RdfDocumentCache.STORAGE_MAPPED);
+    params.setMaxProblems(10);
+    params.setMaxProblemsPerKey(2);
+    params.setFailFast(true);
+    params.setMinErrorLevel("INFO");
+    params.setOffline(true);
+    assertNotNull(IncrementalCache.open(params).lookup(canonical));
+  }
+
+  private RdfLintParameters createParameters(File targetDir) throws Exception {
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+    params.setTargetDir(targetDir.getCanonicalPath());
+    params.setOutputDir(folder.getRoot().getCanonicalPath());
+    params.setIncremental(true);
+    return params;
+  }
+
+  private String executeAndDump(RdfLintParameters params) throws Exception {
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    LintProblemSet problems = runner.execute(params, params.getTargetDir());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    LintProblemFormatter.out(out, problems);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private String getTestRdfsPath() {
+    URL rootUrl = this.getClass().getClassLoader().getResource("testRDFs/");
+    assertNotNull("testRDFs not found", rootUrl);
+    if (rootUrl.getPath().charAt(2) == ':') {
+      return rootUrl.getPath().substring(1);
+    }
+    return rootUrl.getPath();
+  }
+
+}
@@ -1,15 +1,25 @@
 package com.github.imas.rdflint;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.github.imas.rdflint.LintProblem.ErrorLevel;
 import com.github.imas.rdflint.validator.AbstractRdfValidator;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.hamcrest.CoreMatchers;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class LintProblemFormatterTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   private static class ConcreteRdfValidator extends AbstractRdfValidator {
 
   }
@@ -49,4 +59,51 @@ public class LintProblemFormatterTest {
     assertThat("yamlout: linecol", outYaml, CoreMatchers.containsString("column: '4'"));
   }
 
+  @Test
+  public void outputJsonLinesAndSarif() throws Exception {
+    LintProblemSet set = new LintProblemSet();
+    ConcreteRdfValidator validator = new ConcreteRdfValidator();
+    set.addProblem("dir\\file1",
+        new LintProblem(ErrorLevel.ERROR, validator, new LintProblemLocation(2, 4), "key_linecol",
+            "linecol \"arg\""));
+    set.addProblem("dir\\file1",
+        new LintProblem(ErrorLevel.INFO, validator, null, "key_global", "global arg"));
+
+    ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+    LintProblemFormatter.jsonLines(byteOut, set);
+    String[] lines = byteOut.toString("UTF-8").split("\\r?\\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{\"file\": \"dir\\\\file1\", "));
+    assertTrue(lines[0].contains("\"line\": 2, \"column\": 4"));
+    assertTrue(lines[0].contains("linecol \\\"arg\\\""));
+
+    byteOut.reset();
+    LintProblemFormatter.sarif(byteOut, set);
+    String sarif = byteOut.toString("UTF-8");
+    assertTrue(sarif.contains("\"version\": \"2.1.0\""));
+    assertTrue(sarif.contains("\"level\": \"error\""));
+    assertTrue(sarif.contains("\"level\": \"note\""));
+    assertTrue(sarif.contains("\"uri\": \"dir/file1\""));
+    assertTrue(sarif.contains("\"region\": {\"startLine\": 2, \"startColumn\": 4}"));
+  }
+
+  @Test
+  public void yamlReadableAsSuppressFile() throws Exception {
+    LintProblemSet set = new LintProblemSet();
+    ConcreteRdfValidator validator = new ConcreteRdfValidator();
+    LintProblem problem = new LintProblem(ErrorLevel.WARN, validator,
+        new LintProblemLocation(3, 1), "key_line", "it's: #1\n- true");
+    set.addProblem("yes", problem);
+
+    Path path = folder.newFile("rdflint-suppress.yml").toPath();
+    try (OutputStream out = Files.newOutputStream(path)) {
+      LintProblemFormatter.yaml(out, set);
+    }
+    assertTrue(SuppressionIndex.load(path.toString()).isSuppressed("yes", problem));
+    assertEquals("'1'", LintProblemFormatter.yamlScalar("1"));
+    assertEquals("'true'", LintProblemFormatter.yamlScalar("true"));
+    assertEquals("http://example.com/a#b",
+        LintProblemFormatter.yamlScalar("http://example.com/a#b"));
+  }
+
 }
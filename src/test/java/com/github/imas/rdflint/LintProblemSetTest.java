@@ -1,5 +1,6 @@
 package com.github.imas.rdflint;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -24,4 +25,66 @@ public class LintProblemSetTest {
     problemSet.addProblem(fileName, new LintProblem(LintProblem.ErrorLevel.ERROR, v,location,key));
     assertTrue(problemSet.hasProblemOfLevelOrWorse(LintProblem.ErrorLevel.ERROR));
   }
-}
\ No newline at end of file
+
+  private LintProblem problem(LintProblem.ErrorLevel level, String key) {
+    LintProblem problem = new LintProblem(level, null, null, null);
+    problem.setKey(key);
+    return problem;
+  }
+
+  @Test
+  public void limitProblems() {
+    LintProblemSet problemSet = new LintProblemSet(3, 2, null);
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "a"));
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "a"));
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "a"));
+    assertFalse(problemSet.isCancelled());
+    problemSet.addProblem("b.ttl", problem(LintProblem.ErrorLevel.WARN, "b"));
+    assertTrue(problemSet.isCancelled());
+    problemSet.addProblem("b.ttl", problem(LintProblem.ErrorLevel.WARN, "b"));
+
+    assertEquals(2, problemSet.getProblemSet().get("a.ttl").size());
+    assertEquals(1, problemSet.getProblemSet().get("b.ttl").size());
+    assertEquals(2, problemSet.getDroppedSize());
+  }
+
+  @Test
+  public void failFast() {
+    LintProblemSet problemSet = new LintProblemSet(0, 0, LintProblem.ErrorLevel.ERROR);
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "a"));
+    assertFalse(problemSet.isCancelled());
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.ERROR, "a"));
+    assertTrue(problemSet.isCancelled());
+    assertEquals(2, problemSet.getProblemSet().get("a.ttl").size());
+  }
+
+  @Test
+  public void globalLimitKeepsKeyQuota() {
+    LintProblemSet problemSet = new LintProblemSet(1, 1, null);
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "a"));
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "b"));
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.WARN, "a"));
+    assertEquals(1, problemSet.getProblemSet().get("a.ttl").size());
+    assertEquals(2, problemSet.getDroppedSize());
+  }
+
+  @Test
+  public void restoreProblems() {
+    LintProblemSet problemSet = new LintProblemSet();
+    LintProblemLocation location = new LintProblemLocation(3, 4);
+    LintProblem problem = new LintProblem(LintProblem.ErrorLevel.INFO, null, location, null,
+        "x", 1);
+    problem.setKey("k");
+    problemSet.addProblem("a.ttl", problem);
+    problemSet.addProblem("a.ttl", problem(LintProblem.ErrorLevel.ERROR, "k"));
+
+    LintProblem restored = problemSet.getProblemSet().get("a.ttl").get(0);
+    assertEquals(LintProblem.ErrorLevel.INFO, restored.getLevel());
+    assertEquals("k", restored.getKey());
+    assertTrue(restored.getLocation() == location);
+    assertEquals("x", restored.getArguments()[0]);
+    assertEquals(1, restored.getArguments()[1]);
+    assertEquals(1, problemSet.errorSize(LintProblem.ErrorLevel.ERROR));
+    assertEquals(2, problemSet.errorSize(LintProblem.ErrorLevel.INFO));
+  }
+}
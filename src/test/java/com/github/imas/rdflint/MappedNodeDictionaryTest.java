@@ -0,0 +1,90 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedNodeDictionaryTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void encodeAndDecode() throws Exception {
+    Path dir = folder.getRoot().toPath().resolve("store");
+    List<Node> nodes = Arrays.asList(
+        NodeFactory.createURI("http://example.com/a"),
+        NodeFactory.createBlankNode("b0"),
+        NodeFactory.createLiteral("plain"),
+        NodeFactory.createLiteral("テキスト", "ja"),
+        NodeFactory.createLiteral("1", TypeMapper.getInstance()
+            .getSafeTypeByName("http://www.w3.org/2001/XMLSchema#integer")));
+    try (MappedNodeDictionary dictionary = MappedNodeDictionary.create(dir)) {
+      List<Integer> ids = nodes.stream().map(dictionary::encode).collect(Collectors.toList());
+      assertEquals(Arrays.asList(0, 1, 2, 3, 4), ids);
+      for (int i = 0; i < nodes.size(); i++) {
+        assertEquals(nodes.get(i), dictionary.decode(i));
+        assertEquals(i, dictionary.lookup(nodes.get(i)));
+      }
+      assertEquals(-1, dictionary.lookup(NodeFactory.createURI("http://example.com/b")));
+
+      // over initial index capacity
+      for (int i = 0; i < 100000; i++) {
+        assertEquals(i + 5, dictionary.encode(NodeFactory.createURI("http://example.com/" + i)));
+      }
+      for (int i = 0; i < 100000; i += 997) {
+        assertEquals(i + 5, dictionary.lookup(NodeFactory.createURI("http://example.com/" + i)));
+        assertEquals("http://example.com/" + i, dictionary.decode(i + 5).getURI());
+      }
+      assertEquals(100005, dictionary.size());
+    }
+    assertFalse(Files.exists(dir));
+  }
+
+  @Test
+  public void tripleSetSameAsTable() throws Exception {
+    try (MappedNodeDictionary dictionary = MappedNodeDictionary
+        .create(folder.getRoot().toPath().resolve("store"))) {
+      TripleSet mapped = dictionary.createTripleSet();
+      TripleTable table = new TripleTable(dictionary);
+      for (int i = 0; i < 5000; i++) {
+        int s = (i * 7919) % 101;
+        int p = (i * 31) % 7;
+        int o = (i * 131) % 53;
+        mapped.add(s, p, o);
+        table.add(s, p, o);
+      }
+      mapped.compact();
+      assertEquals(table.size(), mapped.size());
+      assertTrue(mapped.contains(table.getSubject(3), table.getPredicate(3), table.getObject(3)));
+      assertFalse(mapped.contains(200, 0, 0));
+
+      int[][] patterns = {{5, -1, -1}, {-1, 3, -1}, {-1, -1, 11}, {5, 3, -1}, {5, -1, 11},
+          {-1, 3, 11}, {-1, -1, -1}};
+      for (int[] pattern : patterns) {
+        assertEquals(Arrays.toString(pattern), find(table, pattern), find(mapped, pattern));
+      }
+    }
+  }
+
+  private static List<String> find(TripleSet set, int[] pattern) {
+    List<String> found = new ArrayList<>();
+    set.find(pattern[0], pattern[1], pattern[2], (s, p, o) -> found.add(s + " " + p + " " + o));
+    found.sort(null);
+    return found;
+  }
+
+}
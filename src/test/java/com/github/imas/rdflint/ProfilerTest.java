@@ -0,0 +1,67 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ProfilerTest {
+
+  @Test
+  public void recordSections() throws Exception {
+    Profiler profiler = new Profiler();
+    profiler.record(Profiler.VALIDATOR, "trim.validateTriple", 100, -1);
+    profiler.record(Profiler.VALIDATOR, "trim.validateTriple", 200, -1);
+    profiler.record(Profiler.VALIDATOR, "shacl.validateTripleSet", 1000, 500);
+    try (Profiler.Timer t = profiler.phase("validation.scan")) {
+      Thread.sleep(1);
+    }
+
+    List<Map.Entry<String, Profiler.Section>> sections
+        = profiler.getSections(Profiler.VALIDATOR);
+    assertEquals(2, sections.size());
+    assertEquals("shacl.validateTripleSet", sections.get(0).getKey());
+    assertEquals(500, sections.get(0).getValue().getCpuNanos());
+    assertEquals("trim.validateTriple", sections.get(1).getKey());
+    assertEquals(2, sections.get(1).getValue().getCalls());
+    assertEquals(300, sections.get(1).getValue().getWallNanos());
+    assertEquals(-1, sections.get(1).getValue().getCpuNanos());
+
+    Profiler.Section scan = profiler.getSections(Profiler.PHASE).get(0).getValue();
+    assertEquals(1, scan.getCalls());
+    assertTrue(scan.getWallNanos() >= 1000000);
+  }
+
+  @Test
+  public void disabledRecordsNothing() throws Exception {
+    Profiler profiler = Profiler.disabled();
+    assertFalse(profiler.isEnabled());
+    try (Profiler.Timer t = profiler.task(Profiler.PARSE, "a.ttl")) {
+      profiler.record(Profiler.VALIDATOR, "trim.validateTriple", 100, -1);
+    }
+    assertTrue(profiler.getSections(Profiler.PARSE).isEmpty());
+    assertTrue(profiler.getSections(Profiler.VALIDATOR).isEmpty());
+  }
+
+  @Test
+  public void json() throws Exception {
+    Profiler profiler = new Profiler();
+    profiler.record(Profiler.PARSE, "dir/\"a\".ttl", 100, 50);
+    profiler.record(Profiler.VALIDATOR, "trim.validateNode", 10, -1);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    profiler.json(out);
+    String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"phases\": ["));
+    assertTrue(json.contains("{\"name\": \"trim.validateNode\", \"calls\": 1, "
+        + "\"wallNanos\": 10, \"cpuNanos\": null}"));
+    assertTrue(json.contains("{\"name\": \"dir/\\\"a\\\".ttl\", \"calls\": 1, "
+        + "\"wallNanos\": 100, \"cpuNanos\": 50}"));
+  }
+
+}
@@ -0,0 +1,153 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import com.github.imas.rdflint.validator.RdfValidator;
+import com.github.imas.rdflint.validator.impl.TrimValidator;
+import java.net.URL;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.graph.Triple;
+import org.junit.Test;
+
+public class RdfDocumentCacheTest {
+
+  @Test
+  public void parseOnce() throws Exception {
+    String parentPath = getTestRdfsPath() + "turtle";
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+
+    RdfDocument doc = cache.get(parentPath + "/valid.ttl", parentPath);
+    assertSame(doc, cache.get(parentPath + "/valid.ttl", parentPath));
+    assertEquals("valid.ttl", doc.getFilename());
+    assertFalse(doc.getTriples().isEmpty());
+    assertTrue(doc.getParseProblems().isEmpty());
+  }
+
+  @Test
+  public void parseProblems() throws Exception {
+    String parentPath = getTestRdfsPath() + "turtle";
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+
+    RdfDocument doc = cache.get(parentPath + "/invalid.ttl", parentPath);
+    assertFalse(doc.getParseProblems().isEmpty());
+
+    List<LintProblem> problems = new LinkedList<>();
+    List<RdfValidator> validators = new LinkedList<>();
+    validators.add(new TrimValidator());
+    doc.validate(validators, problems);
+    assertEquals(doc.getParseProblems().size(), problems.size());
+  }
+
+  @Test
+  public void validateByRecordedCallbacks() throws Exception {
+    String parentPath = getTestRdfsPath() + "turtle";
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+    RdfDocument doc = cache.get(parentPath + "/needtrim.ttl", parentPath);
+
+    List<LintProblem> problems = new LinkedList<>();
+    List<RdfValidator> validators = new LinkedList<>();
+    validators.add(new TrimValidator());
+    doc.validate(validators, problems);
+
+    assertEquals(1, problems.size());
+    assertEquals(
+        "com.github.imas.rdflint.validator.impl.needTrimLiteral",
+        problems.get(0).getKey());
+  }
+
+  @Test
+  public void recordCallbacksOnlyForValidation() throws Exception {
+    String parentPath = getTestRdfsPath() + "turtle";
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+    FileManifest.Entry entry = cache.scan(parentPath).getEntries().stream()
+        .filter(e -> e.getFilename().equals("needtrim.ttl")).findFirst().get();
+
+    RdfDocument origin = cache.get(entry, false);
+    assertFalse(origin.canValidate());
+    assertSame(origin, cache.get(entry, false));
+
+    // parsed again, since callbacks are needed
+    RdfDocument doc = cache.get(entry);
+    assertTrue(doc.canValidate());
+    assertEquals(origin.getTriples().size(), doc.getTriples().size());
+
+    List<LintProblem> problems = new LinkedList<>();
+    List<RdfValidator> validators = new LinkedList<>();
+    validators.add(new TrimValidator());
+    doc.validate(validators, problems);
+    assertEquals(1, problems.size());
+
+    doc.releaseEvents();
+    assertFalse(doc.canValidate());
+    assertSame(doc, cache.get(entry, false));
+    assertFalse(doc.getTriples().isEmpty());
+  }
+
+  @Test
+  public void recordCallbacksByPolicy() throws Exception {
+    String parentPath = getTestRdfsPath() + "turtle";
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+    assertTrue(cache.isRecordCallbacks());
+    FileManifest.Entry entry = cache.scan(parentPath).getEntries().stream()
+        .filter(e -> e.getFilename().equals("needtrim.ttl")).findFirst().get();
+
+    // documents are not retained, validators and runner parse without callbacks
+    cache.setRecordCallbacks(false);
+    RdfDocument first = cache.get(parentPath + "/needtrim.ttl", parentPath);
+    assertFalse(first.canValidate());
+    assertSame(first, cache.get(entry));
+
+    // validate requests callbacks explicitly
+    RdfDocument doc = cache.get(entry, true);
+    assertTrue(doc.canValidate());
+
+    // documents are retained, parsed once with callbacks
+    cache.invalidate(entry.getPath().toString());
+    cache.setRecordCallbacks(true);
+    RdfDocument retained = cache.get(parentPath + "/needtrim.ttl", parentPath);
+    assertTrue(retained.canValidate());
+    assertSame(retained, cache.get(entry));
+    assertSame(retained, cache.get(entry, true));
+  }
+
+  @Test
+  public void loadFileTripleSet() throws Exception {
+    String parentPath = getTestRdfsPath() + "rdfxml";
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+
+    Map<String, List<Triple>> fileTripleSet = cache.loadFileTripleSet(parentPath);
+    assertTrue(fileTripleSet.containsKey("valid.rdf"));
+    assertEquals(cache.get(parentPath + "/valid.rdf", parentPath).getTriples().size(),
+        fileTripleSet.get("valid.rdf").size());
+  }
+
+  @Test
+  public void loadFileTripleSetParallel() throws Exception {
+    String parentPath = getTestRdfsPath() + "turtle";
+    Map<String, List<Triple>> sequential
+        = new RdfDocumentCache("http://example.com/").loadFileTripleSet(parentPath);
+
+    RdfDocumentCache cache = new RdfDocumentCache("http://example.com/");
+    Map<String, List<Triple>> parallel;
+    try (WorkerPool pool = new WorkerPool(4)) {
+      parallel = cache.loadFileTripleSet(cache.scan(parentPath), pool);
+    }
+    assertEquals(sequential, parallel);
+  }
+
+  private String getTestRdfsPath() {
+    URL rootUrl = this.getClass().getClassLoader().getResource("testRDFs/");
+    assertNotNull("testRDFs not found", rootUrl);
+    if (rootUrl.getPath().charAt(2) == ':') {
+      return rootUrl.getPath().substring(1);
+    }
+    return rootUrl.getPath();
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import org.apache.jena.graph.NodeFactory;
+import org.junit.Test;
+
+public class SubjectIndexTest {
+
+  @Test
+  public void exactLookup() throws Exception {
+    NodeDictionary dictionary = new NodeDictionary();
+    for (int i = 0; i < 10000; i++) {
+      dictionary.encode(NodeFactory.createURI("http://example.com/" + i));
+    }
+    SubjectIndex index = dictionary.getSubjectIndex();
+    assertSame(index, dictionary.getSubjectIndex());
+    assertFalse(index.contains(NodeFactory.createURI("http://example.com/0")));
+
+    // even ids are subjects
+    index.build(subjects -> {
+      for (int i = 0; i < 10000; i += 2) {
+        subjects.set(i);
+      }
+    });
+    assertTrue(index.isBuilt());
+    assertEquals(5000, index.size());
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; i++) {
+      String uri = "http://example.com/" + i;
+      assertEquals(i % 2 == 0, index.contains(NodeFactory.createURI(uri)));
+      assertEquals(i % 2 == 0, index.contains(dictionary.lookup(NodeFactory.createURI(uri))));
+      if (i % 2 != 0 && index.mightContain(uri)) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 250);
+    assertFalse(index.contains(NodeFactory.createURI("http://example.com/other")));
+    assertFalse(index.contains(NodeFactory.createBlankNode()));
+
+    // built once, and shared
+    index.build(subjects -> subjects.set(1));
+    assertFalse(index.contains(NodeFactory.createURI("http://example.com/1")));
+  }
+
+}
@@ -0,0 +1,92 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SuppressionIndexTest {
+
+  private static final String KEY = "com.github.imas.rdflint.validator.impl.undefinedUri";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private LintProblem problem(String key, LintProblemLocation location) {
+    LintProblem problem = new LintProblem(LintProblem.ErrorLevel.WARN, null, location, null);
+    problem.setKey(key);
+    return problem;
+  }
+
+  @Test
+  public void matchByLocation() throws Exception {
+    Path suppress = folder.newFile("rdflint-suppress.yml").toPath();
+    Files.write(suppress, ("data.ttl:\n"
+        + "  - key: " + KEY + "\n"
+        + "    node: http://example.com/a\n"
+        + "  - key: " + KEY + "\n"
+        + "    subject: http://example.com/s\n"
+        + "    predicate: http://example.com/p\n"
+        + "    object: http://example.com/o\n"
+        + "  - key: " + KEY + "\n"
+        + "    line: 10\n"
+        + "  - key: " + KEY + "\n"
+        + "    line: 20\n"
+        + "    col: 3\n").getBytes(StandardCharsets.UTF_8));
+    SuppressionIndex index = SuppressionIndex.load(suppress.toString());
+
+    Triple triple = Triple.create(NodeFactory.createURI("http://example.com/s"),
+        NodeFactory.createURI("http://example.com/p"),
+        NodeFactory.createURI("http://example.com/o"));
+    assertTrue(index.isSuppressed("data.ttl", problem(KEY,
+        new LintProblemLocation(1, 1, NodeFactory.createURI("http://example.com/a")))));
+    assertTrue(index.isSuppressed("data.ttl", problem(KEY,
+        new LintProblemLocation(1, 1, triple))));
+    assertTrue(index.isSuppressed("data.ttl", problem(KEY,
+        new LintProblemLocation(10, 5, 10, 6))));
+    assertTrue(index.isSuppressed("data.ttl", problem(KEY,
+        new LintProblemLocation(20, 3, 20, 4))));
+
+    assertFalse(index.isSuppressed("data.ttl", problem(KEY,
+        new LintProblemLocation(1, 1, NodeFactory.createURI("http://example.com/b")))));
+    assertFalse(index.isSuppressed("data.ttl", problem(KEY + "2",
+        new LintProblemLocation(10, 5, 10, 6))));
+    assertFalse(index.isSuppressed("other.ttl", problem(KEY,
+        new LintProblemLocation(10, 5, 10, 6))));
+    assertFalse(index.isSuppressed("data.ttl", problem(KEY, null)));
+
+    LintProblemSet problems = new LintProblemSet();
+    problems.addProblem("data.ttl", problem(KEY, new LintProblemLocation(10, 1, 10, 2)));
+    problems.addProblem("data.ttl", problem(KEY, new LintProblemLocation(11, 1, 11, 2)));
+    assertEquals(1, index.filter(problems).getProblemSet().get("data.ttl").size());
+  }
+
+  @Test
+  public void reloadChangedFile() throws Exception {
+    Path suppress = folder.newFile("rdflint-suppress.yml").toPath();
+    Files.write(suppress, ("data.ttl:\n"
+        + "  - key: " + KEY + "\n"
+        + "    line: 10\n").getBytes(StandardCharsets.UTF_8));
+    SuppressionIndex first = SuppressionIndex.load(suppress.toString());
+    assertSame(first, SuppressionIndex.load(suppress.toString()));
+
+    Files.write(suppress, "data.ttl: []\n".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(suppress, FileTime.fromMillis(
+        Files.getLastModifiedTime(suppress).toMillis() + 2000));
+    SuppressionIndex second = SuppressionIndex.load(suppress.toString());
+    assertFalse(first == second);
+    assertFalse(second.isSuppressed("data.ttl", problem(KEY,
+        new LintProblemLocation(10, 5, 10, 6))));
+  }
+
+}
@@ -0,0 +1,73 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.junit.Test;
+
+public class TripleTableTest {
+
+  @Test
+  public void encodeAndDecode() throws Exception {
+    NodeDictionary dictionary = new NodeDictionary();
+    int id = dictionary.encode(NodeFactory.createURI("http://example.com/a"));
+    assertEquals(id, dictionary.encode(NodeFactory.createURI("http://example.com/a")));
+    assertEquals(id, dictionary.lookup(NodeFactory.createURI("http://example.com/a")));
+    assertEquals(-1, dictionary.lookup(NodeFactory.createURI("http://example.com/b")));
+    assertEquals(NodeFactory.createURI("http://example.com/a"), dictionary.decode(id));
+
+    Node literal = NodeFactory.createLiteral("a", "ja");
+    assertSame(dictionary.intern(literal), dictionary.intern(NodeFactory.createLiteral("a", "ja")));
+    assertEquals(2, dictionary.size());
+  }
+
+  @Test
+  public void addAndContains() throws Exception {
+    Triple t1 = triple("s1", "p", "o1");
+    Triple t2 = triple("s2", "p", "o2");
+    NodeDictionary dictionary = new NodeDictionary();
+    TripleTable table = new TripleTable(dictionary);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(table.addTriple(triple("s" + i, "p", "o" + i)));
+    }
+    assertFalse(table.addTriple(t1));
+    table.compact();
+
+    assertEquals(1000, table.size());
+    assertEquals(t2, table.get(2));
+    assertTrue(table.contains(t2));
+    assertFalse(table.contains(triple("s1", "p", "o2")));
+    assertFalse(table.contains(triple("s1", "p", "unknown")));
+    assertTrue(table.contains(table.getSubject(1), table.getPredicate(1), table.getObject(1)));
+
+    assertTrue(table.addTriple(triple("s1", "p", "o2")));
+    assertEquals(1001, table.size());
+  }
+
+  @Test
+  public void encodeList() throws Exception {
+    List<Triple> triples = Arrays.asList(
+        triple("s1", "p", "o1"), triple("s2", "p", "o2"), triple("s1", "p", "o1"));
+    NodeDictionary dictionary = new NodeDictionary();
+    TripleTable table = TripleTable.encode(triples, dictionary);
+
+    assertEquals(2, table.size());
+    assertEquals(triples.subList(0, 2), table);
+    assertSame(table, TripleTable.encode(table, dictionary));
+    assertEquals(table, TripleTable.encode(table, new NodeDictionary()));
+  }
+
+  private static Triple triple(String s, String p, String o) {
+    return Triple.create(NodeFactory.createURI("http://example.com/" + s),
+        NodeFactory.createURI("http://example.com/" + p),
+        NodeFactory.createLiteral(o));
+  }
+
+}
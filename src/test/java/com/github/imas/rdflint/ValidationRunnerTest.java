@@ -1,13 +1,39 @@
 package com.github.imas.rdflint;
 
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
+import com.github.imas.rdflint.config.RdfLintParameters;
+import com.github.imas.rdflint.validator.AbstractRdfValidator;
+import com.github.imas.rdflint.validator.RdfValidator;
+import com.github.imas.rdflint.validator.impl.DataTypeValidator;
+import com.github.imas.rdflint.validator.impl.ShaclValidator;
+import com.github.imas.rdflint.validator.impl.TrimValidator;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class ValidationRunnerTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void defaultValidatorList() throws Exception {
     ValidationRunner runner = new ValidationRunner();
@@ -29,4 +55,417 @@ public class ValidationRunnerTest {
     }
   }
 
+  @Test
+  public void parallelSameAsSequential() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testValidatorsImpl/TrimValidator").getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+
+    String sequential = executeAndDump(parentPath, 1);
+    String parallel = executeAndDump(parentPath, 4);
+
+    assertTrue(sequential.length() > 0);
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  public void mappedStorageSameAsHeap() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testValidatorsImpl/UndefinedSubjectValidator/turtle_undefinedsubject")
+        .getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+    params.setOriginDir(parentPath);
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    String heap = dump(runner.execute(params, parentPath));
+
+    params.setStorage(RdfDocumentCache.STORAGE_MAPPED);
+    runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    String mapped = dump(runner.execute(params, parentPath));
+
+    assertTrue(heap.length() > 0);
+    assertEquals(heap, mapped);
+  }
+
+  @Test
+  public void streamingSameAsPreparedTripleSet() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testValidatorsImpl/DataTypeValidator/datatype_ng").getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+    parentPath = new File(parentPath).getCanonicalPath();
+    RdfLintParameters params = ConfigurationLoader
+        .loadConfig(parentPath + "/rdflint-config.yml");
+
+    // streaming, via runner
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidator(new DataTypeValidator());
+    LintProblemSet streaming = runner.execute(params, parentPath);
+
+    // prepared from whole triple set
+    RdfDocumentCache documentCache = new RdfDocumentCache(params.getBaseUri());
+    RdfValidator v = new DataTypeValidator();
+    v.setParameters(params);
+    v.setDocumentCache(documentCache);
+    v.prepareValidationResource(documentCache.loadFileTripleSet(parentPath));
+    LintProblemSet prepared = new LintProblemSet();
+    for (FileManifest.Entry e : documentCache.scan(parentPath).getEntries()) {
+      List<LintProblem> lst = new LinkedList<>();
+      documentCache.get(e).validate(Collections.singletonList(v), lst);
+      lst.forEach(p -> prepared.addProblem(e.getFilename(), p));
+    }
+
+    assertTrue(streaming.hasProblem());
+    assertEquals(dump(prepared), dump(streaming));
+  }
+
+  @Test
+  public void dataTypeParallelSameAsSequential() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testValidatorsImpl/DataTypeValidator/datatype_ng").getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+    parentPath = new File(parentPath).getCanonicalPath();
+    assertDataTypeParallelSameAsSequential(parentPath, true);
+
+    // many numeric predicates, finalized on workers of run
+    Path dir = folder.newFolder("corpus").toPath();
+    CorpusGenerator.create().seed(4).files(8).triplesPerFile(300).literalRatio(0.8)
+        .numericRatio(0.8).anomalyRatio(0.1).generate(dir);
+    assertDataTypeParallelSameAsSequential(dir.resolve("dataset").toString(), false);
+  }
+
+  private void assertDataTypeParallelSameAsSequential(String targetDir, boolean hasProblem)
+      throws Exception {
+    RdfLintParameters params = ConfigurationLoader
+        .loadConfig(targetDir + File.separator + "rdflint-config.yml");
+
+    params.setJobs(1);
+    PoolRecordingValidator sequentialValidator = new PoolRecordingValidator();
+    ValidationRunner sequential = new ValidationRunner();
+    sequential.appendRdfValidator(sequentialValidator);
+    LintProblemSet expected = sequential.execute(params, targetDir);
+
+    params.setJobs(4);
+    PoolRecordingValidator parallelValidator = new PoolRecordingValidator();
+    ValidationRunner parallel = new ValidationRunner();
+    parallel.appendRdfValidator(parallelValidator);
+    LintProblemSet actual = parallel.execute(params, targetDir);
+
+    assertEquals(1, sequentialValidator.parallelism);
+    assertEquals(4, parallelValidator.parallelism);
+    if (hasProblem) {
+      assertTrue(expected.hasProblem());
+    }
+    assertEquals(dump(expected), dump(actual));
+  }
+
+  // records parallelism of run's pool, which predicates are finalized on
+  private static class PoolRecordingValidator extends DataTypeValidator {
+
+    private int parallelism;
+
+    @Override
+    public void completeValidationResource() {
+      parallelism = getDocumentCache().getWorkerPool().getParallelism();
+      super.completeValidationResource();
+    }
+  }
+
+  @Test
+  public void profileSameAsNormal() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testValidatorsImpl/TrimValidator").getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+    String normal = executeAndDump(parentPath, 1);
+
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+    params.setProfile(true);
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    String profiled;
+    Profiler profiler;
+    try (RdfDocumentCache documentCache = RdfDocumentCache.create(params)) {
+      profiled = dump(runner.execute(params, parentPath, documentCache));
+      profiler = documentCache.getProfiler();
+    }
+
+    assertEquals(normal, profiled);
+    assertTrue(profiler.isEnabled());
+    Set<String> phases = profiler.getSections(Profiler.PHASE).stream()
+        .map(Map.Entry::getKey).collect(Collectors.toSet());
+    assertTrue(phases.contains("validation.validateTripleSet"));
+    Set<String> methods = profiler.getSections(Profiler.VALIDATOR).stream()
+        .map(Map.Entry::getKey).collect(Collectors.toSet());
+    assertTrue(methods.contains("trim.validateTriple"));
+    assertTrue(methods.contains("trim.validateTripleSet"));
+    assertFalse(profiler.getSections(Profiler.PARSE).isEmpty());
+  }
+
+  @Test
+  public void limitProblems() throws Exception {
+    Path dir = folder.newFolder("corpus").toPath();
+    CorpusGenerator.create().seed(1).files(4).triplesPerFile(400).undefinedRatio(0.1)
+        .anomalyRatio(0.1).generate(dir);
+    String targetDir = dir.resolve("dataset").toString();
+    RdfLintParameters params = ConfigurationLoader
+        .loadConfig(targetDir + File.separator + "rdflint-config.yml");
+    int all = size(executeDefault(params, targetDir));
+    assertTrue(all > 10);
+
+    params.setMaxProblems(5);
+    LintProblemSet limited = executeDefault(params, targetDir);
+    assertEquals(5, size(limited));
+    assertTrue(limited.isCancelled());
+
+    params.setMaxProblems(0);
+    params.setMaxProblemsPerKey(1);
+    Map<String, Long> keys = executeDefault(params, targetDir).getProblemSet().values()
+        .stream().flatMap(List::stream)
+        .collect(Collectors.groupingBy(LintProblem::getKey, Collectors.counting()));
+    assertTrue(keys.size() > 1);
+    assertTrue(keys.values().stream().allMatch(c -> c == 1));
+
+    params.setMaxProblemsPerKey(0);
+    params.setFailFast(true);
+    params.setMinErrorLevel("INFO");
+    params.setJobs(1);
+    LintProblemSet failFast = executeDefault(params, targetDir);
+    assertTrue(failFast.isCancelled());
+    assertTrue(size(failFast) < all);
+  }
+
+  @Test
+  public void limitProblemsSameAsSequential() throws Exception {
+    Path dir = folder.newFolder("corpus").toPath();
+    CorpusGenerator.create().seed(2).files(8).triplesPerFile(200).undefinedRatio(0.1)
+        .anomalyRatio(0.1).generate(dir);
+    String targetDir = dir.resolve("dataset").toString();
+    RdfLintParameters params = ConfigurationLoader
+        .loadConfig(targetDir + File.separator + "rdflint-config.yml");
+    params.setMaxProblems(7);
+    params.setMaxProblemsPerKey(3);
+
+    params.setJobs(1);
+    String expected = dump(executeDefault(params, targetDir));
+    params.setJobs(4);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(expected, dump(executeDefault(params, targetDir)));
+    }
+  }
+
+  @Test
+  public void shaclViolationReportedOnce() throws Exception {
+    Path dir = folder.newFolder("shacl").toPath();
+    String prefix = "@base <http://example.com/rdflint#> .\n"
+        + "@prefix foaf: <http://xmlns.com/foaf/0.1/> .\n"
+        + "@prefix sh: <http://www.w3.org/ns/shacl#> .\n";
+    String person = "<something> a foaf:Person ; foaf:age -1 .\n";
+    String shape = "<personShape> a sh:NodeShape; sh:targetClass foaf:Person;\n"
+        + "  sh:property [ sh:path foaf:age; sh:minInclusive 0 ] .\n";
+    Files.write(dir.resolve("b.ttl"), (prefix + person + shape).getBytes(StandardCharsets.UTF_8));
+    Files.write(dir.resolve("a.ttl"), (prefix + person + person).getBytes(StandardCharsets.UTF_8));
+    Files.write(dir.resolve("c.ttl"), (prefix + person).getBytes(StandardCharsets.UTF_8));
+
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/rdflint#");
+    String expected = null;
+    for (int jobs : new int[]{1, 4}) {
+      params.setJobs(jobs);
+      ValidationRunner runner = new ValidationRunner();
+      runner.appendRdfValidator(new ShaclValidator());
+      LintProblemSet problems = runner.execute(params, dir.toString());
+
+      assertEquals(1, size(problems));
+      assertEquals(Collections.singleton("a.ttl"), problems.getProblemSet().keySet());
+      assertTrue(problems.getProblemSet().get("a.ttl").get(0).getKey()
+          .endsWith(".shaclViolation"));
+      String actual = dump(problems);
+      if (expected != null) {
+        assertEquals(expected, actual);
+      }
+      expected = actual;
+    }
+  }
+
+  @Test
+  public void sinkReceivesEachFileOnce() throws Exception {
+    Path dir = folder.newFolder("corpus").toPath();
+    CorpusGenerator.create().seed(3).files(6).triplesPerFile(200).undefinedRatio(0.1)
+        .anomalyRatio(0.1).generate(dir);
+    String targetDir = dir.resolve("dataset").toString();
+    RdfLintParameters params = ConfigurationLoader
+        .loadConfig(targetDir + File.separator + "rdflint-config.yml");
+    params.setJobs(4);
+
+    Map<String, List<LintProblem>> written = new LinkedHashMap<>();
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    LintProblemSet problems;
+    try (RdfDocumentCache documentCache = RdfDocumentCache.create(params)) {
+      problems = runner.execute(params, targetDir, documentCache, (f, l) ->
+          assertEquals(null, written.put(f, l)));
+    }
+
+    LintProblemSet streamed = new LintProblemSet();
+    written.forEach((f, l) -> l.forEach(p -> streamed.addProblem(f, p)));
+    assertTrue(problems.hasProblem());
+    assertEquals(problems.getProblemSet().keySet(), written.keySet());
+    assertEquals(dump(problems), dump(streamed));
+  }
+
+  @Test
+  public void registrationOrderWithoutIncremental() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testRDFs/turtle").getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+    Path dir = folder.newFolder("target").toPath();
+    Files.copy(new File(parentPath, "needtrim.ttl").toPath(), dir.resolve("needtrim.ttl"));
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+
+    // dataset-level validator registered before file-local one reports first
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidator(new EveryTripleValidator());
+    runner.appendRdfValidator(new TrimValidator());
+    List<LintProblem> problems = runner.execute(params, dir.toString())
+        .getProblemSet().get("needtrim.ttl");
+
+    assertEquals(2, problems.size());
+    assertTrue(problems.get(0).getKey().endsWith(".everyTriple"));
+    assertTrue(problems.get(1).getKey().endsWith(".needTrimLiteral"));
+  }
+
+  private static class EveryTripleValidator extends AbstractRdfValidator {
+
+    @Override
+    public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      return Collections.singletonList(new LintProblem(LintProblem.ErrorLevel.INFO, this,
+          new LintProblemLocation(beginLine, beginCol, endLine, endCol,
+              new Triple(subject, predicate, object)), "everyTriple"));
+    }
+  }
+
+  @Test
+  public void yamlSinkWithAdditionalProblems() throws Exception {
+    String parentPath = this.getClass().getClassLoader()
+        .getResource("testRDFs/turtle").getPath();
+    if (parentPath.charAt(2) == ':') {
+      parentPath = parentPath.substring(1);
+    }
+    Path dir = folder.newFolder("target").toPath();
+    Files.copy(new File(parentPath, "needtrim.ttl").toPath(), dir.resolve("needtrim.ttl"));
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+
+    for (int jobs : new int[]{1, 4}) {
+      params.setJobs(jobs);
+      ValidationRunner runner = new ValidationRunner();
+      runner.appendRdfValidator(new TrimValidator());
+      runner.appendRdfValidator(new AdditionalProblemValidator());
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      LintProblemSet problems;
+      try (RdfDocumentCache documentCache = RdfDocumentCache.create(params);
+          LintProblemFormatter.ProblemWriter writer = LintProblemFormatter.yamlWriter(out)) {
+        problems = runner.execute(params, dir.toString(), documentCache, writer);
+      }
+
+      // problem added after validation is written under same key
+      assertEquals(2, problems.getProblemSet().get("needtrim.ttl").size());
+      String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+      String key = LintProblemFormatter.yamlScalar("needtrim.ttl") + ":";
+      assertEquals(1, Arrays.stream(lines).filter(key::equals).count());
+      assertEquals(2, Arrays.stream(lines)
+          .filter(l -> l.startsWith("  - ")).count());
+    }
+  }
+
+  private static class AdditionalProblemValidator extends AbstractRdfValidator {
+
+    @Override
+    public void reportAdditionalProblem(LintProblemSet problems) {
+      problems.addProblem("needtrim.ttl", new LintProblem(LintProblem.ErrorLevel.INFO, this,
+          null, "additional"));
+    }
+  }
+
+  @Test
+  public void prepareValidationResourceOnly() throws Exception {
+    Path dir = folder.newFolder("target").toPath();
+    String prefix = "@prefix schema: <http://schema.org/> .\n";
+    Files.write(dir.resolve("a.ttl"), (prefix + "<a> schema:name \"a\" .\n"
+        + "<b> schema:name \"b\" .\n").getBytes(StandardCharsets.UTF_8));
+    Files.write(dir.resolve("c.ttl"), (prefix + "<c> schema:name \"c\" .\n")
+        .getBytes(StandardCharsets.UTF_8));
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+
+    for (int jobs : new int[]{1, 4}) {
+      params.setJobs(jobs);
+      PreparedOnlyValidator validator = new PreparedOnlyValidator();
+      ValidationRunner runner = new ValidationRunner();
+      runner.appendRdfValidator(validator);
+      runner.execute(params, dir.toString());
+
+      assertTrue(ValidationRunner.needsFileTripleSet(validator));
+      assertEquals(2, validator.sizes.size());
+      assertEquals(Integer.valueOf(2), validator.sizes.get("a.ttl"));
+      assertEquals(Integer.valueOf(1), validator.sizes.get("c.ttl"));
+    }
+    assertFalse(ValidationRunner.needsFileTripleSet(new DataTypeValidator()));
+    assertFalse(ValidationRunner.needsFileTripleSet(new TrimValidator()));
+  }
+
+  // validator which implements only old contract of whole triple set
+  private static class PreparedOnlyValidator extends AbstractRdfValidator {
+
+    private final Map<String, Integer> sizes = new LinkedHashMap<>();
+
+    @Override
+    public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+      fileTripleSet.forEach((f, l) -> sizes.put(f, l.size()));
+    }
+  }
+
+  private LintProblemSet executeDefault(RdfLintParameters params, String targetDir)
+      throws Exception {
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    return runner.execute(params, targetDir);
+  }
+
+  private int size(LintProblemSet problems) {
+    return problems.getProblemSet().values().stream().mapToInt(List::size).sum();
+  }
+
+  private String executeAndDump(String parentPath, int jobs) throws Exception {
+    RdfLintParameters params = new RdfLintParameters();
+    params.setBaseUri("http://example.com/");
+    params.setJobs(jobs);
+    ValidationRunner runner = new ValidationRunner();
+    runner.appendRdfValidatorsFromPackage("com.github.imas.rdflint.validator.impl");
+    return dump(runner.execute(params, parentPath));
+  }
+
+  private String dump(LintProblemSet problems) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    LintProblemFormatter.out(out, problems);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
 }
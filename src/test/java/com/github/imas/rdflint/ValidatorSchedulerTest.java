@@ -0,0 +1,212 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import com.github.imas.rdflint.config.RdfLintParameters;
+import com.github.imas.rdflint.validator.AbstractRdfValidator;
+import com.github.imas.rdflint.validator.RdfValidator;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.Test;
+
+public class ValidatorSchedulerTest {
+
+  @Test
+  public void stagesByDependencies() throws Exception {
+    ValidatorScheduler scheduler = new ValidatorScheduler(Arrays.asList(
+        new TestValidator("report", "shape", "type"),
+        new TestValidator("shape"),
+        new TestValidator("type", "shape"),
+        new TestValidator("encoding")));
+
+    List<List<String>> stages = scheduler.getStages().stream()
+        .map(s -> s.stream().map(RdfValidator::getValidatorName).collect(Collectors.toList()))
+        .collect(Collectors.toList());
+    assertEquals(3, stages.size());
+    assertEquals(Arrays.asList("shape", "encoding"), stages.get(0));
+    assertEquals(Arrays.asList("type"), stages.get(1));
+    assertEquals(Arrays.asList("report"), stages.get(2));
+    assertEquals(4, scheduler.getValidators().size());
+  }
+
+  @Test
+  public void cyclicDependencies() throws Exception {
+    try {
+      new ValidatorScheduler(Arrays.asList(
+          new TestValidator("a", "b"),
+          new TestValidator("b", "c"),
+          new TestValidator("c", "a")));
+      fail("cyclic dependencies are not detected");
+    } catch (IllegalArgumentException ex) {
+      assertTrue(ex.getMessage().contains("a -> b -> c -> a"));
+    }
+  }
+
+  @Test
+  public void unknownDependency() throws Exception {
+    ValidatorScheduler scheduler = new ValidatorScheduler(Arrays.asList(
+        new TestValidator("a", "unknown")));
+    assertEquals(1, scheduler.getStages().size());
+  }
+
+  @Test
+  public void runStagesInOrder() throws Exception {
+    TestValidator first = new TestValidator("first");
+    TestValidator second = new TestValidator("second", "first");
+    ValidatorScheduler scheduler = new ValidatorScheduler(Arrays.asList(second, first));
+
+    try (WorkerPool pool = new WorkerPool(4)) {
+      LintProblemSet problems = scheduler.run(pool, (v, p) -> v.completeValidationResource());
+      assertFalse(problems.hasProblem());
+    }
+    assertTrue(first.completedAt < second.completedAt);
+  }
+
+  @Test
+  public void serializeNotThreadSafeValidator() throws Exception {
+    TestValidator unsafe = new TestValidator("unsafe");
+    unsafe.threadSafe = false;
+    ValidatorScheduler scheduler = new ValidatorScheduler(Arrays.asList(unsafe));
+    RdfValidator wrapped = scheduler.getValidators().get(0);
+    assertEquals("unsafe", wrapped.getValidatorName());
+
+    List<String> files = Arrays.asList("a.rdf", "b.rdf", "c.rdf", "d.rdf", "e.rdf", "f.rdf");
+    try (WorkerPool pool = new WorkerPool(4)) {
+      pool.map(files, f -> {
+        wrapped.validateTripleSet(new LintProblemSet(), f, null);
+        return f;
+      });
+    }
+    assertEquals(files.size(), unsafe.calls.get());
+    assertEquals(1, unsafe.maxConcurrency.get());
+  }
+
+  @Test
+  public void serializeByDefault() throws Exception {
+    RdfValidator plain = new PlainValidator();
+    RdfValidator direct = new DirectValidator();
+    assertFalse(plain.isThreadSafe());
+    assertFalse(direct.isThreadSafe());
+    assertEquals("direct", direct.getValidatorName());
+    assertTrue(direct.getDependencies().isEmpty());
+    assertFalse(direct.isFileLocal());
+
+    ValidatorScheduler scheduler = new ValidatorScheduler(Arrays.asList(plain, direct));
+    assertFalse(scheduler.getValidators().get(0) == plain);
+    assertFalse(scheduler.getValidators().get(1) == direct);
+    assertEquals("direct", scheduler.getValidators().get(1).getValidatorName());
+  }
+
+  private static class PlainValidator extends AbstractRdfValidator {
+  }
+
+  // validator which implements interface directly, with methods of interface before scheduler
+  private static class DirectValidator implements RdfValidator {
+
+    @Override
+    public void setParameters(RdfLintParameters params) {
+    }
+
+    @Override
+    public void validateFile(LintProblemSet problems, String path, String parentPath) {
+    }
+
+    @Override
+    public void prepareValidationResource(Map<String, List<Triple>> fileTripleSet) {
+    }
+
+    @Override
+    public void validateTripleSet(LintProblemSet problems, String file,
+        List<Triple> tripeSet) {
+    }
+
+    @Override
+    public void validateOriginTripleSet(LintProblemSet problems, String file,
+        List<Triple> tripeSet) {
+    }
+
+    @Override
+    public void reportAdditionalProblem(LintProblemSet problems) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public List<LintProblem> validateTriple(Node subject, Node predicate, Node object,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      return new LinkedList<>();
+    }
+
+    @Override
+    public List<LintProblem> validateNode(Node node,
+        int beginLine, int beginCol, int endLine, int endCol) {
+      return new LinkedList<>();
+    }
+  }
+
+  private static final AtomicInteger clock = new AtomicInteger();
+
+  private static class TestValidator extends AbstractRdfValidator {
+
+    private final String name;
+    private final Set<String> dependencies;
+    private boolean threadSafe = true;
+    private volatile int completedAt;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+    TestValidator(String name, String... dependencies) {
+      this.name = name;
+      this.dependencies = new HashSet<>(Arrays.asList(dependencies));
+    }
+
+    @Override
+    public String getValidatorName() {
+      return name;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return threadSafe;
+    }
+
+    @Override
+    public Set<String> getDependencies() {
+      return dependencies;
+    }
+
+    @Override
+    public void completeValidationResource() {
+      completedAt = clock.incrementAndGet();
+    }
+
+    @Override
+    public void validateTripleSet(LintProblemSet problems, String file,
+        List<Triple> tripeSet) {
+      int current = running.incrementAndGet();
+      maxConcurrency.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      calls.incrementAndGet();
+      running.decrementAndGet();
+    }
+  }
+
+}
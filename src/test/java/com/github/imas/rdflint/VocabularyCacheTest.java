@@ -0,0 +1,173 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jena.riot.Lang;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class VocabularyCacheTest {
+
+  private static final String NS = "http://example.com/vocab#";
+  private static final String BODY = "@prefix ex: <" + NS + "> .\n"
+      + "ex:A a ex:Class .\n"
+      + "ex:B a ex:Class .\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger notModified = new AtomicInteger();
+
+  // local http server, which serves vocabulary with etag, and redirects to it
+  private void startServer() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/vocab", exchange -> {
+      requests.incrementAndGet();
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        notModified.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+      byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/turtle");
+      exchange.getResponseHeaders().add("ETag", "\"v1\"");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.createContext("/moved", exchange -> {
+      requests.incrementAndGet();
+      exchange.getResponseHeaders().add("Location", "/vocab");
+      exchange.sendResponseHeaders(301, -1);
+      exchange.close();
+    });
+    server.createContext("/loop", exchange -> {
+      requests.incrementAndGet();
+      exchange.getResponseHeaders().add("Location",
+          "http://127.0.0.1:" + server.getAddress().getPort() + "/loop");
+      exchange.sendResponseHeaders(302, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  private void stopServer() {
+    if (server != null) {
+      server.stop(0);
+      server = null;
+    }
+  }
+
+  private VocabularyCache.Source source(String path) {
+    return new VocabularyCache.Source(
+        "http://127.0.0.1:" + server.getAddress().getPort() + path, NS, Lang.TURTLE);
+  }
+
+  @Test
+  public void revalidateByEtag() throws Exception {
+    startServer();
+    try {
+      Path dir = folder.newFolder("cache").toPath();
+      VocabularyCache cache = new VocabularyCache(dir, 0, 5000, false);
+
+      VocabularySnapshot first = cache.fetch(source("/vocab"));
+      assertNotNull(first);
+      assertTrue(first.contains(NS + "A"));
+      assertFalse(first.contains(NS + "C"));
+
+      VocabularySnapshot second = cache.fetch(source("/vocab"));
+      assertTrue(second.contains(NS + "B"));
+      assertEquals(2, requests.get());
+      assertEquals(1, notModified.get());
+
+      // fresh entry is used without request
+      VocabularyCache fresh = new VocabularyCache(dir, 60000, 5000, false);
+      assertTrue(fresh.fetch(source("/vocab")).contains(NS + "A"));
+      assertEquals(2, requests.get());
+    } finally {
+      stopServer();
+    }
+  }
+
+  @Test
+  public void offlineAndStale() throws Exception {
+    startServer();
+    try {
+      Path dir = folder.newFolder("cache").toPath();
+      new VocabularyCache(dir, 0, 5000, false).fetch(source("/vocab"));
+      VocabularyCache.Source cached = source("/vocab");
+      VocabularyCache.Source uncached = source("/vocab?other");
+      stopServer();
+
+      VocabularyCache offline = new VocabularyCache(dir, 0, 5000, true);
+      assertTrue(offline.fetch(cached).contains(NS + "A"));
+      assertNull(offline.fetch(uncached));
+
+      // stale entry is used when fetch fails
+      VocabularyCache online = new VocabularyCache(dir, 0, 1000, false);
+      assertTrue(online.fetch(cached).contains(NS + "A"));
+      assertNull(online.fetch(uncached));
+    } finally {
+      stopServer();
+    }
+  }
+
+  @Test
+  public void followRedirects() throws Exception {
+    startServer();
+    try {
+      Path dir = folder.newFolder("cache").toPath();
+      VocabularyCache cache = new VocabularyCache(dir, 0, 5000, false);
+
+      VocabularySnapshot moved = cache.fetch(source("/moved"));
+      assertNotNull(moved);
+      assertTrue(moved.contains(NS + "A"));
+      assertEquals(2, requests.get());
+
+      // revalidated through redirect
+      assertTrue(cache.fetch(source("/moved")).contains(NS + "B"));
+      assertEquals(1, notModified.get());
+
+      // redirects are bounded
+      assertNull(cache.fetch(source("/loop")));
+    } finally {
+      stopServer();
+    }
+  }
+
+  @Test
+  public void fetchAllConcurrently() throws Exception {
+    startServer();
+    try {
+      Path dir = folder.newFolder("cache").toPath();
+      VocabularyCache cache = new VocabularyCache(dir, 60000, 5000, false);
+      Map<VocabularyCache.Source, VocabularySnapshot> snapshots = cache.fetchAll(Arrays.asList(
+          source("/vocab?1"), source("/vocab?2"), source("/vocab?3"), source("/vocab?4"),
+          source("/vocab?5")));
+
+      assertEquals(5, snapshots.size());
+      snapshots.values().forEach(s -> assertTrue(s.contains(NS + "A")));
+      assertEquals(5, requests.get());
+    } finally {
+      stopServer();
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.github.imas.rdflint;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class VocabularySnapshotTest {
+
+  private static final String NS = "http://example.com/vocab#";
+
+  @Test
+  public void lookupSubjects() throws Exception {
+    List<String> subjects = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      subjects.add(NS + "term" + i);
+    }
+    subjects.add(NS + "日本語");
+    subjects.add("http://example.com/other#term1");
+    VocabularySnapshot snapshot = VocabularySnapshot.of(
+        ByteBuffer.wrap(VocabularySnapshot.build(NS, subjects)));
+
+    assertEquals(NS, snapshot.getNamespace());
+    assertEquals(101, snapshot.size());
+    for (int i = 0; i < 100; i++) {
+      assertTrue(snapshot.contains(NS + "term" + i));
+    }
+    assertTrue(snapshot.contains(NS + "日本語"));
+    assertFalse(snapshot.contains(NS + "term"));
+    assertFalse(snapshot.contains(NS + "term100"));
+    assertFalse(snapshot.contains(NS + "a"));
+    assertFalse(snapshot.contains(NS + "zzz"));
+    assertFalse(snapshot.contains("http://example.com/other#term1"));
+  }
+
+  @Test
+  public void loadBundled() throws Exception {
+    VocabularySnapshot snapshot = VocabularySnapshot.loadBundled(
+        "http://www.w3.org/2000/01/rdf-schema#", "rdf/org/w3/rdf-schema.ttl");
+    assertNotNull(snapshot);
+    assertTrue(snapshot.contains("http://www.w3.org/2000/01/rdf-schema#label"));
+    assertFalse(snapshot.contains("http://www.w3.org/2000/01/rdf-schema#undefined"));
+  }
+
+}
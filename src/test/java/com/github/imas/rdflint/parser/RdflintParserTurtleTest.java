@@ -3,21 +3,31 @@ package com.github.imas.rdflint.parser;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.fail;
 
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.validator.RdfValidator;
 import com.github.imas.rdflint.validator.impl.TrimValidator;
 import java.net.URL;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.jena.graph.Factory;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.riot.Lang;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class RdflintParserTurtleTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void testValid() throws Exception {
     String rootPath = getTestRdfsPath() + "turtle/valid.ttl";
@@ -67,6 +77,44 @@ public class RdflintParserTurtleTest {
         problems.get(0).getKey());
   }
 
+  @Test
+  public void testSourceKeepsLineEndings() throws Exception {
+    String text = "@prefix ex: <http://example.com/> .\r\n"
+        + "ex:s ex:p \" a\" .\r\n"
+        + "ex:s ex:p \"b \" .\r\n";
+    Path path = folder.newFile("crlf.ttl").toPath();
+    Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+
+    List<RdfValidator> validators = new LinkedList<>();
+    validators.add(new TrimValidator());
+    Graph fromPath = Factory.createGraphMem();
+    List<LintProblem> pathProblems = new LinkedList<>();
+    RdflintParser.source(path).validators(validators).parse(fromPath, pathProblems);
+    Graph fromString = Factory.createGraphMem();
+    List<LintProblem> stringProblems = new LinkedList<>();
+    RdflintParser.fromString(text).lang(Lang.TURTLE).validators(validators)
+        .parse(fromString, stringProblems);
+
+    assertEquals(2, fromPath.size());
+    assertEquals(fromString.size(), fromPath.size());
+    assertEquals(2, pathProblems.size());
+    assertEquals(3, pathProblems.get(1).getLocation().getBeginLine());
+    assertEquals(stringProblems.get(1).getLocation().getBeginLine(),
+        pathProblems.get(1).getLocation().getBeginLine());
+  }
+
+  @Test
+  public void testSourceMalformedUtf8() throws Exception {
+    Path path = folder.newFile("malformed.ttl").toPath();
+    Files.write(path, new byte[]{'<', 'a', (byte) 0xff, '>', ' ', '.'});
+    try {
+      RdflintParser.source(path);
+      fail("malformed input is not detected");
+    } catch (MalformedInputException ex) {
+      // expected
+    }
+  }
+
   private String getTestRdfsPath() {
     URL rootUrl = this.getClass().getClassLoader().getResource("testRDFs/");
     assertNotNull("testRDFs not found", rootUrl);
@@ -74,4 +74,34 @@ public class DataTypeUtilsTest {
     assertTrue(DataTypeUtils.isLang(v4, "ja"));
   }
 
+  @Test
+  public void classifySameAsRegex() throws Exception {
+    String[] values = {"", "0", "007", "+1", "-", "+", "1.", ".5", "1.5", "-1.25", "1.2.3",
+        "1e10", "１２", "12a", "a12", " 1", "+-1", "-0.0", "カタカナ", "ひらがな・ー", "ー", "☆",
+        "カナ☆", "ひら☆", "mixed カナ", "ASCII?", "\u00e9t\u00e9"};
+    for (String v : values) {
+      DataType expected = DataType.STRING;
+      if (v.matches("\\d+")) {
+        expected = DataType.NATURAL;
+      } else if (v.matches("[+-]?\\d+")) {
+        expected = DataType.INTEGER;
+      } else if (v.matches("[+-]?\\d+(\\.\\d+)?")) {
+        expected = DataType.FLOAT;
+      }
+      assertEquals(v, expected, DataTypeUtils.guessDataType(v));
+    }
+
+    assertTrue(DataTypeUtils.isLang("", "en"));
+    assertTrue(DataTypeUtils.isLang("ASCII?", "en-US"));
+    assertFalse(DataTypeUtils.isLang("\u00e9t\u00e9", "en"));
+    assertTrue(DataTypeUtils.isLang("\u00e9t\u00e9", "fr"));
+    assertTrue(DataTypeUtils.isLang("カナ☆・ー", "ja-Kana"));
+    assertFalse(DataTypeUtils.isLang("カナ a", "ja-Kana"));
+    assertTrue(DataTypeUtils.isLang("ひら☆・ー", "ja-Hira"));
+    assertFalse(DataTypeUtils.isLang("ひらカナ", "ja-Hira"));
+    assertFalse(DataTypeUtils.isLang("ひらカナ", "ja-Hira-x"));
+    assertTrue(DataTypeUtils.isLang("abc", "ja-Hiragana"));
+    assertTrue(DataTypeUtils.isLang("abc", "eng"));
+  }
+
 }
@@ -0,0 +1,69 @@
+package com.github.imas.rdflint.utils;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class GapSummaryTest {
+
+  @Test
+  public void exactSameAsValues() throws Exception {
+    Random random = new Random(1);
+    for (int t = 0; t < 10000; t++) {
+      int n = 1 + random.nextInt(40);
+      double[] vals = new double[n];
+      for (int i = 0; i < n; i++) {
+        vals[i] = random.nextInt(20);
+      }
+      vals[random.nextInt(n)] = random.nextInt(1000) - 500;
+
+      // summaries of parts are merged
+      GapSummary[] parts = {new GapSummary(), new GapSummary(), new GapSummary()};
+      for (double v : vals) {
+        parts[random.nextInt(parts.length)].add(v);
+      }
+      GapSummary summary = new GapSummary();
+      for (GapSummary part : parts) {
+        summary.merge(part);
+      }
+
+      assertEquals((long) n, summary.count());
+      assertTrue(summary.isExact());
+      double[] expected = StatsTestUtils.clusteringOutlierTest(vals.clone(), 3.0, 10);
+      double[] actual = StatsTestUtils.clusteringOutlierTest(summary, 3.0, 10);
+      assertTrue(Arrays.toString(vals), Arrays.equals(expected, actual));
+    }
+  }
+
+  @Test
+  public void repeatedValuesStayExact() throws Exception {
+    GapSummary summary = new GapSummary(16);
+    for (int i = 0; i < 100000; i++) {
+      summary.add(i % 10);
+    }
+    summary.add(1000);
+    assertTrue(summary.isExact());
+    double[] rtn = StatsTestUtils.clusteringOutlierTest(summary, 3.0, 10);
+    assertEquals(1, rtn.length);
+    assertEquals(1000.0, rtn[0]);
+  }
+
+  @Test
+  public void compactedFindsOutlier() throws Exception {
+    Random random = new Random(2);
+    GapSummary summary = new GapSummary(64);
+    for (int i = 0; i < 100000; i++) {
+      summary.add(random.nextGaussian());
+    }
+    summary.add(-100);
+    assertFalse(summary.isExact());
+    double[] rtn = StatsTestUtils.clusteringOutlierTest(summary, 3.0, 10);
+    assertEquals(1, rtn.length);
+    assertEquals(-100.0, rtn[0]);
+  }
+
+}
@@ -0,0 +1,18 @@
+package com.github.imas.rdflint.utils;
+
+import static junit.framework.TestCase.assertEquals;
+
+import org.junit.Test;
+
+public class JsonUtilsTest {
+
+  @Test
+  public void quote() throws Exception {
+    assertEquals("\"\"", JsonUtils.quote(""));
+    assertEquals("\"hoge/fuga.ttl\"", JsonUtils.quote("hoge/fuga.ttl"));
+    assertEquals("\"say \\\"hi\\\" \\\\ bye\"", JsonUtils.quote("say \"hi\" \\ bye"));
+    assertEquals("\"a\\u000ab\\u0009c\\u001f\"", JsonUtils.quote("a\nb\tc\u001f"));
+    assertEquals("\"あ\u007f\"", JsonUtils.quote("あ\u007f"));
+  }
+
+}
@@ -0,0 +1,28 @@
+package com.github.imas.rdflint.utils;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import com.github.imas.rdflint.utils.DataTypeUtils.DataType;
+import org.junit.Test;
+
+public class LiteralClassifierTest {
+
+  @Test
+  public void memoizedSameAsUtils() throws Exception {
+    LiteralClassifier classifier = new LiteralClassifier();
+    String[] values = {"12", "-3", "4.5", "text", "カタカナ", "ひらがな", "12"};
+    for (int n = 0; n < 2; n++) {
+      for (String v : values) {
+        assertEquals(v, DataTypeUtils.classify(v), classifier.classify(v));
+        assertEquals(v, DataTypeUtils.guessDataType(v), classifier.guessDataType(v));
+      }
+    }
+    assertEquals(DataType.NATURAL, classifier.guessDataType(new String("12")));
+    assertTrue(classifier.isLang("カタカナ", "ja-Kana"));
+    assertFalse(classifier.isLang("カタカナ", "ja-Hira"));
+    assertFalse(classifier.isLang("カタカナ", "en"));
+  }
+
+}
@@ -0,0 +1,32 @@
+package com.github.imas.rdflint.utils;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.Test;
+
+public class NamespaceTrieTest {
+
+  @Test
+  public void findAllPrefixes() throws Exception {
+    NamespaceTrie<String> trie = new NamespaceTrie<>();
+    trie.put("http://schema.org/", "schema");
+    trie.put("http://schema.org/ext/", "ext");
+    trie.put("http://xmlns.com/foaf/0.1/", "foaf");
+    trie.put("http://schema.org/", "schema2");
+    assertEquals(3, trie.size());
+
+    List<String> found = new LinkedList<>();
+    assertFalse(trie.anyPrefix("http://schema.org/ext/Thing", v -> !found.add(v)));
+    assertEquals("[schema2, ext]", found.toString());
+
+    assertTrue(trie.anyPrefix("http://xmlns.com/foaf/0.1/name", "foaf"::equals));
+    assertFalse(trie.anyPrefix("http://xmlns.com/foaf/0.2/name", v -> true));
+    assertFalse(trie.anyPrefix("http://schema.org", v -> true));
+    assertFalse(new NamespaceTrie<String>().anyPrefix("http://schema.org/", v -> true));
+  }
+
+}
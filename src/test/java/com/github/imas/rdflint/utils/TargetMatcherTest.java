@@ -0,0 +1,39 @@
+package com.github.imas.rdflint.utils;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class TargetMatcherTest {
+
+  @Test
+  public void matchInOrder() throws Exception {
+    TargetMatcher<String> matcher = TargetMatcher.<String>builder()
+        .glob("*", "all")
+        .regex(".*\\.ttl", "turtle")
+        .glob("*.rdf", "rdf")
+        .glob("*", "all2")
+        .glob(null, "none")
+        .build();
+
+    assertEquals(Arrays.asList("all", "turtle", "all2"), matcher.match("hoge/fuga.ttl"));
+    assertEquals(Arrays.asList("all", "rdf", "all2"), matcher.match("hoge/fuga.rdf"));
+    assertSame(matcher.match("hoge/fuga.rdf"), matcher.match("hoge/fuga.rdf"));
+    assertTrue(matcher.match(null).isEmpty());
+  }
+
+  @Test
+  public void noMatch() throws Exception {
+    TargetMatcher<String> matcher = TargetMatcher.<String>builder()
+        .glob("*.rdf", "rdf")
+        .regex("fuga\\.ttl", "turtle")
+        .build();
+
+    assertTrue(matcher.match("hoge/fuga.ttl").isEmpty());
+    assertTrue(matcher.match("hoge/fuga.rdfx").isEmpty());
+  }
+
+}
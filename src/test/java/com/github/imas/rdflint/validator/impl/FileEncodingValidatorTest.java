@@ -7,6 +7,8 @@ import static junit.framework.TestCase.assertTrue;
 import com.github.imas.rdflint.LintProblem;
 import com.github.imas.rdflint.LintProblemSet;
 import com.github.imas.rdflint.config.RdfLintParameters;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -216,4 +218,26 @@ public class FileEncodingValidatorTest {
         problems2.getProblemSet().get(rdfname2).get(0).getArguments()[0]);
   }
 
+  @Test
+  public void scanBytes() throws Exception {
+    FileEncodingValidator.Settings settings = new FileEncodingValidator.Settings();
+    settings.trailingSpace = true;
+    byte[] text = "\u3042 \r\n  \u3044\r\n".getBytes(StandardCharsets.UTF_8);
+    FileEncodingValidator.ScanResult result = FileEncodingValidator
+        .scan(ByteBuffer.wrap(text), settings);
+    assertTrue(result.eolResult);
+    assertTrue(result.fnlResult);
+    assertFalse(result.twsResult);
+    assertTrue(result.indResult);
+    assertFalse(result.ascii);
+    assertTrue(result.validUtf8);
+    assertEquals("UTF-8", FileEncodingValidator.detectEncoding(ByteBuffer.wrap(text), result));
+
+    byte[] invalid = {'a', (byte) 0xe3, (byte) 0x81, '\r', 'b', '\r'};
+    result = FileEncodingValidator.scan(ByteBuffer.wrap(invalid), settings);
+    assertFalse(result.validUtf8);
+    assertTrue(result.fnlResult);
+    assertTrue(result.twsResult);
+  }
+
 }